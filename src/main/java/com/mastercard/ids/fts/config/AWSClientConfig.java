@@ -1,5 +1,7 @@
 package com.mastercard.ids.fts.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -7,9 +9,14 @@ import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.crt.AwsCrtHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.acm.AcmClient;
 import software.amazon.awssdk.services.acm.AcmClientBuilder;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3ClientBuilder;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
@@ -17,23 +24,128 @@ import software.amazon.awssdk.services.secretsmanager.SecretsManagerClientBuilde
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.SqsClientBuilder;
 import software.amazon.awssdk.awscore.client.builder.AwsClientBuilder;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
 
 import java.net.URI;
 
 @Configuration
 public class AWSClientConfig {
 
+    /**
+     * Sync S3 client on a tuned Apache HTTP client, or the AWS CRT HTTP client when {@code fts.transfer.s3.http.client}
+     * is {@code crt}. Pool size, connection timeouts and TCP keep-alive come from {@code fts.transfer.s3.http}, so the
+     * pool can be sized above the part upload concurrency.
+     */
     @Profile("!local")
     @Bean
-    public S3Client s3Client(AWSProperties awsProperties) {
-        S3ClientBuilder builder = S3Client.builder();
+    public S3Client s3Client(AWSProperties awsProperties, S3HttpClientProperties s3HttpProperties) {
+        S3ClientBuilder builder = S3Client.builder()
+                .httpClientBuilder("crt".equalsIgnoreCase(s3HttpProperties.getClient())
+                        ? crtHttpClientBuilder(s3HttpProperties)
+                        : apacheHttpClientBuilder(s3HttpProperties));
         configureBuilder(builder, awsProperties);
+        builder.overrideConfiguration(s3OverrideConfiguration(s3HttpProperties, "s3"));
         if (awsProperties.getEndpoint() != null && !awsProperties.getEndpoint().isBlank()) {
             builder.forcePathStyle(true);
         }
         return builder.build();
     }
 
+    static ApacheHttpClient.Builder apacheHttpClientBuilder(S3HttpClientProperties s3HttpProperties) {
+        return ApacheHttpClient.builder()
+                .maxConnections(s3HttpProperties.getMaxConnections())
+                .connectionAcquisitionTimeout(s3HttpProperties.getConnectionAcquisitionTimeout())
+                .connectionTimeout(s3HttpProperties.getConnectionTimeout())
+                .socketTimeout(s3HttpProperties.getSocketTimeout())
+                .connectionMaxIdleTime(s3HttpProperties.getConnectionMaxIdleTime())
+                .tcpKeepAlive(s3HttpProperties.isTcpKeepAlive());
+    }
+
+    /**
+     * The CRT client has no socket timeout or connection acquisition timeout. A connection that moves less than a byte
+     * per second for {@code socket-timeout} is closed instead, and TCP keep-alive probes start after
+     * {@code connection-timeout} of silence.
+     */
+    static AwsCrtHttpClient.Builder crtHttpClientBuilder(S3HttpClientProperties s3HttpProperties) {
+        AwsCrtHttpClient.Builder builder = AwsCrtHttpClient.builder()
+                .maxConcurrency(s3HttpProperties.getMaxConnections())
+                .connectionTimeout(s3HttpProperties.getConnectionTimeout())
+                .connectionMaxIdleTime(s3HttpProperties.getConnectionMaxIdleTime())
+                .connectionHealthConfiguration(health -> health
+                        .minimumThroughputInBps(1L)
+                        .minimumThroughputTimeout(s3HttpProperties.getSocketTimeout()));
+        if (s3HttpProperties.isTcpKeepAlive()) {
+            builder.tcpKeepAliveConfiguration(keepAlive -> keepAlive
+                    .keepAliveInterval(s3HttpProperties.getConnectionTimeout())
+                    .keepAliveTimeout(s3HttpProperties.getConnectionTimeout()));
+        }
+        return builder;
+    }
+
+    /**
+     * Async S3 client for {@link com.mastercard.ids.fts.service.S3AsyncService}. Uses the Netty NIO HTTP client by
+     * default, or the AWS CRT client when {@code fts.transfer.s3.async.client} is {@code crt}. The CRT client is the
+     * engine behind the S3 Transfer Manager and splits large requests into parallel sub-requests of
+     * {@code crt-part-size}.
+     */
+    @Profile("!local")
+    @Bean
+    public S3AsyncClient s3AsyncClient(AWSProperties awsProperties,
+                                       S3HttpClientProperties s3HttpProperties,
+                                       @Value("${fts.transfer.s3.async.client}") String clientType,
+                                       @Value("${fts.transfer.s3.async.max-concurrency}") int maxConcurrency,
+                                       @Value("${fts.transfer.s3.async.target-throughput-gbps}") double targetThroughputGbps,
+                                       @Value("${fts.transfer.s3.async.crt-part-size}") long crtPartSize) {
+        boolean customEndpoint = awsProperties.getEndpoint() != null && !awsProperties.getEndpoint().isBlank();
+        if ("crt".equalsIgnoreCase(clientType)) {
+            var builder = S3AsyncClient.crtBuilder()
+                    .region(Region.of(awsProperties.getRegion()))
+                    .maxConcurrency(maxConcurrency)
+                    .targetThroughputInGbps(targetThroughputGbps)
+                    .minimumPartSizeInBytes(crtPartSize);
+            if (customEndpoint) {
+                builder.credentialsProvider(StaticCredentialsProvider.create(
+                                AwsBasicCredentials.create(awsProperties.getAccessKey(), awsProperties.getSecretKey())))
+                        .endpointOverride(URI.create(awsProperties.getEndpoint()))
+                        .forcePathStyle(true);
+            } else {
+                builder.credentialsProvider(DefaultCredentialsProvider.create());
+            }
+            return builder.build();
+        }
+        S3AsyncClientBuilder builder = S3AsyncClient.builder()
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(maxConcurrency)
+                        .connectionAcquisitionTimeout(s3HttpProperties.getConnectionAcquisitionTimeout())
+                        .connectionTimeout(s3HttpProperties.getConnectionTimeout())
+                        .connectionMaxIdleTime(s3HttpProperties.getConnectionMaxIdleTime())
+                        .tcpKeepAlive(s3HttpProperties.isTcpKeepAlive()));
+        configureBuilder(builder, awsProperties);
+        builder.overrideConfiguration(s3OverrideConfiguration(s3HttpProperties, "s3-async"));
+        if (customEndpoint) {
+            builder.forcePathStyle(true);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Transfer Manager of {@link com.mastercard.ids.fts.service.S3TransferManagerServiceImpl}, on the shared async
+     * client. Only the CRT client splits transfers into parallel parts, so the Netty client is rejected. The async
+     * client is a bean of its own and is not closed with the Transfer Manager.
+     */
+    @Profile("!local")
+    @Bean
+    @ConditionalOnProperty(name = "fts.transfer.s3.transfer-manager.enabled", havingValue = "true")
+    public S3TransferManager s3TransferManager(S3AsyncClient s3AsyncClient,
+                                               @Value("${fts.transfer.s3.async.client}") String clientType) {
+        if (!"crt".equalsIgnoreCase(clientType)) {
+            throw new IllegalArgumentException("fts.transfer.s3.transfer-manager.enabled needs fts.transfer.s3.async.client: crt, was " + clientType);
+        }
+        return S3TransferManager.builder()
+                .s3Client(s3AsyncClient)
+                .build();
+    }
+
     @Profile("!local")
     @Bean
     public AcmClient acmClient(AWSProperties awsProperties) {
@@ -59,6 +171,21 @@ public class AWSClientConfig {
         return builder.build();
     }
 
+    // API call timeouts of zero are left unset; pool metrics are published per client
+    static ClientOverrideConfiguration s3OverrideConfiguration(S3HttpClientProperties s3HttpProperties, String clientName) {
+        ClientOverrideConfiguration.Builder builder = ClientOverrideConfiguration.builder();
+        if (!s3HttpProperties.getApiCallTimeout().isZero()) {
+            builder.apiCallTimeout(s3HttpProperties.getApiCallTimeout());
+        }
+        if (!s3HttpProperties.getApiCallAttemptTimeout().isZero()) {
+            builder.apiCallAttemptTimeout(s3HttpProperties.getApiCallAttemptTimeout());
+        }
+        if (s3HttpProperties.isMetricsEnabled()) {
+            builder.addMetricPublisher(new S3ConnectionPoolMetricPublisher(clientName));
+        }
+        return builder.build();
+    }
+
     private <T extends AwsClientBuilder<T, U>, U> void configureBuilder(T builder, AWSProperties awsProperties) {
         builder.region(Region.of(awsProperties.getRegion()));
         if (awsProperties.getEndpoint() != null && !awsProperties.getEndpoint().isBlank()) {
@@ -1,37 +1,106 @@
 package com.mastercard.ids.fts.config;
 
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.metrics.Meter;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
 import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.retry.annotation.EnableRetry;
 import org.springframework.web.client.RestClient;
 
+import javax.net.ssl.SSLContext;
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @Configuration
 @EnableRetry
 public class AppConfig {
 
-    @Bean("ftsHttpClient")
+    private static final Meter meter = GlobalOpenTelemetry.getMeter("com.mastercard.ids.fts");
+
+    /**
+     * Connection pool of the NGFT client. All NGFT calls share one route, so {@code max-per-route} bounds the
+     * listing, part and control calls in flight together. Leased, pending, available and maximum connections are
+     * exported as gauges.
+     */
+    @Bean("ftsHttpConnectionManager")
     @Profile("!local")
-    public CloseableHttpClient httpClient(@Qualifier("ftsSslConnectionSocketFactory") SSLConnectionSocketFactory socketFactory) {
+    public PoolingHttpClientConnectionManager httpConnectionManager(@Qualifier("ftsSslConnectionSocketFactory") SSLConnectionSocketFactory socketFactory,
+                                                                    NgftHttpClientProperties properties) {
         var connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
                 .setSSLSocketFactory(socketFactory)
+                .setMaxConnTotal(properties.getMaxTotal())
+                .setMaxConnPerRoute(properties.getMaxPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(timeout(properties.getConnectTimeout()))
+                        .setSocketTimeout(timeout(properties.getSocketTimeout()))
+                        .setTimeToLive(timeValue(properties.getTimeToLive()))
+                        .setValidateAfterInactivity(timeValue(properties.getValidateAfterInactivity()))
+                        .build())
                 .build();
+        meter.gaugeBuilder("fts.ngft.http.pool.leased")
+                .setDescription("NGFT connections currently leased from the pool")
+                .ofLongs()
+                .buildWithCallback(measurement -> measurement.record(connectionManager.getTotalStats().getLeased()));
+        meter.gaugeBuilder("fts.ngft.http.pool.pending")
+                .setDescription("NGFT requests waiting for a pooled connection")
+                .ofLongs()
+                .buildWithCallback(measurement -> measurement.record(connectionManager.getTotalStats().getPending()));
+        meter.gaugeBuilder("fts.ngft.http.pool.available")
+                .setDescription("Idle NGFT connections kept in the pool")
+                .ofLongs()
+                .buildWithCallback(measurement -> measurement.record(connectionManager.getTotalStats().getAvailable()));
+        meter.gaugeBuilder("fts.ngft.http.pool.max")
+                .setDescription("Maximum NGFT connections in the pool")
+                .ofLongs()
+                .buildWithCallback(measurement -> measurement.record(connectionManager.getTotalStats().getMax()));
+        return connectionManager;
+    }
+
+    @Bean("ftsHttpClient")
+    @Profile("!local")
+    public CloseableHttpClient httpClient(@Qualifier("ftsHttpConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+                                          NgftHttpClientProperties properties) {
         return HttpClients.custom()
                 .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(timeout(properties.getLeaseTimeout()))
+                        .setResponseTimeout(timeout(properties.getResponseTimeout()))
+                        // Used when NGFT sends no Keep-Alive header
+                        .setConnectionKeepAlive(timeValue(properties.getKeepAlive()))
+                        .build())
+                // All calls use the one client certificate; with connection state on, a pooled connection is tagged
+                // with the TLS principal and never handed to the next request, which leases without one
+                .disableConnectionState()
+                .evictExpiredConnections()
+                .evictIdleConnections(timeValue(properties.getIdleEviction()))
                 .build();
     }
 
+    /**
+     * NGFT client. Uses the pooled HttpClient 5 client over HTTP/1.1 by default, or the JDK {@link HttpClient} over
+     * HTTP/2 when {@code fts.ngft.http.version} is {@code http2}, which multiplexes concurrent part transfers over a
+     * single mutual TLS connection instead of one connection each.
+     */
     @Bean
     @Profile("!local")
-    public RestClient restClient(@Qualifier("ftsHttpClient") CloseableHttpClient httpClient) {
-        ClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+    public RestClient restClient(@Qualifier("ftsHttpClient") CloseableHttpClient httpClient,
+                                 @Qualifier("ftsSslContext") SSLContext sslContext,
+                                 NgftHttpClientProperties properties) {
+        ClientHttpRequestFactory requestFactory = ngftRequestFactory(httpClient, sslContext, properties);
         return RestClient.builder()
                 .requestFactory(requestFactory)
                 .build();
@@ -43,4 +112,26 @@ public class AppConfig {
         return RestClient.builder()
                 .build();
     }
+
+    static ClientHttpRequestFactory ngftRequestFactory(CloseableHttpClient httpClient, SSLContext sslContext,
+                                                       NgftHttpClientProperties properties) {
+        if (!"http2".equalsIgnoreCase(properties.getVersion())) {
+            return new HttpComponentsClientHttpRequestFactory(httpClient);
+        }
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .sslContext(sslContext)
+                .connectTimeout(properties.getConnectTimeout())
+                .build());
+        requestFactory.setReadTimeout(properties.getResponseTimeout());
+        return requestFactory;
+    }
+
+    private static Timeout timeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+
+    private static TimeValue timeValue(Duration duration) {
+        return TimeValue.ofMilliseconds(duration.toMillis());
+    }
 }
@@ -0,0 +1,144 @@
+package com.mastercard.ids.fts.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opens and TLS-handshakes NGFT connections into the {@code ftsHttpConnectionManager} pool at startup, so the first
+ * scheduled listing or SQS message after a deploy finds warm connections instead of paying a mutual TLS handshake per
+ * part.
+ * <p>
+ * Runs as an early {@link SmartLifecycle} phase, before the SQS listener containers start and before scheduled tasks
+ * are registered. A connection that cannot be opened is logged and skipped; startup never fails on warm-up. Only the
+ * HTTP/1.1 client is pooled, so nothing is warmed when {@code fts.ngft.http.version} is {@code http2}.
+ */
+@Slf4j
+@Component
+@Profile("!local")
+public class NgftConnectionWarmup implements SmartLifecycle {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final NgftHttpClientProperties properties;
+    private final String baseUrl;
+    private final boolean enabled;
+    private final int connections;
+    private final Timeout timeout;
+    private volatile boolean running;
+
+    public NgftConnectionWarmup(@Qualifier("ftsHttpConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+                                NgftHttpClientProperties properties,
+                                @Value("${file.api.base-url}") String baseUrl,
+                                @Value("${fts.ngft.http.warmup.enabled}") boolean enabled,
+                                @Value("${fts.ngft.http.warmup.connections}") int connections,
+                                @Value("${fts.ngft.http.warmup.timeout-seconds}") long timeoutSeconds) {
+        this.connectionManager = connectionManager;
+        this.properties = properties;
+        this.baseUrl = baseUrl;
+        this.enabled = enabled;
+        this.connections = connections;
+        this.timeout = Timeout.ofSeconds(timeoutSeconds);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (!enabled || connections <= 0) {
+            return;
+        }
+        if ("http2".equalsIgnoreCase(properties.getVersion())) {
+            log.info("NGFT connection warm-up skipped, the HTTP/2 client is not pooled");
+            return;
+        }
+        try {
+            warmUp();
+        } catch (Exception e) {
+            log.warn("NGFT connection warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Leases up to {@code connections} distinct endpoints for the NGFT route, connects them side by side and returns
+     * them to the pool as reusable. Returns the number of connections left open in the pool.
+     */
+    int warmUp() throws Exception {
+        HttpRoute route = route(URI.create(baseUrl));
+        int count = Math.min(connections, properties.getMaxPerRoute());
+        long started = System.nanoTime();
+
+        List<ConnectionEndpoint> endpoints = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            endpoints.add(connectionManager.lease("ngft-warmup-" + i, route, timeout, null).get(timeout));
+        }
+
+        int opened = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<Boolean>> connects = endpoints.stream()
+                    .map(endpoint -> CompletableFuture.supplyAsync(() -> connect(endpoint), executor))
+                    .toList();
+            for (int i = 0; i < endpoints.size(); i++) {
+                boolean connected = connects.get(i).join();
+                // Released without state, the state the NGFT client leases with
+                connectionManager.release(endpoints.get(i), null,
+                        connected ? TimeValue.ofMilliseconds(properties.getKeepAlive().toMillis()) : TimeValue.ZERO_MILLISECONDS);
+                if (connected) {
+                    opened++;
+                }
+            }
+        }
+        log.info("NGFT connection warm-up done. route={}, opened={}/{}, elapsedMs={}", route, opened, count, (System.nanoTime() - started) / 1_000_000);
+        return opened;
+    }
+
+    private boolean connect(ConnectionEndpoint endpoint) {
+        try {
+            if (!endpoint.isConnected()) {
+                connectionManager.connect(endpoint, timeout, HttpClientContext.create());
+            }
+            return endpoint.isConnected();
+        } catch (Exception e) {
+            log.warn("Could not open NGFT connection during warm-up: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    // Same route the client plans for requests to the base URL: no proxy, default port for the scheme
+    static HttpRoute route(URI uri) {
+        boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() != -1 ? uri.getPort() : secure ? 443 : 80;
+        return new HttpRoute(new HttpHost(uri.getScheme(), uri.getHost(), port), null, secure);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Ahead of the SQS listener containers, which start in the last phase
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
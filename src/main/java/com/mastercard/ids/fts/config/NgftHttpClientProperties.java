@@ -0,0 +1,36 @@
+package com.mastercard.ids.fts.config;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+
+@Profile({"!local"})
+@Data
+@Configuration
+public class NgftHttpClientProperties {
+    @Value("${fts.ngft.http.version}")
+    private String version;
+    @Value("${fts.ngft.http.pool.max-total}")
+    private int maxTotal;
+    @Value("${fts.ngft.http.pool.max-per-route}")
+    private int maxPerRoute;
+    @Value("${fts.ngft.http.pool.lease-timeout}")
+    private Duration leaseTimeout;
+    @Value("${fts.ngft.http.pool.idle-eviction}")
+    private Duration idleEviction;
+    @Value("${fts.ngft.http.pool.time-to-live}")
+    private Duration timeToLive;
+    @Value("${fts.ngft.http.pool.validate-after-inactivity}")
+    private Duration validateAfterInactivity;
+    @Value("${fts.ngft.http.connect-timeout}")
+    private Duration connectTimeout;
+    @Value("${fts.ngft.http.socket-timeout}")
+    private Duration socketTimeout;
+    @Value("${fts.ngft.http.response-timeout}")
+    private Duration responseTimeout;
+    @Value("${fts.ngft.http.keep-alive}")
+    private Duration keepAlive;
+}
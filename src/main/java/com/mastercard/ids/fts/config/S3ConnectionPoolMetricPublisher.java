@@ -0,0 +1,99 @@
+package com.mastercard.ids.fts.config;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exports the connection pool state the AWS SDK reports with every S3 call attempt. Leased, pending, available and
+ * maximum connections are gauges holding the last reported value, and the time spent waiting for a connection is a
+ * histogram. All are tagged with the client name, so the sync and async S3 clients can be told apart.
+ */
+public class S3ConnectionPoolMetricPublisher implements MetricPublisher {
+
+    private static final Meter meter = GlobalOpenTelemetry.getMeter("com.mastercard.ids.fts");
+
+    private final Attributes attributes;
+    private final AtomicLong leased = new AtomicLong();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong available = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+    private final LongHistogram acquireDuration;
+
+    public S3ConnectionPoolMetricPublisher(String clientName) {
+        this.attributes = Attributes.of(AttributeKey.stringKey("client.name"), clientName);
+        meter.gaugeBuilder("fts.s3.http.pool.leased")
+                .setDescription("S3 connections leased from the pool at the last call attempt")
+                .ofLongs()
+                .buildWithCallback(measurement -> measurement.record(leased.get(), attributes));
+        meter.gaugeBuilder("fts.s3.http.pool.pending")
+                .setDescription("S3 requests waiting for a pooled connection at the last call attempt")
+                .ofLongs()
+                .buildWithCallback(measurement -> measurement.record(pending.get(), attributes));
+        meter.gaugeBuilder("fts.s3.http.pool.available")
+                .setDescription("Idle S3 connections in the pool at the last call attempt")
+                .ofLongs()
+                .buildWithCallback(measurement -> measurement.record(available.get(), attributes));
+        meter.gaugeBuilder("fts.s3.http.pool.max")
+                .setDescription("Maximum S3 connections in the pool")
+                .ofLongs()
+                .buildWithCallback(measurement -> measurement.record(max.get(), attributes));
+        this.acquireDuration = meter.histogramBuilder("fts.s3.http.pool.acquire.duration")
+                .setDescription("Time S3 requests waited for a pooled connection")
+                .setUnit("ms")
+                .ofLongs()
+                .build();
+    }
+
+    @Override
+    public void publish(MetricCollection metrics) {
+        record(metrics);
+    }
+
+    // Pool metrics sit in the HttpClient collection under each ApiCallAttempt
+    private void record(MetricCollection metrics) {
+        last(metrics.metricValues(HttpMetric.LEASED_CONCURRENCY), leased);
+        last(metrics.metricValues(HttpMetric.PENDING_CONCURRENCY_ACQUIRES), pending);
+        last(metrics.metricValues(HttpMetric.AVAILABLE_CONCURRENCY), available);
+        last(metrics.metricValues(HttpMetric.MAX_CONCURRENCY), max);
+        for (Duration duration : metrics.metricValues(HttpMetric.CONCURRENCY_ACQUIRE_DURATION)) {
+            acquireDuration.record(duration.toMillis(), attributes);
+        }
+        metrics.children().forEach(this::record);
+    }
+
+    private static void last(List<Integer> values, AtomicLong target) {
+        if (!values.isEmpty()) {
+            target.set(values.get(values.size() - 1));
+        }
+    }
+
+    long leased() {
+        return leased.get();
+    }
+
+    long pending() {
+        return pending.get();
+    }
+
+    long available() {
+        return available.get();
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    @Override
+    public void close() {
+    }
+}
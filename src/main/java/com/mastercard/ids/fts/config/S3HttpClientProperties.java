@@ -0,0 +1,34 @@
+package com.mastercard.ids.fts.config;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+
+@Profile({"!local"})
+@Data
+@Configuration
+public class S3HttpClientProperties {
+    @Value("${fts.transfer.s3.http.client}")
+    private String client;
+    @Value("${fts.transfer.s3.http.max-connections}")
+    private int maxConnections;
+    @Value("${fts.transfer.s3.http.connection-acquisition-timeout}")
+    private Duration connectionAcquisitionTimeout;
+    @Value("${fts.transfer.s3.http.connection-timeout}")
+    private Duration connectionTimeout;
+    @Value("${fts.transfer.s3.http.socket-timeout}")
+    private Duration socketTimeout;
+    @Value("${fts.transfer.s3.http.connection-max-idle-time}")
+    private Duration connectionMaxIdleTime;
+    @Value("${fts.transfer.s3.http.tcp-keep-alive}")
+    private boolean tcpKeepAlive;
+    @Value("${fts.transfer.s3.http.api-call-timeout}")
+    private Duration apiCallTimeout;
+    @Value("${fts.transfer.s3.http.api-call-attempt-timeout}")
+    private Duration apiCallAttemptTimeout;
+    @Value("${fts.transfer.s3.http.metrics-enabled}")
+    private boolean metricsEnabled;
+}
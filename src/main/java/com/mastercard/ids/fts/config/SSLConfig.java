@@ -35,6 +35,11 @@ public class SSLConfig {
     @Value("${spring.cloud.aws.secretsmanager.fts-ssl-cert-pass-key}")
     private String fts_ssl_cert_pass_key;
 
+    @Value("${fts.ngft.tls.session-cache-size}")
+    private int sessionCacheSize;
+    @Value("${fts.ngft.tls.session-timeout-seconds}")
+    private int sessionTimeoutSeconds;
+
     @Autowired
     private SecretsManagerConfig secretsManagerService;
 
@@ -58,6 +63,10 @@ public class SSLConfig {
                 .loadKeyMaterial(keyStore, keyStorePassword.toCharArray())
                 .build();
 
+        // Reconnects to NGFT resume a cached session instead of repeating the full mutual TLS handshake
+        sslContext.getClientSessionContext().setSessionCacheSize(sessionCacheSize);
+        sslContext.getClientSessionContext().setSessionTimeout(sessionTimeoutSeconds);
+
         Provider provider = sslContext.getProvider();
         log.info("Provider: {}", provider);
         log.info("Provider Info: {}", provider.getInfo());
@@ -1,23 +1,37 @@
 package com.mastercard.ids.fts.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "INBOUND_FILE")
+@Table(name = "INBOUND_FILE", indexes = {
+        // Serves the not-completed sweep, completed-ID lookups go through the primary key
+        @Index(name = "idx_inbound_file_status", columnList = "abort_file, file_download_status, file_upload_status")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class InboundFile {
+public class InboundFile implements Persistable<String> {
 
     @Column(name = "invocation_id", nullable = false, length = 36)
     private String invocationId;
@@ -76,4 +90,47 @@ public class InboundFile {
     @Column(name = "retry_count", nullable = false)
     private int retryCount;
 
+    // Open S3 multipart upload, kept across retries so only missing parts are transferred again
+    @Column(name = "s3_object_key", length = 255)
+    private String s3ObjectKey;
+
+    @Column(name = "s3_upload_id", length = 1024)
+    private String s3UploadId;
+
+    // Part size the open upload was started with, resumed parts must keep the same byte ranges
+    @Column(name = "part_size")
+    private Long partSize;
+
+    // Instance currently transferring this file and until when, see TransferLeaseService
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    // Assigned IDs make Spring Data merge, with a SELECT per row, unless the entity says it is new
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean persisted;
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+
+    @JsonIgnore
+    @Override
+    public String getId() {
+        return fileId;
+    }
+
+    @JsonIgnore
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
 }
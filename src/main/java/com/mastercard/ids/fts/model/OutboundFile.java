@@ -69,4 +69,22 @@ public class OutboundFile {
     @Column(name = "retry_count", nullable = false)
     private int retryCount;
 
+    // Open NGFT multipart upload, kept across retries so only missing parts are transferred again
+    @Column(name = "ngft_file_id", length = 100)
+    private String ngftFileId;
+
+    @Column(name = "ngft_upload_id", length = 1024)
+    private String ngftUploadId;
+
+    // Part size announced to NGFT in x-mc-part-size, resumed parts must keep the same byte ranges
+    @Column(name = "part_size")
+    private Long partSize;
+
+    // Instance currently transferring this file and until when, see TransferLeaseService
+    @Column(name = "lease_owner", length = 100)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
 }
@@ -1,6 +1,7 @@
 package com.mastercard.ids.fts.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.mastercard.ids.fts.utils.PayloadDigest;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,5 +15,10 @@ public class S3FileData {
     private Optional<byte[]> fileContent;
     private Map<String, String> metadata;
     private Optional<String> fileContentRange;
-}
+    // Checksums of the content, when they were computed as it was read
+    private PayloadDigest digest;
 
+    public S3FileData(Optional<byte[]> fileContent, Map<String, String> metadata, Optional<String> fileContentRange) {
+        this(fileContent, metadata, fileContentRange, null);
+    }
+}
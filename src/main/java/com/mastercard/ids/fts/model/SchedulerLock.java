@@ -0,0 +1,63 @@
+package com.mastercard.ids.fts.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "SCHEDULER_LOCK")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SchedulerLock implements Persistable<String> {
+    @Id
+    @Column(name = "LOCK_NAME", nullable = false, length = 50)
+    private String name;
+
+    @Column(name = "LOCKED_BY", nullable = false, length = 100)
+    private String lockedBy;
+
+    @Column(name = "LOCKED_UNTIL", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    // A new lock row is inserted, never merged, so an instance racing to create it gets a duplicate key error
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean persisted;
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+
+    @Override
+    public String getId() {
+        return name;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+}
@@ -30,4 +30,11 @@ public class SchedulerLog {
 
     @Column(name = "TOTAL_FILE_COUNT", nullable = false)
     private Integer totalFileCount = 0;
+
+    // What the adaptive poll scheduler decided after this run, and the delay until the next poll
+    @Column(name = "POLL_DECISION", length = 20)
+    private String pollDecision;
+
+    @Column(name = "NEXT_POLL_DELAY_SECONDS")
+    private Long nextPollDelaySeconds;
 }
@@ -0,0 +1,55 @@
+package com.mastercard.ids.fts.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A part of a multipart transfer that has been written to its destination. Rows are kept while the upload stays open
+ * across retries, so a retry only transfers the parts that are missing.
+ */
+@Entity
+@Table(name = "TRANSFER_PART", indexes = @Index(name = "idx_transfer_part_transfer_id", columnList = "transfer_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransferPart {
+
+    @Id
+    @Column(name = "part_id", nullable = false, length = 48)
+    private String partId;
+
+    // InboundFile.fileId or OutboundFile.requestId
+    @Column(name = "transfer_id", nullable = false, length = 36)
+    private String transferId;
+
+    @Column(name = "direction", nullable = false, length = 10)
+    private String direction;
+
+    @Column(name = "part_number", nullable = false)
+    private int partNumber;
+
+    @Column(name = "start_byte", nullable = false)
+    private long startByte;
+
+    @Column(name = "end_byte", nullable = false)
+    private long endByte;
+
+    @Column(name = "e_tag", length = 100)
+    private String eTag;
+
+    @Column(name = "checksum", length = 32)
+    private String checksum;
+
+    @Column(name = "completed_ts", nullable = false)
+    private LocalDateTime completedTs;
+}
@@ -1,6 +1,7 @@
 package com.mastercard.ids.fts.repository;
 
 import com.mastercard.ids.fts.model.InboundFile;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,15 +9,24 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface FileRepository extends JpaRepository<InboundFile, String> {
 
-    @Query("SELECT f.fileId FROM InboundFile f WHERE f.fileDownloadStatus ILIKE 'Completed' AND f.fileUploadStatus ILIKE 'Completed'")
-    List<String> findExistingCompletedFileIds();
+    @Query("SELECT f.fileId FROM InboundFile f WHERE f.fileDownloadStatus = 'Completed' AND f.fileUploadStatus = 'Completed'")
+    List<String> findCompletedFileIds();
 
-    @Query("SELECT f FROM InboundFile f WHERE ((f.fileDownloadStatus NOT LIKE 'Completed' AND f.fileDownloadStatus NOT LIKE 'Purged') OR f.fileUploadStatus NOT LIKE 'Completed') AND f.abortFile = false")
+    // Only the IDs of the current listing, looked up by primary key instead of scanning every completed file
+    @Query("SELECT f.fileId FROM InboundFile f WHERE f.fileId IN :fileIds AND f.fileDownloadStatus = 'Completed' AND f.fileUploadStatus = 'Completed'")
+    List<String> findCompletedFileIdsIn(@Param("fileIds") Collection<String> fileIds);
+
+    @Query("SELECT f.fileId FROM InboundFile f WHERE f.fileId IN :fileIds")
+    List<String> findExistingFileIdsIn(@Param("fileIds") Collection<String> fileIds);
+
+    @Query("SELECT f FROM InboundFile f WHERE ((f.fileDownloadStatus <> 'Completed' AND f.fileDownloadStatus <> 'Purged') OR f.fileUploadStatus <> 'Completed') AND f.abortFile = false")
     List<InboundFile> findNotCompletedFiles();
 
     @Query("SELECT count(*) FROM InboundFile f WHERE (f.fileDownloadStatus <> 'Completed' OR f.fileUploadStatus <> 'Completed') AND f.abortFile = false")
@@ -29,6 +39,14 @@ public interface FileRepository extends JpaRepository<InboundFile, String> {
                                     @Param("downloadStatus") String downloadStatus,
                                     @Param("uploadStatus") String uploadStatus);
 
+    @Transactional
+    @Modifying
+    @Query("UPDATE InboundFile f SET f.s3ObjectKey = :s3ObjectKey, f.s3UploadId = :s3UploadId, f.partSize = :partSize WHERE f.fileId = :fileId")
+    void updateMultipartUpload(@Param("fileId") String fileId,
+                               @Param("s3ObjectKey") String s3ObjectKey,
+                               @Param("s3UploadId") String s3UploadId,
+                               @Param("partSize") Long partSize);
+
     @Transactional
     @Modifying(clearAutomatically = true)
     @Query("""
@@ -42,4 +60,34 @@ public interface FileRepository extends JpaRepository<InboundFile, String> {
     void updateAsFailedAndIncrementRetry(@Param("fileId") String fileId,
                                          @Param("downloadStatus") String downloadStatus,
                                          @Param("uploadStatus") String uploadStatus);
+
+    // Not completed files of one size range nobody holds a lease on, oldest first, one bounded page per claim
+    @Query("SELECT f FROM InboundFile f WHERE ((f.fileDownloadStatus <> 'Completed' AND f.fileDownloadStatus <> 'Purged') OR f.fileUploadStatus <> 'Completed') AND f.abortFile = false AND (f.leaseOwner IS NULL OR f.leaseExpiresAt < :now) AND COALESCE(f.fileSize, 0) > :aboveSize AND COALESCE(f.fileSize, 0) <= :upToSize ORDER BY f.fileCreatedDate, f.fileId")
+    List<InboundFile> findClaimableFiles(@Param("now") LocalDateTime now,
+                                         @Param("aboveSize") long aboveSize,
+                                         @Param("upToSize") long upToSize,
+                                         Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE InboundFile f SET f.leaseOwner = :owner, f.leaseExpiresAt = :expiresAt WHERE f.fileId IN :fileIds AND (f.leaseOwner IS NULL OR f.leaseExpiresAt < :now)")
+    int claimLeases(@Param("fileIds") Collection<String> fileIds,
+                    @Param("owner") String owner,
+                    @Param("expiresAt") LocalDateTime expiresAt,
+                    @Param("now") LocalDateTime now);
+
+    @Query("SELECT f.fileId FROM InboundFile f WHERE f.fileId IN :fileIds AND f.leaseOwner = :owner")
+    List<String> findLeasedFileIds(@Param("fileIds") Collection<String> fileIds, @Param("owner") String owner);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE InboundFile f SET f.leaseExpiresAt = :expiresAt WHERE f.fileId IN :fileIds AND f.leaseOwner = :owner")
+    int renewLeases(@Param("fileIds") Collection<String> fileIds,
+                    @Param("owner") String owner,
+                    @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE InboundFile f SET f.leaseOwner = null, f.leaseExpiresAt = null WHERE f.fileId = :fileId AND f.leaseOwner = :owner")
+    void releaseLease(@Param("fileId") String fileId, @Param("owner") String owner);
 }
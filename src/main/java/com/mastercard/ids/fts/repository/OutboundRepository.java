@@ -9,6 +9,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -24,6 +26,14 @@ public interface OutboundRepository extends JpaRepository<OutboundFile, String>{
                                     @Param("downloadStatus") String downloadStatus,
                                     @Param("uploadStatus") String uploadStatus);
 
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboundFile f SET f.ngftFileId = :ngftFileId, f.ngftUploadId = :ngftUploadId, f.partSize = :partSize WHERE f.requestId = :requestId")
+    void updateMultipartUpload(@Param("requestId") String requestId,
+                               @Param("ngftFileId") String ngftFileId,
+                               @Param("ngftUploadId") String ngftUploadId,
+                               @Param("partSize") Long partSize);
+
     @Transactional
     @Modifying(clearAutomatically = true)
     @Query("""
@@ -38,4 +48,26 @@ public interface OutboundRepository extends JpaRepository<OutboundFile, String>{
                                          @Param("downloadStatus") String downloadStatus,
                                          @Param("uploadStatus") String uploadStatus);
 
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboundFile f SET f.leaseOwner = :owner, f.leaseExpiresAt = :expiresAt WHERE f.requestId IN :requestIds AND (f.leaseOwner IS NULL OR f.leaseExpiresAt < :now)")
+    int claimLeases(@Param("requestIds") Collection<String> requestIds,
+                    @Param("owner") String owner,
+                    @Param("expiresAt") LocalDateTime expiresAt,
+                    @Param("now") LocalDateTime now);
+
+    @Query("SELECT f.requestId FROM OutboundFile f WHERE f.requestId IN :requestIds AND f.leaseOwner = :owner")
+    List<String> findLeasedRequestIds(@Param("requestIds") Collection<String> requestIds, @Param("owner") String owner);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboundFile f SET f.leaseExpiresAt = :expiresAt WHERE f.requestId IN :requestIds AND f.leaseOwner = :owner")
+    int renewLeases(@Param("requestIds") Collection<String> requestIds,
+                    @Param("owner") String owner,
+                    @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboundFile f SET f.leaseOwner = null, f.leaseExpiresAt = null WHERE f.requestId = :requestId AND f.leaseOwner = :owner")
+    void releaseLease(@Param("requestId") String requestId, @Param("owner") String owner);
 }
@@ -0,0 +1,30 @@
+package com.mastercard.ids.fts.repository;
+
+import com.mastercard.ids.fts.model.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedBy = :owner, l.lockedUntil = :lockedUntil WHERE l.name = :name AND (l.lockedUntil <= :now OR l.lockedBy = :owner)")
+    int acquire(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("lockedUntil") LocalDateTime lockedUntil,
+                @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :now WHERE l.name = :name AND l.lockedBy = :owner")
+    int release(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,22 @@
+package com.mastercard.ids.fts.repository;
+
+import com.mastercard.ids.fts.model.TransferPart;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface TransferPartRepository extends JpaRepository<TransferPart, String> {
+
+    List<TransferPart> findByTransferIdOrderByPartNumber(String transferId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TransferPart p WHERE p.transferId = :transferId")
+    void deleteByTransferId(@Param("transferId") String transferId);
+}
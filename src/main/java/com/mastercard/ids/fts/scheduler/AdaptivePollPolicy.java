@@ -0,0 +1,40 @@
+package com.mastercard.ids.fts.scheduler;
+
+import java.time.Duration;
+
+/**
+ * Delay before the next NGFT poll: back to the minimum as soon as a poll finds new files, multiplied by the backoff
+ * factor after every poll that finds none, up to the maximum.
+ */
+class AdaptivePollPolicy {
+
+    static final String DECISION_ACCELERATE = "Accelerate";
+    static final String DECISION_BACK_OFF = "BackOff";
+    static final String DECISION_SKIPPED = "Skipped";
+
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final double backoffMultiplier;
+    private Duration currentInterval;
+
+    AdaptivePollPolicy(Duration minInterval, Duration maxInterval, double backoffMultiplier) {
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval.compareTo(minInterval) < 0 ? minInterval : maxInterval;
+        this.backoffMultiplier = Math.max(backoffMultiplier, 1.0);
+        this.currentInterval = minInterval;
+    }
+
+    synchronized Duration onPoll(int newFiles) {
+        if (newFiles > 0) {
+            currentInterval = minInterval;
+        } else {
+            long next = (long) Math.min(currentInterval.toMillis() * backoffMultiplier, maxInterval.toMillis());
+            currentInterval = Duration.ofMillis(next);
+        }
+        return currentInterval;
+    }
+
+    synchronized Duration currentInterval() {
+        return currentInterval;
+    }
+}
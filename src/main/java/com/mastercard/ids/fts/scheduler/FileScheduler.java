@@ -1,32 +1,104 @@
 package com.mastercard.ids.fts.scheduler;
 
 import com.mastercard.ids.fts.service.FileSchedulerService;
-import lombok.RequiredArgsConstructor;
+import com.mastercard.ids.fts.service.SchedulerLockService;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
-public class FileScheduler {
+public class FileScheduler implements SchedulingConfigurer {
+
+    static final String POLL_LOCK = "ngft-file-poll";
 
     private final FileSchedulerService fileSchedulerService;
+    private final SchedulerLockService schedulerLockService;
+    private final AdaptivePollPolicy pollPolicy;
+    private final boolean releaseLockOnceListed;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Autowired
+    public FileScheduler(FileSchedulerService fileSchedulerService,
+                         SchedulerLockService schedulerLockService,
+                         @Value("${fts.ngft.poll.min-interval-minutes}") long minIntervalMinutes,
+                         @Value("${fts.ngft.poll.max-interval-minutes}") long maxIntervalMinutes,
+                         @Value("${fts.ngft.poll.backoff-multiplier}") double backoffMultiplier,
+                         @Value("${fts.transfer.lease.enabled}") boolean leasesEnabled) {
+        this(fileSchedulerService, schedulerLockService,
+                new AdaptivePollPolicy(Duration.ofMinutes(minIntervalMinutes), Duration.ofMinutes(maxIntervalMinutes), backoffMultiplier),
+                leasesEnabled);
+        log.info("Adaptive NGFT poll scheduler started. minInterval={}m, maxInterval={}m, backoffMultiplier={}, releaseLockOnceListed={}",
+                minIntervalMinutes, maxIntervalMinutes, backoffMultiplier, leasesEnabled);
+    }
+
+    FileScheduler(FileSchedulerService fileSchedulerService, SchedulerLockService schedulerLockService, AdaptivePollPolicy pollPolicy,
+                  boolean releaseLockOnceListed) {
+        this.fileSchedulerService = fileSchedulerService;
+        this.schedulerLockService = schedulerLockService;
+        this.pollPolicy = pollPolicy;
+        this.releaseLockOnceListed = releaseLockOnceListed;
+    }
 
     /**
-     * Scheduler that runs every 1 hour to check for new files, retrieve file info, and download/upload in parallel.
+     * The first poll runs at startup, each next one is scheduled from the end of the previous one, so runs never
+     * overlap on this node.
+     */
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addTriggerTask(this::runFileDownloadJob, triggerContext -> {
+            Instant lastCompletion = triggerContext.lastCompletion();
+            return lastCompletion != null ? lastCompletion.plus(pollPolicy.currentInterval()) : Instant.now();
+        });
+    }
+
+    /**
+     * Checks for new files, retrieves file info, and downloads/uploads in parallel. Polls again soon while files keep
+     * arriving and backs off while listings are empty. Only one instance in the cluster polls at a time. With
+     * per-file leases on, the lock is released once the listing is saved and the first files are claimed, before
+     * waiting on their transfers, which the leases keep apart. Without leases nothing else stops another instance from
+     * claiming the files in flight, so the lock is held until the transfers are done.
      */
-//    @Scheduled(fixedRate = 3600000) // Runs every 1 hr
-    @Scheduled(fixedRate = 8, timeUnit = TimeUnit.HOURS) // Runs every 4 hr
     public void runFileDownloadJob() {
-        String invocationId = UUID.randomUUID().toString();
-        LocalDateTime invocationTs = LocalDateTime.now();
-        fileSchedulerService.process(invocationId, invocationTs);
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Previous NGFT poll still running, skipping");
+            return;
+        }
+        try {
+            String invocationId = UUID.randomUUID().toString();
+            LocalDateTime invocationTs = LocalDateTime.now();
+            if (!schedulerLockService.tryLock(POLL_LOCK)) {
+                fileSchedulerService.recordPollDecision(invocationId, invocationTs, AdaptivePollPolicy.DECISION_SKIPPED, pollPolicy.currentInterval());
+                return;
+            }
+            AtomicBoolean locked = new AtomicBoolean(true);
+            Runnable unlock = () -> {
+                if (locked.compareAndSet(true, false)) {
+                    schedulerLockService.unlock(POLL_LOCK);
+                }
+            };
+            int newFiles;
+            try {
+                newFiles = fileSchedulerService.process(invocationId, invocationTs, releaseLockOnceListed ? unlock : () -> { });
+            } finally {
+                unlock.run();
+            }
+            Duration nextPollDelay = pollPolicy.onPoll(newFiles);
+            fileSchedulerService.recordPollDecision(invocationId, invocationTs,
+                    newFiles > 0 ? AdaptivePollPolicy.DECISION_ACCELERATE : AdaptivePollPolicy.DECISION_BACK_OFF, nextPollDelay);
+        } catch (Exception e) {
+            log.error("Error in NGFT poll: {}", e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
     }
 }
-
-
@@ -0,0 +1,30 @@
+package com.mastercard.ids.fts.scheduler;
+
+import com.mastercard.ids.fts.service.OutboundFileListProcessor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboundSweepScheduler {
+
+    private final OutboundFileListProcessor outboundFileListProcessor;
+
+    /**
+     * Retries outbound files left unfinished by earlier attempts, which SQS messages no longer pick up.
+     */
+    @Scheduled(initialDelayString = "${fts.transfer.outbound.sweep-interval-minutes}",
+            fixedDelayString = "${fts.transfer.outbound.sweep-interval-minutes}", timeUnit = TimeUnit.MINUTES)
+    public void runOutboundSweep() {
+        try {
+            outboundFileListProcessor.retryNotCompletedFiles();
+        } catch (Exception e) {
+            log.error("Error in outbound sweep: {}", e.getMessage(), e);
+        }
+    }
+}
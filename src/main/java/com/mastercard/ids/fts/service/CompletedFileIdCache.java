@@ -0,0 +1,199 @@
+package com.mastercard.ids.fts.service;
+
+import com.mastercard.ids.fts.repository.FileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Answers which of the listed file IDs are already completed, going to {@link FileRepository} only when it has to.
+ * <p>
+ * When enabled, a Bloom filter of every completed inbound file ID is loaded on first use and kept current through
+ * {@link #markCompleted}, next to a bounded LRU set of IDs confirmed as completed. An ID the filter has never seen is
+ * new, an ID in the LRU set is completed, and only the remaining possible hits are confirmed against the database.
+ * The filter only learns about completions made by this instance, so it is meant for a single scheduler instance.
+ * When disabled, or while the filter cannot be loaded, every ID is looked up in the database.
+ */
+@Slf4j
+@Component
+public class CompletedFileIdCache {
+
+    // Stays well below the bind parameter limit of a single IN query
+    static final int LOOKUP_BATCH_SIZE = 1000;
+
+    private final FileRepository fileRepository;
+    private final boolean enabled;
+    private final int expectedIds;
+    private final double falsePositiveRate;
+    private final Map<String, Boolean> confirmed;
+    private volatile BloomFilter filter;
+
+    public CompletedFileIdCache(FileRepository fileRepository,
+                                @Value("${fts.ngft.completed-cache.enabled}") boolean enabled,
+                                @Value("${fts.ngft.completed-cache.expected-ids}") int expectedIds,
+                                @Value("${fts.ngft.completed-cache.false-positive-rate}") double falsePositiveRate,
+                                @Value("${fts.ngft.completed-cache.confirmed-ids}") int confirmedIds) {
+        this.fileRepository = fileRepository;
+        this.enabled = enabled;
+        this.expectedIds = Math.max(expectedIds, 1);
+        this.falsePositiveRate = falsePositiveRate;
+        this.confirmed = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > confirmedIds;
+            }
+        });
+        log.info("Completed file ID cache started. enabled={}, expectedIds={}, falsePositiveRate={}, confirmedIds={}", enabled, expectedIds, falsePositiveRate, confirmedIds);
+    }
+
+    /**
+     * Returns the IDs among {@code fileIds} whose download and upload are both completed.
+     */
+    public Set<String> findCompleted(List<String> fileIds) {
+        BloomFilter bloomFilter = enabled ? loadedFilter() : null;
+        if (bloomFilter == null) {
+            return lookup(fileIds);
+        }
+
+        Set<String> completed = new HashSet<>();
+        List<String> possibleHits = new ArrayList<>();
+        for (String fileId : fileIds) {
+            if (confirmed.get(fileId) != null) {
+                completed.add(fileId);
+            } else if (bloomFilter.mightContain(fileId)) {
+                possibleHits.add(fileId);
+            }
+        }
+        Set<String> confirmedHits = lookup(possibleHits);
+        confirmedHits.forEach(fileId -> confirmed.put(fileId, Boolean.TRUE));
+        completed.addAll(confirmedHits);
+        log.debug("Completed file ID lookup. listed={}, cached={}, confirmedInDb={}/{}", fileIds.size(), completed.size() - confirmedHits.size(), confirmedHits.size(), possibleHits.size());
+        return completed;
+    }
+
+    /**
+     * Records a file whose download and upload have just been marked completed in the database.
+     */
+    public void markCompleted(String fileId) {
+        if (!enabled) {
+            return;
+        }
+        confirmed.put(fileId, Boolean.TRUE);
+        // Waits for a load in progress, whose query may have run before this completion was written
+        synchronized (this) {
+            if (filter != null) {
+                filter.put(fileId);
+            }
+        }
+    }
+
+    private BloomFilter loadedFilter() {
+        BloomFilter loaded = filter;
+        if (loaded != null) {
+            return loaded;
+        }
+        synchronized (this) {
+            if (filter == null) {
+                try {
+                    List<String> completedIds = fileRepository.findCompletedFileIds();
+                    BloomFilter bloomFilter = new BloomFilter(Math.max(expectedIds, completedIds.size()), falsePositiveRate);
+                    completedIds.forEach(bloomFilter::put);
+                    filter = bloomFilter;
+                    log.info("Loaded completed file ID filter. completedIds={}, bits={}, hashes={}", completedIds.size(), bloomFilter.bitCount(), bloomFilter.hashCount());
+                } catch (Exception e) {
+                    log.warn("Could not load completed file ID filter, falling back to database lookups: {}", e.getMessage());
+                }
+            }
+            return filter;
+        }
+    }
+
+    private Set<String> lookup(List<String> fileIds) {
+        Set<String> completed = new HashSet<>();
+        for (int from = 0; from < fileIds.size(); from += LOOKUP_BATCH_SIZE) {
+            completed.addAll(fileRepository.findCompletedFileIdsIn(
+                    fileIds.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, fileIds.size()))));
+        }
+        return completed;
+    }
+
+    /**
+     * Lock-free Bloom filter over strings, sized for an expected number of entries and false positive rate. Bit
+     * positions come from double hashing a 64-bit hash of the ID.
+     */
+    static final class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(int expectedEntries, double falsePositiveRate) {
+            double rate = Math.min(Math.max(falsePositiveRate, 1e-9), 0.5);
+            long optimalBits = (long) Math.ceil(-expectedEntries * Math.log(rate) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.min(Math.max((optimalBits + 63) / 64, 1), Integer.MAX_VALUE - 8);
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = (long) words * 64;
+            this.hashCount = (int) Math.max(1, Math.round((double) bitCount / expectedEntries * Math.log(2)));
+        }
+
+        void put(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long bitCount() {
+            return bitCount;
+        }
+
+        int hashCount() {
+            return hashCount;
+        }
+
+        // FNV-1a over the chars, finished with the MurmurHash3 mixer so both halves are usable
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.mastercard.ids.fts.service;
+
+import com.mastercard.ids.fts.utils.TransferExecutors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Fetches the pages of an NGFT listing concurrently once the first page has told how many there are. At most
+ * {@code fan-out} page requests are in flight; results come back in page order, or are streamed as they arrive.
+ */
+@Slf4j
+@Component
+public class FileListPageFetcher implements DisposableBean {
+
+    private final ExecutorService executor;
+    private final int fanOut;
+
+    @Autowired
+    public FileListPageFetcher(@Value("${fts.ngft.filelist.fan-out}") int fanOut,
+                               @Value("${fts.transfer.virtual-threads}") boolean virtualThreads) {
+        this(TransferExecutors.newTransferExecutor("ngft-list-", fanOut, virtualThreads), fanOut);
+        log.info("File list page fetcher started. fanOut={}, virtualThreads={}", fanOut, virtualThreads);
+    }
+
+    FileListPageFetcher(ExecutorService executor, int fanOut) {
+        this.executor = executor;
+        this.fanOut = Math.max(fanOut, 1);
+    }
+
+    /**
+     * Fetches pages {@code firstPage} to {@code lastPage}, both inclusive, and returns them in page order. Stops
+     * submitting pages after the first failure and rethrows it once the pages in flight have finished.
+     */
+    public <T> List<T> fetchPages(int firstPage, int lastPage, IntFunction<T> pageFetch) {
+        Semaphore permits = new Semaphore(fanOut);
+        List<CompletableFuture<T>> pages = new ArrayList<>(Math.max(lastPage - firstPage + 1, 0));
+        CompletableFuture<Void> failed = new CompletableFuture<>();
+
+        for (int page = firstPage; page <= lastPage && !failed.isDone(); page++) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while fetching file list pages", e);
+            }
+            if (failed.isDone()) {
+                break;
+            }
+            int pageNumber = page;
+            pages.add(CompletableFuture.supplyAsync(() -> pageFetch.apply(pageNumber), executor)
+                    .whenComplete((result, e) -> {
+                        // Marked before the permit is freed, so the page waiting for that permit sees the failure
+                        if (e != null) {
+                            failed.complete(null);
+                        }
+                        permits.release();
+                    }));
+        }
+
+        try {
+            CompletableFuture.allOf(pages.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        }
+        return pages.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * Fetches pages {@code firstPage} to {@code lastPage} and hands each one to {@code pageConsumer} as soon as it
+     * arrives, in completion order. The consumer runs on the calling thread, one page at a time. Stops submitting
+     * pages after the first failure of a fetch or of the consumer and rethrows it once the pages in flight are done.
+     */
+    public <T> void streamPages(int firstPage, int lastPage, IntFunction<T> pageFetch, Consumer<T> pageConsumer) {
+        BlockingQueue<CompletableFuture<T>> arrived = new LinkedBlockingQueue<>();
+        RuntimeException failure = null;
+        int nextPage = firstPage;
+        int inFlight = 0;
+        while (true) {
+            while (failure == null && nextPage <= lastPage && inFlight < fanOut) {
+                int pageNumber = nextPage++;
+                CompletableFuture<T> page = CompletableFuture.supplyAsync(() -> pageFetch.apply(pageNumber), executor);
+                page.whenComplete((result, e) -> arrived.add(page));
+                inFlight++;
+            }
+            if (inFlight == 0) {
+                break;
+            }
+            CompletableFuture<T> page;
+            try {
+                page = arrived.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while fetching file list pages", e);
+            }
+            inFlight--;
+            try {
+                T result = page.join();
+                if (failure == null) {
+                    pageConsumer.accept(result);
+                }
+            } catch (CompletionException e) {
+                failure = failure != null ? failure
+                        : e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+            } catch (RuntimeException e) {
+                failure = failure != null ? failure : e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -5,8 +5,10 @@ import com.mastercard.ids.fts.model.SchedulerLog;
 import com.mastercard.ids.fts.repository.SchedulerRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -21,8 +23,18 @@ public class FileSchedulerService {
 
     private final SchedulerRepository schedulerRepository;
 
-    public void process(String invocationId, LocalDateTime invocationTs) {
+    @Value("${fts.ngft.filelist.streaming}")
+    private boolean streamingListing;
+
+    /**
+     * Runs one poll and returns the number of new files it found, 0 when the poll failed. {@code onListed} runs once
+     * the listing is saved and the first files are claimed, before the poll waits for their transfers.
+     */
+    public int process(String invocationId, LocalDateTime invocationTs, Runnable onListed) {
         log.info("Checking for new files. Invocation Id: {}", invocationId);
+        if (streamingListing) {
+            return processStreaming(invocationId, invocationTs, onListed);
+        }
 
         List<FileInfo> fileList = null;
         try {
@@ -32,13 +44,13 @@ public class FileSchedulerService {
             if (fileList == null || fileList.isEmpty()) {
                 log.info("No files found in NGFT. Invocation Id: {}", invocationId);
                 saveSchedulerLog(invocationId, invocationTs, "Success", 0);
-                return;
+                return 0;
             }
 
             log.info("File list count from NGFT: {}", fileList.size());
 
             // Step 2: Filter out already processed file IDs from PostgreSQL
-            List<FileInfo> validFileList = inboundFileListProcessor.process(invocationId, fileList);
+            List<FileInfo> validFileList = inboundFileListProcessor.process(invocationId, fileList, onListed);
             int processedCount = validFileList != null ? validFileList.size() : 0;
 
             log.info("Files processed: {}", processedCount);
@@ -47,14 +59,56 @@ public class FileSchedulerService {
             saveSchedulerLog(invocationId, invocationTs, "Success", processedCount);
 
             log.info("Finished processing files. Invocation Id: {}", invocationId);
+            return processedCount;
 
         } catch (Exception e) {
             int totalFileCount = (fileList != null) ? fileList.size() : 0;
             saveSchedulerLog(invocationId, invocationTs, "Failed", totalFileCount);
             log.error("Error in scheduled file processing. Invocation Id: {}. Error: {}", invocationId, e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * Hands every listing page to the processor as it arrives, so transfers start after one page round-trip instead
+     * of after the whole listing.
+     */
+    private int processStreaming(String invocationId, LocalDateTime invocationTs, Runnable onListed) {
+        InboundFileListProcessor.StreamingRun run = inboundFileListProcessor.startStreamingRun(invocationId);
+        try {
+            int listedCount = ngftService.retrieveFileList(run::acceptPage);
+            log.info("File list count from NGFT: {}", listedCount);
+
+            List<FileInfo> validFileList = run.finish(onListed);
+            log.info("Files processed: {}", validFileList.size());
+
+            saveSchedulerLog(invocationId, invocationTs, "Success", validFileList.size());
+            log.info("Finished processing files. Invocation Id: {}", invocationId);
+            return validFileList.size();
+        } catch (Exception e) {
+            saveSchedulerLog(invocationId, invocationTs, "Failed", run.listedCount());
+            log.error("Error in scheduled file processing. Invocation Id: {}. Error: {}", invocationId, e.getMessage(), e);
+            return 0;
         }
     }
 
+    /**
+     * Records what the poll scheduler decided after a run. A poll skipped because another instance holds the lock has
+     * no log yet and gets one with status Skipped.
+     */
+    public void recordPollDecision(String invocationId, LocalDateTime invocationTs, String decision, Duration nextPollDelay) {
+        SchedulerLog schedulerLog = schedulerRepository.findById(invocationId).orElseGet(() -> SchedulerLog.builder()
+                .invocationId(invocationId)
+                .invocationTime(invocationTs)
+                .status("Skipped")
+                .totalFileCount(0)
+                .build());
+        schedulerLog.setPollDecision(decision);
+        schedulerLog.setNextPollDelaySeconds(nextPollDelay.toSeconds());
+        schedulerRepository.save(schedulerLog);
+        log.info("Next poll in {}s ({}). Invocation Id: {}", nextPollDelay.toSeconds(), decision, invocationId);
+    }
+
     private void saveSchedulerLog(String invocationId, LocalDateTime invocationTs, String status, int fileCount) {
         SchedulerLog schedulerLog = new SchedulerLog();
         schedulerLog.setInvocationId(invocationId);
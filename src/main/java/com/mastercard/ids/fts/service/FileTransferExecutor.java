@@ -0,0 +1,61 @@
+package com.mastercard.ids.fts.service;
+
+import com.mastercard.ids.fts.utils.TransferExecutors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Runs file-level transfer tasks. The number of files in flight is bounded by a semaphore rather than the pool size,
+ * so the same limit applies whether tasks run on platform threads or on virtual threads.
+ */
+@Slf4j
+@Component
+public class FileTransferExecutor implements DisposableBean {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    @Autowired
+    public FileTransferExecutor(@Value("${fts.transfer.file.max-concurrency}") int maxConcurrency,
+                                @Value("${fts.transfer.virtual-threads}") boolean virtualThreads) {
+        this(TransferExecutors.newTransferExecutor("file-transfer-", maxConcurrency, virtualThreads), maxConcurrency);
+        log.info("File transfer executor started. maxConcurrency={}, virtualThreads={}", maxConcurrency, virtualThreads);
+    }
+
+    FileTransferExecutor(ExecutorService executor, int maxConcurrency) {
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    /**
+     * Submits a file transfer, blocking the caller while the maximum number of files is already in flight.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for file transfer capacity", e);
+        }
+        try {
+            return CompletableFuture.supplyAsync(task, executor)
+                    .whenComplete((result, e) -> permits.release());
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,241 @@
+package com.mastercard.ids.fts.service;
+
+import com.mastercard.ids.fts.model.FileInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Orders inbound file transfers before they reach the {@link FileTransferExecutor}. Files wait in two lanes, split at
+ * the small/large file threshold, and within a lane by {@code fileProfile} priority, then smallest first.
+ * <p>
+ * Large files may take at most {@code large-file-slots} of the file slots, and a large file only starts while the bytes
+ * of the large files in flight stay within {@code max-bytes-in-flight}. A large file bigger than the byte budget still
+ * runs, on its own. Small files are bounded by the file slots alone, so they keep starting while large files fill the
+ * budget. {@link #submit} never blocks; the returned future completes when the transfer does.
+ * <p>
+ * {@link #largeFileWindow} and {@link #smallFileWindow} tell the caller how many files of each lane, and how many
+ * bytes of large files, it can claim so that they start right away.
+ */
+@Slf4j
+@Component
+public class InboundDispatchQueue {
+
+    private final FileTransferExecutor fileTransferExecutor;
+    private final int maxConcurrency;
+    private final int largeFileSlots;
+    private final long largeFileThreshold;
+    private final long maxBytesInFlight;
+    private final Map<String, Integer> profilePriorities;
+
+    private final Comparator<QueuedTransfer<?>> order = Comparator.<QueuedTransfer<?>>comparingInt(QueuedTransfer::priority).reversed()
+            .thenComparingLong(QueuedTransfer::size)
+            .thenComparingLong(QueuedTransfer::sequence);
+    private final PriorityQueue<QueuedTransfer<?>> smallFiles = new PriorityQueue<>(order);
+    private final PriorityQueue<QueuedTransfer<?>> largeFiles = new PriorityQueue<>(order);
+    private long sequence;
+    private int running;
+    private int runningLarge;
+    private long largeBytesInFlight;
+    private long largeBytesQueued;
+    private boolean draining;
+
+    @Autowired
+    public InboundDispatchQueue(FileTransferExecutor fileTransferExecutor,
+                                @Value("${fts.transfer.file.max-concurrency}") int maxConcurrency,
+                                @Value("${fts.transfer.inbound.dispatch.large-file-slots}") int largeFileSlots,
+                                @Value("${file.minimum.size}") long largeFileThreshold,
+                                @Value("${fts.transfer.inbound.dispatch.max-bytes-in-flight}") long maxBytesInFlight,
+                                @Value("${fts.transfer.inbound.dispatch.profile-priorities}") String profilePriorities) {
+        this.fileTransferExecutor = fileTransferExecutor;
+        this.maxConcurrency = Math.max(maxConcurrency, 1);
+        this.largeFileSlots = Math.min(Math.max(largeFileSlots, 1), this.maxConcurrency);
+        this.largeFileThreshold = largeFileThreshold;
+        this.maxBytesInFlight = maxBytesInFlight;
+        this.profilePriorities = parsePriorities(profilePriorities);
+        log.info("Inbound dispatch queue started. maxConcurrency={}, largeFileSlots={}, maxBytesInFlight={}, profilePriorities={}",
+                this.maxConcurrency, this.largeFileSlots, maxBytesInFlight, this.profilePriorities);
+    }
+
+    public <T> CompletableFuture<T> submit(FileInfo fileInfo, Supplier<T> task) {
+        long size = Math.max(fileInfo.getSize(), 0L);
+        int priority = fileInfo.getFileProfile() != null ? profilePriorities.getOrDefault(fileInfo.getFileProfile(), 0) : 0;
+        CompletableFuture<T> result = new CompletableFuture<>();
+        synchronized (this) {
+            QueuedTransfer<T> transfer = new QueuedTransfer<>(fileInfo.getId(), size, priority, sequence++, size > largeFileThreshold, task, result);
+            (transfer.large() ? largeFiles : smallFiles).add(transfer);
+            if (transfer.large()) {
+                largeBytesQueued += size;
+            }
+        }
+        drain();
+        return result;
+    }
+
+    synchronized int queued() {
+        return smallFiles.size() + largeFiles.size();
+    }
+
+    /**
+     * File slots neither running nor taken by a queued file, how many more files can start right away.
+     */
+    public synchronized int freeSlots() {
+        return Math.max(maxConcurrency - running - queued(), 0);
+    }
+
+    /**
+     * Large files that can be claimed now, at most {@code limit}: bounded by the free large-file slots and by the
+     * bytes left in the large-file budget. With no large file running or queued, one file bigger than the budget may
+     * still be claimed, to run on its own.
+     */
+    public synchronized ClaimWindow largeFileWindow(int limit) {
+        int slots = Math.min(freeSlots(), largeFileSlots - runningLarge - largeFiles.size());
+        long committedBytes = largeBytesInFlight + largeBytesQueued;
+        return new ClaimWindow(largeFileThreshold, Long.MAX_VALUE, Math.max(Math.min(slots, limit), 0),
+                Math.max(maxBytesInFlight - committedBytes, 0), committedBytes == 0);
+    }
+
+    /**
+     * Small files that can be claimed now, at most {@code limit}: bounded by the free file slots alone.
+     */
+    public synchronized ClaimWindow smallFileWindow(int limit) {
+        return new ClaimWindow(-1, largeFileThreshold, Math.max(Math.min(freeSlots(), limit), 0), Long.MAX_VALUE, false);
+    }
+
+    // One thread drains at a time, so a transfer completing inline does not recurse back into the loop
+    private void drain() {
+        synchronized (this) {
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+        while (true) {
+            QueuedTransfer<?> next;
+            synchronized (this) {
+                next = nextStartable();
+                if (next == null) {
+                    draining = false;
+                    return;
+                }
+                (next.large() ? largeFiles : smallFiles).poll();
+                running++;
+                if (next.large()) {
+                    runningLarge++;
+                    largeBytesQueued -= next.size();
+                    largeBytesInFlight += next.size();
+                }
+            }
+            start(next);
+        }
+    }
+
+    // Highest priority startable head of the two lanes, small files first on equal priority
+    private QueuedTransfer<?> nextStartable() {
+        if (running >= maxConcurrency) {
+            return null;
+        }
+        QueuedTransfer<?> small = smallFiles.peek();
+        QueuedTransfer<?> large = runningLarge < largeFileSlots && fitsByteBudget(largeFiles.peek()) ? largeFiles.peek() : null;
+        if (small == null || large == null) {
+            return small != null ? small : large;
+        }
+        return large.priority() > small.priority() ? large : small;
+    }
+
+    private boolean fitsByteBudget(QueuedTransfer<?> largeFile) {
+        return largeFile != null && (largeBytesInFlight == 0 || largeBytesInFlight + largeFile.size() <= maxBytesInFlight);
+    }
+
+    private <T> void start(QueuedTransfer<T> transfer) {
+        CompletableFuture<T> started;
+        try {
+            started = fileTransferExecutor.submit(transfer.task());
+        } catch (RuntimeException e) {
+            finished(transfer);
+            transfer.result().completeExceptionally(e);
+            return;
+        }
+        started.whenComplete((value, e) -> {
+            finished(transfer);
+            if (e != null) {
+                transfer.result().completeExceptionally(e);
+            } else {
+                transfer.result().complete(value);
+            }
+        });
+    }
+
+    private void finished(QueuedTransfer<?> transfer) {
+        synchronized (this) {
+            running--;
+            if (transfer.large()) {
+                runningLarge--;
+                largeBytesInFlight -= transfer.size();
+            }
+        }
+        drain();
+    }
+
+    // "PROFILE_A:10, PROFILE_B:5"
+    private static Map<String, Integer> parsePriorities(String profilePriorities) {
+        Map<String, Integer> priorities = new HashMap<>();
+        if (profilePriorities == null || profilePriorities.isBlank()) {
+            return priorities;
+        }
+        for (String entry : profilePriorities.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid file profile priority: " + entry);
+            }
+            priorities.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return priorities;
+    }
+
+    /**
+     * Files of one lane a caller may claim: sizes above {@code aboveSize} up to {@code upToSize}, at most
+     * {@code files} of them adding up to at most {@code bytes}, or a single bigger one when {@code oversizedAlone}.
+     */
+    public record ClaimWindow(long aboveSize, long upToSize, int files, long bytes, boolean oversizedAlone) {
+
+        /**
+         * The leading {@code candidates} that fit this window, in order. Stops at the first one that does not fit, so
+         * a large file is not passed over by smaller later ones.
+         */
+        public <T> List<T> take(List<T> candidates, ToLongFunction<T> size) {
+            List<T> taken = new ArrayList<>();
+            long takenBytes = 0;
+            for (T candidate : candidates) {
+                long candidateSize = Math.max(size.applyAsLong(candidate), 0L);
+                if (taken.size() >= files) {
+                    break;
+                }
+                if (takenBytes + candidateSize > bytes) {
+                    if (taken.isEmpty() && oversizedAlone) {
+                        taken.add(candidate);
+                    }
+                    break;
+                }
+                taken.add(candidate);
+                takenBytes += candidateSize;
+            }
+            return taken;
+        }
+    }
+
+    private record QueuedTransfer<T>(String fileId, long size, int priority, long sequence, boolean large,
+                                     Supplier<T> task, CompletableFuture<T> result) {
+    }
+}
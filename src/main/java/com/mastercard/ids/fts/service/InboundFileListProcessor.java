@@ -26,6 +26,9 @@ public class InboundFileListProcessor {
     private final FileTransferServiceFactory fileTransferServiceFactory;
     private final FileRepository fileRepository;
     private final Utils utils;
+    private final InboundDispatchQueue inboundDispatchQueue;
+    private final CompletedFileIdCache completedFileIdCache;
+    private final TransferLeaseService transferLeaseService;
 
 
     @Value("${fts.ngft.receiver}")
@@ -34,28 +37,160 @@ public class InboundFileListProcessor {
     @Value("${fts.ngft.sender}")
     private String ftsSenderLogicalAddress;
 
-    public List<FileInfo> process(String invocationId, List<FileInfo> fileList) {
+    @Value("${fts.transfer.lease.batch-size}")
+    private int leaseBatchSize;
+
+    /**
+     * Saves the new files of {@code fileList} and transfers every not completed file this instance can claim.
+     * {@code onListed} runs once the files are saved and the first batch is claimed, before waiting for transfers.
+     */
+    public List<FileInfo> process(String invocationId, List<FileInfo> fileList, Runnable onListed) {
         //  Step 2: Filter out already processed file IDs from PostgreSQL
         List<String> fileIdsFromNGFT = fileList.stream().map(FileInfo::getId).toList();
         List<String> fileIdsToBeProcessed = filterProcessedFileIds(fileIdsFromNGFT);  // 🔄 Only process new files
         if (fileIdsToBeProcessed.isEmpty()) {
             log.info("No files to process.");
+            onListed.run();
             return Collections.emptyList();
         }
 
         //  Step 3: Validate File Type BEFORE Fetching File Info
+        Set<String> fileIdsToBeProcessedSet = new HashSet<>(fileIdsToBeProcessed);
         List<FileInfo> validFiles = fileList.stream()
-                .filter(file -> fileIdsToBeProcessed.contains(file.getId()))  // Only process new files
+                .filter(file -> fileIdsToBeProcessedSet.contains(file.getId()))  // Only process new files
                 .filter(file -> isValidFileType(file.getName()))  // 🔄 Check if CSV/ZIP
                 .toList();
         if (validFiles.isEmpty()) {
             log.debug("No valid files to process.");
+            onListed.run();
             return Collections.emptyList();
         }
 
         //Step 4: Insert FileDetails into InboundFile table
+        saveInboundFiles(invocationId, validFiles);
+
+        // Step 5 and 6: Claim the not completed files, new and earlier failed ones, in batches sized to the free
+        // dispatch slots, and download and upload them in the order the dispatch queue picks
+        Set<String> attemptedFileIds = new HashSet<>();
+        List<CompletableFuture<String>> uploadFutures = new ArrayList<>();
+        claimBatch(attemptedFileIds, uploadFutures);
+        // Later batches are kept apart by their leases alone
+        onListed.run();
+        claimUntilDrained(attemptedFileIds, uploadFutures);
+        log.info("TotalFileCount={}, FilesToBeProcessed={}, ValidFileCount={}, NotCompletedCount={}", fileList.size(), fileIdsToBeProcessed.size(), validFiles.size(), uploadFutures.size());
+
+        // Wait for all uploads to complete
+        uploadFutures.forEach(CompletableFuture::join);
+        return validFiles;
+    }
+
+    /**
+     * Claims one batch of not completed files, at most {@code fts.transfer.lease.batch-size} and no more than the
+     * dispatch queue can start right away, and submits the claimed files. Each lane is claimed on its own, oldest
+     * first: large files up to their free slots and byte budget, then small files in the slots left, so a backlog of
+     * large files cannot keep small files from being claimed. Returns how many were claimed.
+     */
+    private int claimBatch(Set<String> attemptedFileIds, List<CompletableFuture<String>> uploadFutures) {
+        int large = claimLane(inboundDispatchQueue.largeFileWindow(leaseBatchSize), attemptedFileIds, uploadFutures);
+        int small = claimLane(inboundDispatchQueue.smallFileWindow(leaseBatchSize - large), attemptedFileIds, uploadFutures);
+        return large + small;
+    }
+
+    private int claimLane(InboundDispatchQueue.ClaimWindow window, Set<String> attemptedFileIds, List<CompletableFuture<String>> uploadFutures) {
+        List<InboundFile> claimed = transferLeaseService.claimNextInbound(window, attemptedFileIds);
+        claimed.forEach(file -> {
+            attemptedFileIds.add(file.getFileId());
+            uploadFutures.add(submitTransfer(convertToFileInfo(file)));
+        });
+        return claimed.size();
+    }
+
+    // Claims more as transfers finish and free their slots or byte budget, until nothing claimable is left and
+    // nothing is in flight
+    private void claimUntilDrained(Set<String> attemptedFileIds, List<CompletableFuture<String>> uploadFutures) {
+        while (true) {
+            if (inboundDispatchQueue.freeSlots() > 0 && claimBatch(attemptedFileIds, uploadFutures) > 0) {
+                continue;
+            }
+            CompletableFuture<?>[] inFlight = uploadFutures.stream().filter(future -> !future.isDone()).toArray(CompletableFuture[]::new);
+            if (inFlight.length == 0) {
+                return;
+            }
+            CompletableFuture.anyOf(inFlight).handle((result, e) -> null).join();
+        }
+    }
+
+    /**
+     * Starts a run that takes the listing page by page, so the files of a page are filtered, saved and handed to the
+     * transfer executor while later pages are still being fetched.
+     */
+    public StreamingRun startStreamingRun(String invocationId) {
+        return new StreamingRun(invocationId);
+    }
+
+    /**
+     * One scheduler invocation in streaming mode. Not thread-safe: pages are expected one at a time, as
+     * {@link NGFTService#retrieveFileList(java.util.function.Consumer)} delivers them.
+     */
+    public class StreamingRun {
+
+        private final String invocationId;
+        private final Set<String> seenFileIds = new HashSet<>();
+        private final List<FileInfo> validFiles = new ArrayList<>();
+        private final Set<String> attemptedFileIds = new HashSet<>();
+        private final List<CompletableFuture<String>> uploadFutures = new ArrayList<>();
+
+        private StreamingRun(String invocationId) {
+            this.invocationId = invocationId;
+        }
+
+        public void acceptPage(List<FileInfo> page) {
+            // Pages can overlap when the listing shifts between requests
+            List<FileInfo> newFiles = page.stream()
+                    .filter(file -> seenFileIds.add(file.getId()))
+                    .toList();
+            Set<String> completedFileIds = completedFileIdCache.findCompleted(newFiles.stream().map(FileInfo::getId).toList());
+            List<FileInfo> pageFiles = newFiles.stream()
+                    .filter(file -> !completedFileIds.contains(file.getId()))
+                    .filter(file -> isValidFileType(file.getName()))
+                    .toList();
+            if (pageFiles.isEmpty()) {
+                return;
+            }
+            saveInboundFiles(invocationId, pageFiles);
+            validFiles.addAll(pageFiles);
+            claimBatch(attemptedFileIds, uploadFutures);
+            log.debug("Dispatched listing page. Invocation Id: {}, pageFiles={}, dispatched={}", invocationId, pageFiles.size(), uploadFutures.size());
+        }
+
+        /**
+         * Claims the not completed files still waiting, new ones and those left by earlier runs, as transfers free
+         * their slots, then waits for every transfer of this run. {@code onListed} runs after the first of these claims,
+         * before waiting. Returns the new valid files of this run.
+         */
+        public List<FileInfo> finish(Runnable onListed) {
+            int dispatchedBefore = uploadFutures.size();
+            claimBatch(attemptedFileIds, uploadFutures);
+            onListed.run();
+            claimUntilDrained(attemptedFileIds, uploadFutures);
+            log.info("Streaming run listed. ListedFileCount={}, ValidFileCount={}, DispatchedWhileListing={}, DispatchedAfterListing={}", seenFileIds.size(), validFiles.size(), dispatchedBefore, uploadFutures.size() - dispatchedBefore);
+
+            uploadFutures.forEach(CompletableFuture::join);
+            return validFiles;
+        }
+
+        public int listedCount() {
+            return seenFileIds.size();
+        }
+    }
+
+    private void saveInboundFiles(String invocationId, List<FileInfo> validFiles) {
         var now = LocalDateTime.now();
+        // Rows of files still being retried keep their retry count and open upload, only unseen files are inserted
+        Set<String> existingFileIds = findExistingFileIds(validFiles.stream().map(FileInfo::getId).distinct().toList());
+        Set<String> newFileIds = new HashSet<>();
         List<InboundFile> inboundFiles = validFiles.stream()
+                .filter(fileInfo -> !existingFileIds.contains(fileInfo.getId()) && newFileIds.add(fileInfo.getId()))
                 .map(fileInfo -> InboundFile.builder()
                                 .fileId(fileInfo.getId())
                                 .invocationId(invocationId)
@@ -80,39 +215,35 @@ public class InboundFileListProcessor {
                 )
                 .toList();
 
-        fileRepository.saveAll(inboundFiles);
-        log.info("Saved {} inbound files", inboundFiles.size());
+        if (!inboundFiles.isEmpty()) {
+            fileRepository.saveAll(inboundFiles);
+        }
+        log.info("Saved {} inbound files, {} already recorded", inboundFiles.size(), existingFileIds.size());
+    }
 
-        // Step 5: Retrieve the FileDetails whose download and upload status is not completed, abort status is false and add them to the valid file for re processing
-        List<InboundFile> failedFilesFromDB = fileRepository.findNotCompletedFiles();
+    private Set<String> findExistingFileIds(List<String> fileIds) {
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < fileIds.size(); from += CompletedFileIdCache.LOOKUP_BATCH_SIZE) {
+            existing.addAll(fileRepository.findExistingFileIdsIn(
+                    fileIds.subList(from, Math.min(from + CompletedFileIdCache.LOOKUP_BATCH_SIZE, fileIds.size()))));
+        }
+        return existing;
+    }
 
-        List<FileInfo> filesToProcess = failedFilesFromDB.stream()
-                .map(this::convertToFileInfo)
-                .sorted(Comparator.comparing(FileInfo::getSize))
-                .toList();
-        log.info("TotalFileCount={}, FilesToBeProcessed={}, ValidFileCount={}, NotCompletedCount={}", fileList.size(), fileIdsToBeProcessed.size(), validFiles.size(), filesToProcess.size());
-
-        // Step 6: Download and upload files
-        List<CompletableFuture<String>> uploadFutures = filesToProcess.stream()
-                .map(fileInfoResponse -> CompletableFuture.supplyAsync(() -> {
-                    FileDownloadRequest downloadRequest = new FileDownloadRequest();
-                    downloadRequest.setReceiver(ftsReceiverLogicalAddress);
-                    downloadRequest.setSender(ftsSenderLogicalAddress);
-                    downloadRequest.setFileInfo(fileInfoResponse);
-
-                    return fileTransferServiceFactory.getService(fileInfoResponse.getSize()).transferInbound(downloadRequest).join();
-                }))
-                .toList();
+    private CompletableFuture<String> submitTransfer(FileInfo fileInfo) {
+        return inboundDispatchQueue.submit(fileInfo, () -> {
+            FileDownloadRequest downloadRequest = new FileDownloadRequest();
+            downloadRequest.setReceiver(ftsReceiverLogicalAddress);
+            downloadRequest.setSender(ftsSenderLogicalAddress);
+            downloadRequest.setFileInfo(fileInfo);
 
-        // Wait for all uploads to complete
-        uploadFutures.forEach(CompletableFuture::join);
-        return validFiles;
+            return fileTransferServiceFactory.getService(fileInfo.getSize()).transferInbound(downloadRequest).join();
+        }).whenComplete((result, e) -> transferLeaseService.releaseInbound(fileInfo.getId()));
     }
 
     // Filtering missing file IDs
     private List<String> filterProcessedFileIds(List<String> retrievedFileIds) {
-        List<String> existingFileIds = fileRepository.findExistingCompletedFileIds();
-        Set<String> existingFileIdsSet = Set.copyOf(existingFileIds);
+        Set<String> existingFileIdsSet = completedFileIdCache.findCompleted(retrievedFileIds);
 
         return retrievedFileIds.stream()
                 .filter(fileId -> !existingFileIdsSet.contains(fileId))
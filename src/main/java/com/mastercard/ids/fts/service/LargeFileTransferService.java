@@ -3,7 +3,9 @@ package com.mastercard.ids.fts.service;
 import com.mastercard.ids.fts.model.*;
 import com.mastercard.ids.fts.repository.FileRepository;
 import com.mastercard.ids.fts.repository.OutboundRepository;
+import com.mastercard.ids.fts.utils.ChecksumEngine;
 import com.mastercard.ids.fts.utils.Constants;
+import com.mastercard.ids.fts.utils.PayloadDigest;
 import com.mastercard.ids.fts.utils.Utils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,6 +15,7 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.s3.model.CompletedPart;
 
+import java.io.InputStream;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -20,6 +23,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.IntStream;
 
 @Slf4j
@@ -28,12 +32,34 @@ import java.util.stream.IntStream;
 public class LargeFileTransferService implements FileTransferService {
     private final NGFTService ngftService;
     private final S3Service s3Service;
+    private final S3AsyncService s3AsyncService;
     private final FileRepository fileRepository;
     private final OutboundRepository outboundRepository;
     private final Utils utils;
+    private final PartTransferScheduler partTransferScheduler;
+    private final TransferProgressService transferProgressService;
+    private final PartSizePlanner partSizePlanner;
+    private final PartBufferPool partBufferPool;
+    private final ChecksumEngine checksumEngine;
+    private final CompletedFileIdCache completedFileIdCache;
 
-    @Value("${file.chunk.size}")
-    private long CHUNK_SIZE;
+    @Value("${fts.transfer.inbound.streaming}")
+    private boolean streamingEnabled;
+
+    @Value("${fts.transfer.s3.async.enabled}")
+    private boolean s3AsyncEnabled;
+
+    @Value("${fts.transfer.buffer.pooled}")
+    private boolean bufferPoolEnabled;
+
+    @Value("${fts.transfer.outbound.prefetch-parts}")
+    private int outboundPrefetchParts;
+
+    @Value("${fts.transfer.inbound.verify-file-checksum}")
+    private boolean verifyFileChecksum;
+
+    @Value("${fts.transfer.s3.transfer-manager.enabled}")
+    private boolean transferManagerEnabled;
 
     /**
      * Downloads a file from API, uploads to S3, and logs CloudWatch metrics.
@@ -47,67 +73,79 @@ public class LargeFileTransferService implements FileTransferService {
         try {
             fileRepository.updateFileStatusesByFileId(fileInfo.getId(), Constants.FILE_PROCESSING_STATUS_IN_PROGRESS, Constants.FILE_PROCESSING_STATUS_IN_PROGRESS);
             long fileSize = fileInfo.getSize();
-            final int noOfChunks = (int) (fileSize / CHUNK_SIZE);
-            log.info("Transferring large file={}, name={}, size={}, noOfChunks={}", fileInfo.getId(), fileInfo.getName(), fileInfo.getSize(), noOfChunks + 1);
-
-            List<Integer> partitions = IntStream.range(1, noOfChunks + 1)
-                    .boxed()
-                    .toList();
-            List<CompletedPart> completedParts = new ArrayList<>();
 
-            String key = utils.getS3FileNamekey(request); //will override the file if upload with same key
-            Map<String, String> metaData = utils.getFileMetadata(request);
-            String uploadId = s3Service.initiateMultipartUploadRequest(key, metaData);
-            log.debug("Initiated multipart upload to S3. fileId={}, uploadId={}", fileInfo.getId(), uploadId);
+            InboundFile inboundFile = fileRepository.findById(fileInfo.getId()).orElse(null);
+            String key;
+            String uploadId;
+            long partSize;
+            if (inboundFile != null && inboundFile.getS3UploadId() != null) {
+                // A previous attempt left its upload open, continue it instead of starting over
+                key = inboundFile.getS3ObjectKey();
+                uploadId = inboundFile.getS3UploadId();
+                partSize = inboundFile.getPartSize() != null ? inboundFile.getPartSize() : partSizePlanner.partSize(fileSize);
+                log.info("Resuming multipart upload to S3. fileId={}, uploadId={}", fileInfo.getId(), uploadId);
+            } else {
+                key = utils.getS3FileNamekey(request); //will override the file if upload with same key
+                Map<String, String> metaData = utils.getFileMetadata(request);
+                partSize = partSizePlanner.partSize(fileSize);
+                uploadId = s3Service.initiateMultipartUploadRequest(key, metaData);
+                fileRepository.updateMultipartUpload(fileInfo.getId(), key, uploadId, partSize);
+                log.debug("Initiated multipart upload to S3. fileId={}, uploadId={}", fileInfo.getId(), uploadId);
+            }
+            List<Integer> partitions = partNumbers(fileSize, partSize);
+            log.info("Transferring large file={}, name={}, size={}, partSize={}, noOfChunks={}", fileInfo.getId(), fileInfo.getName(), fileInfo.getSize(), partSize, partitions.size());
 
+            boolean fileChecksumMismatch = false;
             try {
-                partitions.parallelStream().forEach(partition -> {
-                    ResponseEntity<byte[]> ngftChunkResponseEntity = ngftService.downloadChunk(request, partition, fileSize);
-                    log.trace("NGFT partNumber {} content-length {} resp{}", partition, ngftChunkResponseEntity.getBody().length, ngftChunkResponseEntity);
-                    log.debug("Downloaded chunk from NGFT. fileId={}, partNumber={}", fileInfo.getId(), partition);
-
-                    String eTagFromS3 = s3Service.uploadS3(partition, ngftChunkResponseEntity.getBody(), key, uploadId); // Directly return the ETag
-                    if (eTagFromS3 != null) {
-                        log.debug("Uploaded chunk to S3. FileId={}, Partition={}", fileInfo.getId(), partition);
-                        completedParts.add(CompletedPart.builder()
-                                .eTag(eTagFromS3)
-                                .partNumber(partition)
-                                .build());
-                    } else {
-                        log.error("Failed to upload part {} to S3 for file {} ,fileId : {}. Aborting large file transfer.", partition, fileInfo.getName(), fileInfo.getId());
-                        throw new RuntimeException(String.format("Failed to upload part to S3. Aborting large file transfer. FileId=%s, Partition=%d", fileInfo.getId(), partition));
-                    }
-                });
-                long remainingBytes = fileSize - noOfChunks * CHUNK_SIZE;
-                if (remainingBytes > 0) {
-                    log.debug("Handling remaining bytes: {}", remainingBytes);
-                    int lastPartNumber = noOfChunks + 1;
-                    ResponseEntity<byte[]> ngftChunkResponseEntity = ngftService.downloadChunk(request, lastPartNumber, fileSize);
-                    log.trace("NGFT partNumber {} content-length {} resp{}", lastPartNumber, ngftChunkResponseEntity.getBody().length, ngftChunkResponseEntity.toString());
-                    log.debug("Downloaded chunk from NGFT. fileId={}, partNumber={}", fileInfo.getId(), lastPartNumber);
-
-                    String eTagFromS3 = s3Service.uploadS3(lastPartNumber, ngftChunkResponseEntity.getBody(), key, uploadId); // Directly return the ETag
-                    if (eTagFromS3 != null) {
-                        completedParts.add(CompletedPart.builder()
-                                .eTag(eTagFromS3)
-                                .partNumber(lastPartNumber)
-                                .build());
-                    } else {
-                        log.error("Failed to upload part {} to S3 for file {} fileId: {}. Aborting large file transfer.", lastPartNumber, fileInfo.getName(), fileInfo.getId());
-                        throw new RuntimeException(String.format("Failed to upload part to S3. Aborting large file transfer. FileId=%s, Partition=%d", fileInfo.getId(), lastPartNumber));
-                    }
+                Map<Integer, TransferPart> transferredParts = transferProgressService.completedParts(fileInfo.getId());
+                List<Integer> pendingPartitions = partitions.stream()
+                        .filter(partition -> !transferredParts.containsKey(partition))
+                        .toList();
+                if (!transferredParts.isEmpty()) {
+                    log.info("Skipping parts already uploaded to S3. fileId={}, uploadedParts={}, pendingParts={}", fileInfo.getId(), transferredParts.size(), pendingPartitions.size());
                 }
 
+                OrderedFileDigest fileDigest = fileDigest(fileInfo, pendingPartitions, transferredParts);
+                List<CompletedPart> completedParts = new ArrayList<>(s3AsyncEnabled && !streamingEnabled
+                        ? partTransferScheduler.transferPartsAsync(fileInfo.getId(), pendingPartitions, abortDigestOnFailure(fileDigest,
+                                partition -> inboundTransferChunkAsync(request, partition, fileSize, partSize, key, uploadId, fileDigest)))
+                        : partTransferScheduler.transferParts(fileInfo.getId(), pendingPartitions, abortDigestOnFailure(fileDigest,
+                                partition -> inboundTransferChunk(request, partition, fileSize, partSize, key, uploadId, fileDigest))));
+                transferredParts.values().forEach(part -> completedParts.add(CompletedPart.builder()
+                        .eTag(part.getETag())
+                        .partNumber(part.getPartNumber())
+                        .build()));
                 completedParts.sort(Comparator.comparingInt(CompletedPart::partNumber));
-                String finalEtag = s3Service.completeMultipartUpload(key, uploadId, completedParts);
+
+                if (fileDigest != null) {
+                    String fileChecksum = fileDigest.md5Hex();
+                    if (!fileChecksum.equalsIgnoreCase(fileInfo.getChecksum())) {
+                        // The uploaded parts are bad, a retry has to start over instead of resuming them
+                        fileChecksumMismatch = true;
+                        log.error("Whole-file checksum mismatch. fileId={}, expected={}, calculated={}", fileInfo.getId(), fileInfo.getChecksum(), fileChecksum);
+                        throw new RuntimeException(String.format("Checksum verification failed for large file. FileId=%s", fileInfo.getId()));
+                    }
+                    log.debug("Whole-file checksum verified. fileId={}, checksum={}", fileInfo.getId(), fileChecksum);
+                }
+
+                String finalEtag = s3AsyncEnabled && !streamingEnabled
+                        ? s3AsyncService.completeMultipartUpload(key, uploadId, completedParts).join()
+                        : s3Service.completeMultipartUpload(key, uploadId, completedParts);
                 log.debug("Multipart upload completed for fileId={}, finalEtag={}", fileInfo.getId(), finalEtag);
 
                 // Update the fileDownloadStatus and fileUploadStatus as 'Completed'
                 fileRepository.updateFileStatusesByFileId(fileInfo.getId(), Constants.FILE_PROCESSING_STATUS_COMPLETED, Constants.FILE_PROCESSING_STATUS_COMPLETED);
+                completedFileIdCache.markCompleted(fileInfo.getId());
+                clearInboundUpload(fileInfo.getId());
 
             } catch (Exception e) {
                 log.error("Error during multipart download and upload for file {} fileId: {} : {}", fileInfo.getName(), fileInfo.getId(), e.getMessage());
-                s3Service.abortMultiPartUpload(fileInfo.getId(), uploadId);
+                if (!fileChecksumMismatch && inboundFile != null && canResume(inboundFile.getRetryCount(), inboundFile.getAbortFile())) {
+                    log.warn("Keeping multipart upload to S3 open for retry. fileId={}, uploadId={}", fileInfo.getId(), uploadId);
+                } else {
+                    s3Service.abortMultiPartUpload(key, uploadId);
+                    clearInboundUpload(fileInfo.getId());
+                }
                 throw e;
             }
             long endTime = System.currentTimeMillis();
@@ -125,39 +163,72 @@ public class LargeFileTransferService implements FileTransferService {
 //    @Retryable(value = {RuntimeException.class}, maxAttempts = 3, backoff = @Backoff(delay = 5000))
     public CompletableFuture<String> transferOutbound(OutboundFile outboundFile) {
         try {
-            outboundRepository.updateFileStatusesByFileId(outboundFile.getFileId(), Constants.FILE_PROCESSING_STATUS_IN_PROGRESS, Constants.FILE_PROCESSING_STATUS_IN_PROGRESS);
             long startTime = System.currentTimeMillis();
             String objectKey = outboundFile.getObjectKey();
             long fileSize = outboundFile.getFileSize();
-            log.info("Transferring large file:{}, size:{}", objectKey, fileSize);
+            // With the async client the HEAD request is in flight while the status is written
+            CompletableFuture<S3FileData> s3Metadata = s3AsyncEnabled ? s3AsyncService.getObjectMetadata(objectKey) : null;
+            outboundRepository.updateFileStatusesByFileId(outboundFile.getFileId(), Constants.FILE_PROCESSING_STATUS_IN_PROGRESS, Constants.FILE_PROCESSING_STATUS_IN_PROGRESS);
 
-            final int noOfChunks = (int) (fileSize / CHUNK_SIZE);
-            List<Integer> partitions = IntStream.range(1, noOfChunks + 1)
-                    .boxed()
-                    .toList();
-            S3FileData s3FileData = s3Service.getS3ObjectMetadata(objectKey);
+            S3FileData s3FileData = s3Metadata != null ? s3Metadata.join() : s3Service.getS3ObjectMetadata(objectKey);
             log.debug("Large File S3 Object Key :{} , object metadata : {}", objectKey, s3FileData.getMetadata());
-            InitializeMultipartUploadNGFTResponse initiateMultiPartUpload = ngftService.initiateMultiPartUpload(s3FileData);
-            log.info("Initialize multipart upload to NGFT - uploadId: {} fileId : {}", initiateMultiPartUpload.getUploadId(), initiateMultiPartUpload.getFileID());
+            InitializeMultipartUploadNGFTResponse initiateMultiPartUpload;
+            long partSize;
+            if (outboundFile.getNgftUploadId() != null) {
+                // A previous attempt left its upload open, continue it instead of starting over
+                initiateMultiPartUpload = new InitializeMultipartUploadNGFTResponse(outboundFile.getNgftFileId(), outboundFile.getNgftUploadId());
+                partSize = outboundFile.getPartSize() != null ? outboundFile.getPartSize() : partSizePlanner.partSize(fileSize);
+                log.info("Resuming multipart upload to NGFT - uploadId: {} fileId : {}", initiateMultiPartUpload.getUploadId(), initiateMultiPartUpload.getFileID());
+            } else {
+                partSize = partSizePlanner.partSize(fileSize);
+                initiateMultiPartUpload = ngftService.initiateMultiPartUpload(s3FileData, partSize);
+                outboundRepository.updateMultipartUpload(outboundFile.getRequestId(), initiateMultiPartUpload.getFileID(), initiateMultiPartUpload.getUploadId(), partSize);
+                log.info("Initialize multipart upload to NGFT - uploadId: {} fileId : {}", initiateMultiPartUpload.getUploadId(), initiateMultiPartUpload.getFileID());
+            }
+            List<Integer> partitions = partNumbers(fileSize, partSize);
+            log.info("Transferring large file:{}, size:{}, partSize:{}, noOfChunks:{}", objectKey, fileSize, partSize, partitions.size());
 
             try {
-                partitions.parallelStream().forEach(partition -> outboundTransferChunk(objectKey, fileSize, partition, initiateMultiPartUpload));
+                Map<Integer, TransferPart> transferredParts = transferProgressService.completedParts(outboundFile.getRequestId());
+                List<Integer> pendingPartitions = partitions.stream()
+                        .filter(partition -> !transferredParts.containsKey(partition))
+                        .toList();
+                if (!transferredParts.isEmpty()) {
+                    log.info("Skipping parts already uploaded to NGFT. objectKey={}, uploadedParts={}, pendingParts={}", objectKey, transferredParts.size(), pendingPartitions.size());
+                }
 
-                long remainingBytes = fileSize - noOfChunks * CHUNK_SIZE;
-                if (remainingBytes > 0) {
-                    log.debug("Handling remaining bytes: {}", remainingBytes);
-                    int lastPartNumber = noOfChunks + 1;
-                    outboundTransferChunk(objectKey, fileSize, lastPartNumber, initiateMultiPartUpload);
+                // The next S3 ranges are read while earlier parts are being uploaded to NGFT. With the Transfer Manager
+                // each part is instead read into a pooled buffer on its own part thread, in parallel ranged GETs
+                PartPrefetcher<S3FileData> prefetcher = !transferManagerEnabled && outboundPrefetchParts > 0
+                        ? new PartPrefetcher<>(pendingPartitions, outboundPrefetchParts, partition -> s3AsyncService.multiPartDownload(
+                                URLDecoder.decode(objectKey, StandardCharsets.UTF_8), partStartByte(partition, partSize), partEndByte(partition, fileSize, partSize)))
+                        : null;
+                Function<Integer, S3FileData> partSource = prefetcher != null ? prefetcher::take : null;
+                try {
+                    partTransferScheduler.transferParts(objectKey, pendingPartitions, partition -> {
+                        outboundTransferChunk(outboundFile.getRequestId(), objectKey, fileSize, partSize, partition, initiateMultiPartUpload, partSource);
+                        return partition;
+                    });
+                } finally {
+                    if (prefetcher != null) {
+                        prefetcher.cancel();
+                    }
                 }
                 //Complete multipart upload
                 ngftService.completedMultiPartUpload(s3FileData, initiateMultiPartUpload);
 
                 outboundRepository.updateFileStatusesByFileId(outboundFile.getFileId(), Constants.FILE_PROCESSING_STATUS_COMPLETED, Constants.FILE_PROCESSING_STATUS_COMPLETED);
+                clearOutboundUpload(outboundFile.getRequestId());
 
             } catch (Exception e) {
                 log.error("Error during multipart download and upload for objectKey {}: {}", objectKey, e.getMessage());
-                //abort multipart upload
-                ngftService.abortMultiPartUpload(s3FileData, initiateMultiPartUpload);
+                if (canResume(outboundFile.getRetryCount(), outboundFile.getAbortFile())) {
+                    log.warn("Keeping multipart upload to NGFT open for retry. objectKey={}, uploadId={}", objectKey, initiateMultiPartUpload.getUploadId());
+                } else {
+                    //abort multipart upload
+                    ngftService.abortMultiPartUpload(s3FileData, initiateMultiPartUpload);
+                    clearOutboundUpload(outboundFile.getRequestId());
+                }
                 throw e;
             }
             long endTime = System.currentTimeMillis();
@@ -171,36 +242,208 @@ public class LargeFileTransferService implements FileTransferService {
         }
     }
 
-    private void outboundTransferChunk(String objectKey, long fileSize, Integer partition, InitializeMultipartUploadNGFTResponse initiateMultiPartUpload) {
+    /**
+     * The failure being handled will be counted as a retry; the upload is only worth keeping if another retry follows.
+     */
+    private boolean canResume(int retryCount, Boolean abortFile) {
+        return !Boolean.TRUE.equals(abortFile) && retryCount + 1 < Constants.MAX_RETRY_COUNT;
+    }
+
+    private void clearInboundUpload(String fileId) {
+        transferProgressService.clear(fileId);
+        fileRepository.updateMultipartUpload(fileId, null, null, null);
+    }
+
+    private void clearOutboundUpload(String requestId) {
+        transferProgressService.clear(requestId);
+        outboundRepository.updateMultipartUpload(requestId, null, null, null);
+    }
+
+    private List<Integer> partNumbers(long fileSize, long partSize) {
+        final int noOfChunks = (int) (fileSize / partSize);
+        long remainingBytes = fileSize - noOfChunks * partSize;
+        // A trailing part carries the remaining bytes when the size is not a multiple of the chunk size
+        return IntStream.rangeClosed(1, remainingBytes > 0 ? noOfChunks + 1 : noOfChunks)
+                .boxed()
+                .toList();
+    }
+
+    /**
+     * Hashes the inbound parts in file order as they pass through, to check the assembled file against the NGFT
+     * checksum. Returns null when the file cannot be verified that way: parts uploaded by an earlier attempt are no
+     * longer at hand, and streamed parts are never held in memory.
+     */
+    private OrderedFileDigest fileDigest(FileInfo fileInfo, List<Integer> pendingPartitions, Map<Integer, TransferPart> transferredParts) {
+        if (!verifyFileChecksum || fileInfo.getChecksum() == null || pendingPartitions.isEmpty()) {
+            return null;
+        }
+        if (!transferredParts.isEmpty() || streamingEnabled) {
+            log.info("Whole-file checksum not verified. fileId={}, resumed={}, streaming={}", fileInfo.getId(), !transferredParts.isEmpty(), streamingEnabled);
+            return null;
+        }
+        return new OrderedFileDigest(pendingPartitions.get(0));
+    }
+
+    // A failed part never reaches the digest, so the parts waiting behind it are released here
+    private <T> Function<Integer, T> abortDigestOnFailure(OrderedFileDigest fileDigest, Function<Integer, T> partTask) {
+        if (fileDigest == null) {
+            return partTask;
+        }
+        return partition -> {
+            try {
+                return partTask.apply(partition);
+            } catch (RuntimeException e) {
+                fileDigest.abort(e);
+                throw e;
+            }
+        };
+    }
+
+    private CompletedPart inboundTransferChunk(FileDownloadRequest request, Integer partition, long fileSize, long partSize, String key, String uploadId, OrderedFileDigest fileDigest) {
+        FileInfo fileInfo = request.getFileInfo();
+        long partStartTime = System.nanoTime();
+        String eTagFromS3;
+        if (streamingEnabled) {
+            // Pipe the NGFT response body straight into the S3 part upload, no intermediate byte[] per part
+            eTagFromS3 = ngftService.downloadChunk(request, partition, fileSize, partSize,
+                    (body, contentLength) -> s3Service.uploadS3(partition, body, contentLength, key, uploadId));
+            log.debug("Streamed chunk from NGFT to S3. fileId={}, partNumber={}", fileInfo.getId(), partition);
+        } else if (bufferPoolEnabled) {
+            // Read the NGFT response into a pooled buffer and upload the part to S3 from it. The buffer is leased
+            // before the request, so an open NGFT connection never waits on the pool
+            try (PartBufferPool.PartBuffer leased = partBufferPool.lease(partEndByte(partition, fileSize, partSize) - partStartByte(partition, partSize) + 1)) {
+                BufferedPart part = ngftService.downloadChunk(request, partition, fileSize, partSize,
+                        (body, contentLength) -> readPart(leased, body, contentLength));
+                log.debug("Downloaded chunk from NGFT into buffer. fileId={}, partNumber={}, size={}", fileInfo.getId(), partition, part.buffer().buffer().remaining());
+                try (PartBufferPool.PartBuffer buffer = part.buffer()) {
+                    if (fileDigest != null) {
+                        fileDigest.update(partition, buffer.buffer());
+                    }
+                    eTagFromS3 = s3Service.uploadS3(partition, buffer.buffer(), part.digest(), key, uploadId);
+                }
+            }
+        } else {
+            ResponseEntity<byte[]> ngftChunkResponseEntity = ngftService.downloadChunk(request, partition, fileSize, partSize);
+            log.trace("NGFT partNumber {} content-length {} resp{}", partition, ngftChunkResponseEntity.getBody().length, ngftChunkResponseEntity);
+            log.debug("Downloaded chunk from NGFT. fileId={}, partNumber={}", fileInfo.getId(), partition);
+            if (fileDigest != null) {
+                fileDigest.update(partition, ngftChunkResponseEntity.getBody());
+            }
+
+            eTagFromS3 = s3Service.uploadS3(partition, ngftChunkResponseEntity.getBody(), key, uploadId); // Directly return the ETag
+        }
+        return completedInboundPart(fileInfo, partition, fileSize, partSize, partStartTime, eTagFromS3);
+    }
+
+    // The part is digested while it is copied into the buffer, so the S3 upload does not hash it again. A response
+    // longer than the leased buffer gets a one-off buffer, which never waits on the pool
+    private BufferedPart readPart(PartBufferPool.PartBuffer leased, InputStream body, long contentLength) {
+        PartBufferPool.PartBuffer buffer = contentLength > leased.buffer().capacity() ? partBufferPool.lease(contentLength) : leased;
+        try {
+            ChecksumEngine.DigestingInputStream digestingBody = checksumEngine.digesting(body);
+            PartBufferPool.readFully(digestingBody, buffer.buffer());
+            return new BufferedPart(buffer, digestingBody.digest());
+        } catch (Exception e) {
+            if (buffer != leased) {
+                buffer.close();
+            }
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Downloads the part from NGFT on the calling part thread, then hands it to the async S3 client and returns
+     * without waiting for the upload.
+     */
+    private CompletableFuture<CompletedPart> inboundTransferChunkAsync(FileDownloadRequest request, Integer partition, long fileSize, long partSize, String key, String uploadId, OrderedFileDigest fileDigest) {
+        FileInfo fileInfo = request.getFileInfo();
+        long partStartTime = System.nanoTime();
+        ResponseEntity<byte[]> ngftChunkResponseEntity = ngftService.downloadChunk(request, partition, fileSize, partSize);
+        log.debug("Downloaded chunk from NGFT. fileId={}, partNumber={}", fileInfo.getId(), partition);
+        if (fileDigest != null) {
+            fileDigest.update(partition, ngftChunkResponseEntity.getBody());
+        }
+
+        PayloadDigest partDigest = checksumEngine.digest(ngftChunkResponseEntity.getBody());
+        return s3AsyncService.uploadPart(partition, ngftChunkResponseEntity.getBody(), partDigest, key, uploadId)
+                .thenApply(eTagFromS3 -> completedInboundPart(fileInfo, partition, fileSize, partSize, partStartTime, eTagFromS3));
+    }
+
+    private CompletedPart completedInboundPart(FileInfo fileInfo, Integer partition, long fileSize, long partSize, long partStartTime, String eTagFromS3) {
+        if (eTagFromS3 == null) {
+            log.error("Failed to upload part {} to S3 for file {} ,fileId : {}. Aborting large file transfer.", partition, fileInfo.getName(), fileInfo.getId());
+            throw new RuntimeException(String.format("Failed to upload part to S3. Aborting large file transfer. FileId=%s, Partition=%d", fileInfo.getId(), partition));
+        }
+        log.debug("Uploaded chunk to S3. FileId={}, Partition={}", fileInfo.getId(), partition);
+        long startByte = partStartByte(partition, partSize);
+        long endByte = partEndByte(partition, fileSize, partSize);
+        partSizePlanner.recordPart(endByte - startByte + 1, System.nanoTime() - partStartTime);
+        transferProgressService.recordPart(fileInfo.getId(), Constants.TRANSFER_DIRECTION_INBOUND, partition,
+                startByte, endByte, eTagFromS3, null);
+        return CompletedPart.builder()
+                .eTag(eTagFromS3)
+                .partNumber(partition)
+                .build();
+    }
+
+    private void outboundTransferChunk(String requestId, String objectKey, long fileSize, long partSize, Integer partition, InitializeMultipartUploadNGFTResponse initiateMultiPartUpload, Function<Integer, S3FileData> partSource) {
         try {
-            //Download chunk from s3
-            S3FileData s3Chunk = downloadChunkFromS3(objectKey, partition, fileSize);
-            log.debug("Downloaded chunk from S3 - objectKey={}, Part={} ", objectKey, partition);
+            long partStartTime = System.nanoTime();
+            long startByte = partStartByte(partition, partSize);
+            long endByte = partEndByte(partition, fileSize, partSize);
+            String checksum;
+            if (partSource == null && (bufferPoolEnabled || transferManagerEnabled)) {
+                try (PartBufferPool.PartBuffer buffer = partBufferPool.lease(endByte - startByte + 1)) {
+                    //Download chunk from s3 into the pooled buffer
+                    S3FileData s3Chunk = s3Service.multiPartDownloadS3(URLDecoder.decode(objectKey, StandardCharsets.UTF_8), startByte, endByte, buffer.buffer());
+                    log.debug("Downloaded chunk from S3 - objectKey={}, Part={} ", objectKey, partition);
+                    if (!buffer.buffer().hasRemaining()) {
+                        log.error("Downloaded chunk is empty for objectKey={}, Part={}. Aborting upload.", objectKey, partition);
+                        throw new RuntimeException(String.format("Empty chunk received from S3. objectKey=%s, Partition=%d", objectKey, partition));
+                    }
+                    //upload to NGFT
+                    checksum = ngftService.uploadPartFile(s3Chunk, buffer.buffer(), initiateMultiPartUpload, partition);
+                }
+            } else {
+                //Download chunk from s3
+                S3FileData s3Chunk = partSource != null ? partSource.apply(partition) : downloadChunkFromS3(objectKey, startByte, endByte);
+                log.debug("Downloaded chunk from S3 - objectKey={}, Part={} ", objectKey, partition);
 
-            if (s3Chunk.getFileContent().isEmpty() || s3Chunk.getFileContent().get().length == 0) {
-                log.error("Downloaded chunk is empty for objectKey={}, Part={}. Aborting upload.", objectKey, partition);
-                throw new RuntimeException(String.format("Empty chunk received from S3. objectKey=%s, Partition=%d", objectKey, partition));
+                if (s3Chunk.getFileContent().isEmpty() || s3Chunk.getFileContent().get().length == 0) {
+                    log.error("Downloaded chunk is empty for objectKey={}, Part={}. Aborting upload.", objectKey, partition);
+                    throw new RuntimeException(String.format("Empty chunk received from S3. objectKey=%s, Partition=%d", objectKey, partition));
+                }
+                //upload to NGFT
+                checksum = ngftService.uploadPartFile(s3Chunk, initiateMultiPartUpload, partition);
             }
-            //upload to NGFT
-            ngftService.uploadPartFile(s3Chunk, initiateMultiPartUpload, partition);
+            partSizePlanner.recordPart(endByte - startByte + 1, System.nanoTime() - partStartTime);
+            transferProgressService.recordPart(requestId, Constants.TRANSFER_DIRECTION_OUTBOUND, partition,
+                    startByte, endByte, null, checksum);
         } catch (Exception e) {
             log.error("Failed to upload part {} to NGFT for objectKey {}. Aborting large file transfer.", partition, objectKey);
             throw new RuntimeException(String.format("Failed to upload part to NGFT. Aborting large file transfer. objectKey=%s, Partition=%d", objectKey, partition));
         }
     }
 
-    private S3FileData downloadChunkFromS3(String objectKey, Integer partition, long fileSize) {
-        long startByte = (partition - 1) * CHUNK_SIZE;
-        long endByte;
-
-        if (partition * CHUNK_SIZE < fileSize) {
-            endByte = (long) partition * CHUNK_SIZE - 1;
-        } else {
-            endByte = fileSize - 1;
-        }
+    private S3FileData downloadChunkFromS3(String objectKey, long startByte, long endByte) {
         String decodedObjectKey = URLDecoder.decode(objectKey, StandardCharsets.UTF_8);
 
         return s3Service.multiPartDownloadS3(decodedObjectKey, startByte, endByte);
 
     }
+
+    private long partStartByte(Integer partition, long partSize) {
+        return (partition - 1) * partSize;
+    }
+
+    // Inclusive, as used by HTTP byte ranges
+    private long partEndByte(Integer partition, long fileSize, long partSize) {
+        if (partition * partSize < fileSize) {
+            return (long) partition * partSize - 1;
+        }
+        return fileSize - 1;
+    }
+
+    private record BufferedPart(PartBufferPool.PartBuffer buffer, PayloadDigest digest) {
+    }
 }
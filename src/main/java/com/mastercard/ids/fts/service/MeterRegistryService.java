@@ -22,6 +22,13 @@ public class MeterRegistryService {
                     .setDescription("Counts the number of outbound files")
                     .build();
 
+    private static final LongCounter s3TransferBytes =
+            meter
+                    .counterBuilder("fts.s3.transfer.bytes")
+                    .setDescription("Bytes uploaded to, downloaded from and copied within S3, counted as requests complete or as the Transfer Manager reports progress")
+                    .setUnit("By")
+                    .build();
+
 
     public void recordOutboundFileProcessed() {
         try {
@@ -36,4 +43,20 @@ public class MeterRegistryService {
         }
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Records bytes moved by S3 requests or Transfer Manager transfers, {@code direction} being upload, download or copy.
+     */
+    public void recordS3Transfer(String direction, long bytes) {
+        try {
+            s3TransferBytes.add(
+                    bytes,
+                    Attributes.of(
+                            AttributeKey.stringKey("client.name"), "FTSService",
+                            AttributeKey.stringKey("direction"), direction)
+            );
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+        }
+    }
+}
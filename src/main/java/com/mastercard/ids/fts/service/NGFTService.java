@@ -1,6 +1,8 @@
 package com.mastercard.ids.fts.service;
 
 import com.mastercard.ids.fts.model.*;
+import com.mastercard.ids.fts.utils.ChecksumEngine;
+import com.mastercard.ids.fts.utils.PayloadDigest;
 import com.mastercard.ids.fts.utils.Utils;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
@@ -14,15 +16,21 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
-import org.springframework.util.DigestUtils;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestClient;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
@@ -59,11 +67,10 @@ public class NGFTService {
     @Value("${file.api.transfer-endpoint}")
     private String transferEndpoint;
 
-    @Value("${file.chunk.size}")
-    private long CHUNK_SIZE;
-
     private final RestClient restClient;
     private final Utils utils;
+    private final ChecksumEngine checksumEngine;
+    private final FileListPageFetcher fileListPageFetcher;
 
     @CircuitBreaker(name = "externalApi", fallbackMethod = "fallbackFileList")
     @Retryable(value = {RuntimeException.class}, maxAttempts = 3, backoff = @Backoff(delay = 3000))
@@ -71,20 +78,17 @@ public class NGFTService {
         log.debug("Retrieving file list");
         List<FileInfo> fileList = null;
         try {
-            int currentPage = 1;
-
-            var request = new FileListRequest();
-            request.setReceiver(ftsLogicalAddress);
-            request.setPageSize(ngftFileListPageSize);
-            request.setFileStatus(ngftFileListStatus);
+            var request = fileListRequest();
 
             fileList = new ArrayList<>();
-            FileListResponse fileListResponse = null;
-            do {
-                fileListResponse = retrieveFileList(request, currentPage);
-                fileList.addAll(fileListResponse.getFileListing().getFiles());
-                currentPage++;
-            } while (fileListResponse != null && currentPage <= fileListResponse.getTotalPages());
+            FileListResponse firstPage = retrieveFileList(request, 1);
+            fileList.addAll(firstPage.getFileListing().getFiles());
+            if (firstPage.getTotalPages() > 1) {
+                // The first page tells how many there are, fetch the rest concurrently and keep them in page order
+                for (FileListResponse page : fileListPageFetcher.fetchPages(2, firstPage.getTotalPages(), pageNumber -> retrieveFileList(request, pageNumber))) {
+                    fileList.addAll(page.getFileListing().getFiles());
+                }
+            }
         } catch (Exception e) {
             log.error("Error retrieving file list", e);
             throw new RuntimeException("Failed to retrieve file list", e);
@@ -92,6 +96,34 @@ public class NGFTService {
         return fileList;
     }
 
+    /**
+     * Streams the listing to {@code pageConsumer} one page at a time as the pages arrive, instead of collecting the
+     * whole listing first. The consumer runs on the calling thread. Not retried here: a page the consumer has already
+     * acted on would be handed over again. Returns the number of files listed.
+     */
+    public int retrieveFileList(Consumer<List<FileInfo>> pageConsumer) {
+        log.debug("Streaming file list");
+        var request = fileListRequest();
+        FileListResponse firstPage = retrieveFileList(request, 1);
+        AtomicInteger listed = new AtomicInteger(firstPage.getFileListing().getFiles().size());
+        pageConsumer.accept(firstPage.getFileListing().getFiles());
+        if (firstPage.getTotalPages() > 1) {
+            fileListPageFetcher.streamPages(2, firstPage.getTotalPages(), pageNumber -> retrieveFileList(request, pageNumber), page -> {
+                listed.addAndGet(page.getFileListing().getFiles().size());
+                pageConsumer.accept(page.getFileListing().getFiles());
+            });
+        }
+        return listed.get();
+    }
+
+    private FileListRequest fileListRequest() {
+        var request = new FileListRequest();
+        request.setReceiver(ftsLogicalAddress);
+        request.setPageSize(ngftFileListPageSize);
+        request.setFileStatus(ngftFileListStatus);
+        return request;
+    }
+
     @CircuitBreaker(name = "externalApi", fallbackMethod = "fallbackFileList")
     @Retryable(value = {RuntimeException.class}, maxAttempts = 3, backoff = @Backoff(delay = 3000))
     public FileListResponse retrieveFileList(FileListRequest request, int pageNumber) {
@@ -146,22 +178,14 @@ public class NGFTService {
     }
 
     @Retryable(value = {RuntimeException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000))
-    public ResponseEntity<byte[]> downloadChunk(FileDownloadRequest request, Integer partition, long fileSize) {
+    public ResponseEntity<byte[]> downloadChunk(FileDownloadRequest request, Integer partition, long fileSize, long partSize) {
         String fileId = request.getFileInfo().getId();
         try {
             String url = baseUrl + transferEndpoint;
             HttpHeaders headers = utils.getDownloadFileHeader(request);
-            long startByte = (long) (partition - 1) * CHUNK_SIZE;
-            long endByte;
+            headers.set("Range", chunkRange(partition, fileSize, partSize));
 
-            if (partition * CHUNK_SIZE < fileSize) {
-                endByte = (long) partition * CHUNK_SIZE;
-            } else {
-                endByte = fileSize;
-            }
-            headers.set("Range", "bytes=" + startByte + "-" + endByte);
-
-            log.debug("Download chunk from NGFT. fileId={}, partition={}, byte={}-{} ", fileId, partition, startByte, endByte);
+            log.debug("Download chunk from NGFT. fileId={}, partition={}, {} ", fileId, partition, headers.getFirst("Range"));
 
             ResponseEntity<byte[]> response = restClient.get()
                     .uri(url)
@@ -180,6 +204,56 @@ public class NGFTService {
         }
     }
 
+    /**
+     * Streams a chunk from NGFT into {@code bodyHandler} without buffering it on the heap.
+     * The handler receives the open response body and its content length, and runs while the
+     * connection is held, so the whole download-and-consume step is retried together.
+     */
+    @Retryable(value = {RuntimeException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000))
+    public <T> T downloadChunk(FileDownloadRequest request, Integer partition, long fileSize, long partSize, BiFunction<InputStream, Long, T> bodyHandler) {
+        String fileId = request.getFileInfo().getId();
+        try {
+            String url = baseUrl + transferEndpoint;
+            HttpHeaders headers = utils.getDownloadFileHeader(request);
+            headers.set("Range", chunkRange(partition, fileSize, partSize));
+
+            log.debug("Stream chunk from NGFT. fileId={}, partition={}, {} ", fileId, partition, headers.getFirst("Range"));
+
+            return restClient.get()
+                    .uri(url)
+                    .headers(h -> h.addAll(headers))
+                    .exchange((clientRequest, clientResponse) -> {
+                        if (!clientResponse.getStatusCode().is2xxSuccessful()) {
+                            // Throwing exception to trigger retry without updating status immediately
+                            throw new RuntimeException(String.format("Failed to fetch data. fileId=%s, partition=%s, statusCode=%s", fileId, partition, clientResponse.getStatusCode()));
+                        }
+                        long contentLength = clientResponse.getHeaders().getContentLength();
+                        InputStream body = clientResponse.getBody();
+                        if (contentLength < 0) {
+                            // S3 needs the part length up front; fall back to buffering when NGFT does not send it
+                            byte[] content = body.readAllBytes();
+                            return bodyHandler.apply(new ByteArrayInputStream(content), (long) content.length);
+                        }
+                        return bodyHandler.apply(body, contentLength);
+                    });
+        } catch (Exception e) {
+            log.error(String.format("Error in streaming a chunk. fileId=%s, partition=%s", fileId, partition), e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    private String chunkRange(Integer partition, long fileSize, long partSize) {
+        long startByte = (long) (partition - 1) * partSize;
+        long endByte;
+
+        if (partition * partSize < fileSize) {
+            endByte = (long) partition * partSize;
+        } else {
+            endByte = fileSize;
+        }
+        return "bytes=" + startByte + "-" + endByte;
+    }
+
     public void uploadSingleFile(S3FileData fileData) {
         try {
             String url = baseUrl + transferEndpoint;
@@ -211,7 +285,7 @@ public class NGFTService {
     }
 
 
-    public InitializeMultipartUploadNGFTResponse initiateMultiPartUpload(S3FileData fileData) {
+    public InitializeMultipartUploadNGFTResponse initiateMultiPartUpload(S3FileData fileData, long partSize) {
         try {
             Map<String, String> metadata = fileData.getMetadata();
             HttpHeaders headers = new HttpHeaders();
@@ -220,7 +294,7 @@ public class NGFTService {
             headers.set("x-mc-file-name", metadata.get("x-mc-file-name"));
             headers.set("x-mc-file-size", metadata.get("x-mc-file-size"));
             headers.set("x-mc-checksum", metadata.get("x-mc-checksum"));
-            headers.set("x-mc-part-size", String.valueOf(CHUNK_SIZE));
+            headers.set("x-mc-part-size", String.valueOf(partSize));
             headers.set("x-mc-file-content-type", metadata.get("content-type"));
             headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
 
@@ -244,43 +318,87 @@ public class NGFTService {
         }
     }
 
+    /**
+     * Uploads a part and returns its MD5 hex. The digest taken when the part was read is reused when present.
+     */
     @Retryable(value = {RuntimeException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000))
-    public void uploadPartFile(S3FileData fileData, InitializeMultipartUploadNGFTResponse multiPartUploadID, Integer partition) throws Exception {
+    public String uploadPartFile(S3FileData fileData, InitializeMultipartUploadNGFTResponse multiPartUploadID, Integer partition) throws Exception {
         try {
-            Map<String, String> metadata = fileData.getMetadata();
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("x-mc-sender", metadata.get("x-mc-sender"));
-            headers.set("x-mc-receiver", metadata.get("x-mc-receiver"));
-            headers.set("x-mc-file-name", metadata.get("x-mc-file-name"));
-            headers.set("x-mc-part-num", String.valueOf(partition));
-            headers.set("Content-Length", String.valueOf(fileData.getFileContent().get().length));
-            headers.set("x-mc-multipart-upload-id", multiPartUploadID.getUploadId());
-            headers.set("x-mc-file-id", multiPartUploadID.getFileID());
-            headers.set("x-mc-file-content-type", metadata.get("content-type"));
-            headers.set(HttpHeaders.CONTENT_RANGE, fileData.getFileContentRange().get());
-            headers.set("x-mc-part-checksum", DigestUtils.md5DigestAsHex(fileData.getFileContent().get()));
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+            byte[] content = fileData.getFileContent().get();
+            String checksum = partDigest(fileData, () -> checksumEngine.digest(content)).md5Hex();
+            HttpHeaders headers = partUploadHeaders(fileData, content.length, checksum, multiPartUploadID, partition);
 
-            Resource resource = new ByteArrayResource(fileData.getFileContent().get());
+            Resource resource = new ByteArrayResource(content);
             ResponseEntity<Void> response = restClient.put()
                     .uri(baseUrl + transferEndpoint)
                     .headers(h -> h.addAll(headers))
                     .body(resource)
                     .retrieve()
                     .toEntity(Void.class);
-            if (response.getStatusCode().is2xxSuccessful() && utils.verifyChecksum(fileData.getFileContent().get(), response.getHeaders().getFirst("x-mc-checksum"))) {
+            String responseChecksum = response.getHeaders().getFirst("x-mc-checksum");
+            if (response.getStatusCode().is2xxSuccessful() && checksum.equals(responseChecksum)) {
                 log.debug("Successful multipart Upload - part {} to NGFT response: {}", partition, response);
-                log.trace("Checksum validation for part :{} ,Content Range: {}  ,Checksum calculated {} - checksum response {}", partition, fileData.getFileContentRange().get(), DigestUtils.md5DigestAsHex(fileData.getFileContent().get()), response.getHeaders().getFirst("x-mc-checksum"));
-            } else {
-                log.error("Error multipart Upload - part {} checksum : {} to NGFT response: {}", partition, utils.verifyChecksum(fileData.getFileContent().get(), response.getHeaders().getFirst("x-mc-checksum")), response);
-                throw new RuntimeException(response.toString());
+                log.trace("Checksum validation for part :{} ,Content Range: {}  ,Checksum calculated {} - checksum response {}", partition, fileData.getFileContentRange().get(), checksum, responseChecksum);
+                return checksum;
+            }
+            log.error("Error multipart Upload - part {} checksum : {} - checksum response {} to NGFT response: {}", partition, checksum, responseChecksum, response);
+            throw new RuntimeException(response.toString());
+        } catch (Exception e) {
+            log.error("Error uploadPartFile to NGFT: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Uploads a part from a pooled buffer and returns its MD5 hex. The request body is written from a view of the
+     * buffer, so a retry sends the same bytes and the caller keeps ownership of the buffer.
+     */
+    @Retryable(value = {RuntimeException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000))
+    public String uploadPartFile(S3FileData fileData, ByteBuffer content, InitializeMultipartUploadNGFTResponse multiPartUploadID, Integer partition) throws Exception {
+        try {
+            String checksum = partDigest(fileData, () -> checksumEngine.digest(content)).md5Hex();
+            HttpHeaders headers = partUploadHeaders(fileData, content.remaining(), checksum, multiPartUploadID, partition);
+
+            ResponseEntity<Void> response = restClient.put()
+                    .uri(baseUrl + transferEndpoint)
+                    .headers(h -> h.addAll(headers))
+                    .body(outputStream -> PartBufferPool.writeFully(content, outputStream))
+                    .retrieve()
+                    .toEntity(Void.class);
+            String responseChecksum = response.getHeaders().getFirst("x-mc-checksum");
+            if (response.getStatusCode().is2xxSuccessful() && checksum.equals(responseChecksum)) {
+                log.debug("Successful multipart Upload - part {} to NGFT response: {}", partition, response);
+                return checksum;
             }
+            log.error("Error multipart Upload - part {} checksum : {} - checksum response {} to NGFT response: {}", partition, checksum, responseChecksum, response);
+            throw new RuntimeException(response.toString());
         } catch (Exception e) {
             log.error("Error uploadPartFile to NGFT: " + e.getMessage());
             throw e;
         }
     }
 
+    private PayloadDigest partDigest(S3FileData fileData, Supplier<PayloadDigest> digester) {
+        return fileData.getDigest() != null ? fileData.getDigest() : digester.get();
+    }
+
+    private HttpHeaders partUploadHeaders(S3FileData fileData, long contentLength, String checksum, InitializeMultipartUploadNGFTResponse multiPartUploadID, Integer partition) {
+        Map<String, String> metadata = fileData.getMetadata();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("x-mc-sender", metadata.get("x-mc-sender"));
+        headers.set("x-mc-receiver", metadata.get("x-mc-receiver"));
+        headers.set("x-mc-file-name", metadata.get("x-mc-file-name"));
+        headers.set("x-mc-part-num", String.valueOf(partition));
+        headers.set("Content-Length", String.valueOf(contentLength));
+        headers.set("x-mc-multipart-upload-id", multiPartUploadID.getUploadId());
+        headers.set("x-mc-file-id", multiPartUploadID.getFileID());
+        headers.set("x-mc-file-content-type", metadata.get("content-type"));
+        headers.set(HttpHeaders.CONTENT_RANGE, fileData.getFileContentRange().get());
+        headers.set("x-mc-part-checksum", checksum);
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        return headers;
+    }
+
     public void completedMultiPartUpload(S3FileData fileData, InitializeMultipartUploadNGFTResponse multiPartUploadID) {
         try {
             Map<String, String> metadata = fileData.getMetadata();
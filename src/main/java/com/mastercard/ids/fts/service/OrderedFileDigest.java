@@ -0,0 +1,68 @@
+package com.mastercard.ids.fts.service;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Whole-file MD5 built from the parts of a parallel transfer while they are in memory, so the assembled file can be
+ * verified without reading it back.
+ * <p>
+ * MD5 has to see the bytes in file order, so a part waits in {@link #update} until every earlier part has been
+ * hashed. Parts are submitted in order with a bounded number in flight per file, so the part being waited for is
+ * always already running. A failed part must call {@link #abort} to release the parts waiting behind it.
+ */
+class OrderedFileDigest {
+
+    private final MessageDigest md5;
+    private int nextPart;
+    private RuntimeException failure;
+
+    OrderedFileDigest(int firstPart) {
+        try {
+            this.md5 = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        this.nextPart = firstPart;
+    }
+
+    void update(int partNumber, byte[] content) {
+        update(partNumber, ByteBuffer.wrap(content));
+    }
+
+    /**
+     * Hashes the readable bytes of {@code content} once all earlier parts are hashed, without moving its position.
+     */
+    synchronized void update(int partNumber, ByteBuffer content) {
+        while (partNumber != nextPart && failure == null) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting to hash part " + partNumber, e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        md5.update(content.duplicate());
+        nextPart++;
+        notifyAll();
+    }
+
+    synchronized void abort(Throwable cause) {
+        if (failure == null) {
+            failure = new RuntimeException("Whole-file digest aborted by a failed part", cause);
+        }
+        notifyAll();
+    }
+
+    /**
+     * The MD5 hex of all parts hashed so far. Only meaningful once every part has been hashed.
+     */
+    synchronized String md5Hex() {
+        return HexFormat.of().formatHex(md5.digest());
+    }
+}
@@ -0,0 +1,134 @@
+package com.mastercard.ids.fts.service;
+
+import com.mastercard.ids.fts.model.OutboundFile;
+import com.mastercard.ids.fts.utils.TransferExecutors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs outbound transfers off the SQS listener thread. At most {@code max-concurrency} outbound files are in flight;
+ * {@link #dispatch} blocks while that many are running, which slows message consumption instead of queueing without
+ * bound. {@link #offer} never waits and is used by the outbound sweep. A file already in flight here, or leased to
+ * another instance, is not dispatched again.
+ */
+@Slf4j
+@Component
+public class OutboundDispatcher implements DisposableBean {
+
+    private final FileTransferServiceFactory fileTransferServiceFactory;
+    private final TransferLeaseService transferLeaseService;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public OutboundDispatcher(FileTransferServiceFactory fileTransferServiceFactory,
+                              TransferLeaseService transferLeaseService,
+                              @Value("${fts.transfer.outbound.max-concurrency}") int maxConcurrency,
+                              @Value("${fts.transfer.virtual-threads}") boolean virtualThreads) {
+        this(fileTransferServiceFactory, transferLeaseService,
+                TransferExecutors.newTransferExecutor("outbound-transfer-", maxConcurrency, virtualThreads), maxConcurrency);
+        log.info("Outbound dispatcher started. maxConcurrency={}, virtualThreads={}", maxConcurrency, virtualThreads);
+    }
+
+    OutboundDispatcher(FileTransferServiceFactory fileTransferServiceFactory, TransferLeaseService transferLeaseService,
+                       ExecutorService executor, int maxConcurrency) {
+        this.fileTransferServiceFactory = fileTransferServiceFactory;
+        this.transferLeaseService = transferLeaseService;
+        this.executor = executor;
+        this.permits = new Semaphore(Math.max(maxConcurrency, 1), true);
+    }
+
+    /**
+     * Starts the transfer of {@code outboundFile} and returns once it is running. The returned future completes when
+     * the transfer attempt ends; it is already complete when the file was not dispatched.
+     */
+    public CompletableFuture<Void> dispatch(OutboundFile outboundFile) {
+        return start(outboundFile, true);
+    }
+
+    /**
+     * Starts the transfer of {@code outboundFile} if a slot is free right now. Returns {@code false}, without waiting,
+     * when every slot is busy; the file is then left for a later attempt.
+     */
+    public boolean offer(OutboundFile outboundFile) {
+        return start(outboundFile, false) != null;
+    }
+
+    // Null when capacity was not to be waited for and none was free
+    private CompletableFuture<Void> start(OutboundFile outboundFile, boolean waitForCapacity) {
+        String requestId = outboundFile.getRequestId();
+        if (!inFlight.add(requestId)) {
+            log.debug("Outbound file already in flight. requestId={}", requestId);
+            return CompletableFuture.completedFuture(null);
+        }
+        if (transferLeaseService.claimOutbound(List.of(requestId)).isEmpty()) {
+            inFlight.remove(requestId);
+            log.debug("Outbound file leased elsewhere. requestId={}", requestId);
+            return CompletableFuture.completedFuture(null);
+        }
+        boolean acquired;
+        try {
+            acquired = acquirePermit(waitForCapacity);
+        } catch (RuntimeException e) {
+            release(requestId);
+            throw e;
+        }
+        if (!acquired) {
+            release(requestId);
+            log.debug("No free outbound transfer slot. requestId={}", requestId);
+            return null;
+        }
+        try {
+            return CompletableFuture.runAsync(() -> fileTransferServiceFactory.getService(outboundFile.getFileSize()).transferOutbound(outboundFile).join(), executor)
+                    .whenComplete((result, e) -> {
+                        permits.release();
+                        release(requestId);
+                        if (e != null) {
+                            log.error("Outbound transfer failed. requestId={}, objectKey={}: {}", requestId, outboundFile.getObjectKey(), e.getMessage());
+                        }
+                    });
+        } catch (RuntimeException e) {
+            permits.release();
+            release(requestId);
+            throw e;
+        }
+    }
+
+    private boolean acquirePermit(boolean waitForCapacity) {
+        if (!waitForCapacity) {
+            return permits.tryAcquire();
+        }
+        try {
+            permits.acquire();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for outbound transfer capacity", e);
+        }
+    }
+
+    boolean isInFlight(String requestId) {
+        return inFlight.contains(requestId);
+    }
+
+    private void release(String requestId) {
+        transferLeaseService.releaseOutbound(requestId);
+        inFlight.remove(requestId);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -8,8 +8,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -19,16 +21,28 @@ public class OutboundFileListProcessor {
 
     private final S3Service s3Service;
     private final OutboundRepository outboundRepository;
-    private final FileTransferServiceFactory fileTransferServiceFactory;
+    private final OutboundDispatcher outboundDispatcher;
 
+    /**
+     * Records the S3 object as an outbound file and dispatches it. The request ID is derived from the object key and
+     * its {@code x-mc-file-id}, so a redelivered message finds the row of the first delivery instead of inserting a
+     * second one: an unfinished file is dispatched again, a completed or aborted one is skipped.
+     */
     public void processOutboundFiles(String objectKey, long fileSize) {
 
         try {
             S3FileData s3FileData = s3Service.getS3ObjectMetadata(objectKey);
 
+            String requestId = requestId(objectKey, s3FileData.getMetadata().get("x-mc-file-id"));
+            Optional<OutboundFile> existing = outboundRepository.findById(requestId);
+            if (existing.isPresent()) {
+                dispatchExisting(existing.get());
+                return;
+            }
+
             var now = LocalDateTime.now();
             OutboundFile outboundFile = OutboundFile.builder()
-                    .requestId(UUID.randomUUID().toString())
+                    .requestId(requestId)
                     .objectKey(objectKey)
                     .receiver(s3FileData.getMetadata().get("x-mc-receiver"))
                     .fileProfile(s3FileData.getMetadata().get("x-mc-file-profile-type"))
@@ -49,13 +63,49 @@ public class OutboundFileListProcessor {
 
             outboundRepository.save(outboundFile);
             log.info("Saved Outbound File {}", objectKey);
-            List<OutboundFile> validFileList = outboundRepository.findNotCompletedFiles();
-            log.info("Outbound : Valid files to process {}", validFileList.size());
-            validFileList.forEach(file -> fileTransferServiceFactory.getService(file.getFileSize()).transferOutbound(file).join());
+            // Only this object is transferred here, earlier failures are retried by retryNotCompletedFiles
+            outboundDispatcher.dispatch(outboundFile);
 
         } catch (Exception e) {
             log.error("Error while processing outbound files : {}", e.getMessage());
             throw e;
         }
     }
+
+    private void dispatchExisting(OutboundFile outboundFile) {
+        boolean completed = Constants.FILE_PROCESSING_STATUS_COMPLETED.equals(outboundFile.getFileDownloadStatus())
+                && Constants.FILE_PROCESSING_STATUS_COMPLETED.equals(outboundFile.getFileUploadStatus());
+        if (completed || Boolean.TRUE.equals(outboundFile.getAbortFile())) {
+            log.info("Outbound file already recorded and finished, skipping. requestId={}, objectKey={}", outboundFile.getRequestId(), outboundFile.getObjectKey());
+            return;
+        }
+        log.info("Outbound file already recorded, dispatching it again. requestId={}, objectKey={}", outboundFile.getRequestId(), outboundFile.getObjectKey());
+        outboundDispatcher.dispatch(outboundFile);
+    }
+
+    // Same object and file, same request
+    static String requestId(String objectKey, String fileId) {
+        return UUID.nameUUIDFromBytes((objectKey + "\n" + fileId).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * Hands unfinished outbound files that are not already in flight to the dispatcher while it has free slots. Never
+     * waits for a slot: once all are busy, the remaining files are left for the next sweep. Runs periodically from the
+     * outbound sweep instead of on every SQS message.
+     */
+    public int retryNotCompletedFiles() {
+        List<OutboundFile> notCompletedFiles = outboundRepository.findNotCompletedFiles();
+        int dispatched = 0;
+        for (OutboundFile outboundFile : notCompletedFiles) {
+            if (outboundDispatcher.isInFlight(outboundFile.getRequestId())) {
+                continue;
+            }
+            if (!outboundDispatcher.offer(outboundFile)) {
+                break;
+            }
+            dispatched++;
+        }
+        log.info("Outbound sweep: not completed files {}, dispatched {}", notCompletedFiles.size(), dispatched);
+        return dispatched;
+    }
 }
@@ -0,0 +1,240 @@
+package com.mastercard.ids.fts.service;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of part-sized buffers, so each part payload reuses a buffer instead of allocating (and growing) a new
+ * byte array. Buffers are allocated lazily up to {@code max-buffers} and are direct when {@code direct} is set, which
+ * keeps part payloads out of the G1 humongous regions.
+ * <p>
+ * Planned part sizes range from {@code size} up to {@code max-size}, so buffers come in size classes that double from
+ * {@code size} and end at {@code max-size}; a part leases the smallest class it fits. At most {@code max-buffers} are
+ * kept across all classes, a new buffer of one class replaces an idle buffer of another once that many exist.
+ * <p>
+ * {@link #lease} blocks while all buffers are leased. A part larger than {@code max-size} gets a one-off buffer that is
+ * dropped on release. Leased and idle buffers are exported as gauges.
+ */
+@Slf4j
+@Component
+public class PartBufferPool {
+
+    private static final Meter meter = GlobalOpenTelemetry.getMeter("com.mastercard.ids.fts");
+
+    private final int[] classSizes;
+    private final int maxBuffers;
+    private final boolean direct;
+    private final Semaphore available;
+    private final List<ConcurrentLinkedQueue<ByteBuffer>> idle;
+    private final AtomicInteger leased = new AtomicInteger();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private int allocated;
+    private final LongCounter unpooledCounter;
+
+    @Autowired
+    public PartBufferPool(@Value("${fts.transfer.buffer.size}") int bufferSize,
+                          @Value("${fts.transfer.buffer.max-size}") int maxBufferSize,
+                          @Value("${fts.transfer.buffer.max-buffers}") int maxBuffers,
+                          @Value("${fts.transfer.buffer.direct}") boolean direct,
+                          @Value("${fts.transfer.buffer.pooled}") boolean pooled,
+                          @Value("${fts.transfer.part.max-concurrency}") int partMaxConcurrency) {
+        this(bufferSize, maxBufferSize, maxBuffers, direct);
+        // A part holds its buffer until the parts before it are digested, so with no spare buffer the part they
+        // wait for can never lease one
+        if (pooled && maxBuffers <= partMaxConcurrency) {
+            throw new IllegalArgumentException(String.format(
+                    "fts.transfer.buffer.max-buffers (%d) must be greater than fts.transfer.part.max-concurrency (%d)", maxBuffers, partMaxConcurrency));
+        }
+    }
+
+    PartBufferPool(int bufferSize, int maxBuffers, boolean direct) {
+        this(bufferSize, bufferSize, maxBuffers, direct);
+    }
+
+    PartBufferPool(int bufferSize, int maxBufferSize, int maxBuffers, boolean direct) {
+        this.classSizes = classSizes(bufferSize, Math.max(bufferSize, maxBufferSize));
+        this.maxBuffers = maxBuffers;
+        this.direct = direct;
+        this.available = new Semaphore(maxBuffers, true);
+        this.idle = new ArrayList<>(classSizes.length);
+        for (int i = 0; i < classSizes.length; i++) {
+            idle.add(new ConcurrentLinkedQueue<>());
+        }
+        meter.gaugeBuilder("fts.part.buffer.pool.leased")
+                .setDescription("Part buffers currently leased from the pool")
+                .ofLongs()
+                .buildWithCallback(measurement -> measurement.record(leased.get()));
+        meter.gaugeBuilder("fts.part.buffer.pool.idle")
+                .setDescription("Allocated part buffers waiting in the pool")
+                .ofLongs()
+                .buildWithCallback(measurement -> measurement.record(idleCount.get()));
+        this.unpooledCounter = meter.counterBuilder("fts.part.buffer.pool.unpooled")
+                .setDescription("Parts too large for a pooled buffer")
+                .build();
+        log.info("Part buffer pool started. bufferSizes={}, maxBuffers={}, direct={}", Arrays.toString(classSizes), maxBuffers, direct);
+    }
+
+    /**
+     * Leases a buffer with room for {@code size} bytes. Close the returned lease to give the buffer back.
+     */
+    public PartBuffer lease(long size) {
+        int sizeClass = sizeClass(size);
+        if (sizeClass < 0) {
+            log.debug("Part does not fit a pooled buffer, allocating one. size={}, maxBufferSize={}", size, classSizes[classSizes.length - 1]);
+            unpooledCounter.add(1);
+            return new PartBuffer(allocate(Math.toIntExact(size)), false, sizeClass);
+        }
+        try {
+            available.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a part buffer", e);
+        }
+        leased.incrementAndGet();
+        ByteBuffer buffer = idle.get(sizeClass).poll();
+        if (buffer != null) {
+            idleCount.decrementAndGet();
+        } else {
+            makeRoom();
+            buffer = allocate(classSizes[sizeClass]);
+        }
+        return new PartBuffer(buffer, true, sizeClass);
+    }
+
+    public int leasedCount() {
+        return leased.get();
+    }
+
+    public int idleCount() {
+        return idleCount.get();
+    }
+
+    // Index of the smallest buffer class that holds size bytes, or -1 when it is larger than all of them
+    private int sizeClass(long size) {
+        for (int i = 0; i < classSizes.length; i++) {
+            if (size <= classSizes[i]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Keeps allocated buffers within maxBuffers by dropping idle buffers of other classes. The caller holds a
+    // permit, so while maxBuffers are allocated at least one of them is idle.
+    private synchronized void makeRoom() {
+        while (allocated >= maxBuffers && dropIdle()) {
+            allocated--;
+        }
+        allocated++;
+    }
+
+    private boolean dropIdle() {
+        for (int i = classSizes.length - 1; i >= 0; i--) {
+            if (idle.get(i).poll() != null) {
+                idleCount.decrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] classSizes(int bufferSize, int maxBufferSize) {
+        List<Integer> sizes = new ArrayList<>();
+        long size = bufferSize;
+        while (size < maxBufferSize) {
+            sizes.add((int) size);
+            size *= 2;
+        }
+        sizes.add(maxBufferSize);
+        return sizes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private void release(ByteBuffer buffer, int sizeClass) {
+        buffer.clear();
+        idle.get(sizeClass).offer(buffer);
+        idleCount.incrementAndGet();
+        leased.decrementAndGet();
+        available.release();
+    }
+
+    /**
+     * A leased buffer, filled with {@link #readFully} and read back with {@link #writeFully}.
+     */
+    public final class PartBuffer implements AutoCloseable {
+
+        private final ByteBuffer buffer;
+        private final boolean pooled;
+        private final int sizeClass;
+        private boolean released;
+
+        private PartBuffer(ByteBuffer buffer, boolean pooled, int sizeClass) {
+            this.buffer = buffer;
+            this.pooled = pooled;
+            this.sizeClass = sizeClass;
+        }
+
+        public ByteBuffer buffer() {
+            return buffer;
+        }
+
+        @Override
+        public void close() {
+            if (pooled && !released) {
+                released = true;
+                release(buffer, sizeClass);
+            }
+        }
+    }
+
+    /**
+     * Fills {@code target} from the stream until it ends and flips it. Fails if the stream holds more than fits.
+     */
+    public static void readFully(InputStream in, ByteBuffer target) throws IOException {
+        target.clear();
+        ReadableByteChannel channel = Channels.newChannel(in);
+        while (target.hasRemaining()) {
+            if (channel.read(target) < 0) {
+                target.flip();
+                return;
+            }
+        }
+        if (in.read() >= 0) {
+            throw new IOException("Part is larger than its buffer of " + target.capacity() + " bytes");
+        }
+        target.flip();
+    }
+
+    /**
+     * Writes the readable bytes of {@code source} to the stream without moving the position of {@code source}.
+     */
+    public static void writeFully(ByteBuffer source, OutputStream out) throws IOException {
+        ByteBuffer view = source.duplicate();
+        WritableByteChannel channel = Channels.newChannel(out);
+        while (view.hasRemaining()) {
+            channel.write(view);
+        }
+    }
+}
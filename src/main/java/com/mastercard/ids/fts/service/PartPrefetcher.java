@@ -0,0 +1,81 @@
+package com.mastercard.ids.fts.service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Reads the parts of one file ahead of the consumer, so the source link is busy while earlier parts are written.
+ * <p>
+ * At most {@code depth} reads are outstanding or waiting to be taken; each {@link #take} starts the read of the next
+ * part in line. Reads are issued in part order, so with the consumer taking parts in the same order the window slides
+ * along the file. The reader must not block, e.g. an async S3 GET.
+ */
+class PartPrefetcher<T> {
+
+    private final List<Integer> partNumbers;
+    private final Function<Integer, CompletableFuture<T>> reader;
+    private final Map<Integer, CompletableFuture<T>> reads = new HashMap<>();
+    private final Set<Integer> started = new HashSet<>();
+    private int nextRead;
+
+    PartPrefetcher(List<Integer> partNumbers, int depth, Function<Integer, CompletableFuture<T>> reader) {
+        this.partNumbers = partNumbers;
+        this.reader = reader;
+        synchronized (this) {
+            for (int i = 0; i < Math.max(depth, 1); i++) {
+                startNextRead();
+            }
+        }
+    }
+
+    /**
+     * Waits for the given part, hands it to the caller and starts reading the next part beyond the window.
+     */
+    T take(Integer partNumber) {
+        CompletableFuture<T> read;
+        synchronized (this) {
+            read = reads.remove(partNumber);
+            if (read == null) {
+                // The consumer got ahead of the window, read this part now
+                started.add(partNumber);
+                read = reader.apply(partNumber);
+            } else {
+                startNextRead();
+            }
+        }
+        try {
+            return read.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        }
+    }
+
+    /**
+     * Cancels the reads nobody is going to take, e.g. after a part failed.
+     */
+    synchronized void cancel() {
+        reads.values().forEach(read -> read.cancel(true));
+        reads.clear();
+        nextRead = partNumbers.size();
+    }
+
+    synchronized int outstanding() {
+        return reads.size();
+    }
+
+    private void startNextRead() {
+        while (nextRead < partNumbers.size()) {
+            Integer partNumber = partNumbers.get(nextRead++);
+            if (started.add(partNumber)) {
+                reads.put(partNumber, reader.apply(partNumber));
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.mastercard.ids.fts.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Picks the part size of a multipart transfer per file instead of using {@code file.chunk.size} for every file.
+ * <p>
+ * Mid-size files are split into at least as many parts as one file may transfer in parallel, and very large files get
+ * bigger parts so they stay under the part count limit. When adaptive sizing is on, the preferred size follows the
+ * observed per-part throughput so that one part takes roughly the target duration. The chosen size is always kept
+ * within S3's 5 MB minimum part size and 10,000 part limit.
+ */
+@Slf4j
+@Component
+public class PartSizePlanner {
+
+    static final long S3_MIN_PART_SIZE = 5L * 1024 * 1024;
+    static final int S3_MAX_PARTS = 10_000;
+    private static final long MIB = 1024 * 1024;
+    // Weight of the newest sample in the moving throughput average
+    private static final double THROUGHPUT_SMOOTHING = 0.2;
+
+    private final long defaultPartSize;
+    private final long minPartSize;
+    private final long maxPartSize;
+    private final int minParts;
+    private final int maxParts;
+    private final boolean adaptive;
+    private final long targetPartMillis;
+    private final AtomicLong bytesPerSecond = new AtomicLong();
+
+    @Autowired
+    public PartSizePlanner(@Value("${file.chunk.size}") long defaultPartSize,
+                           @Value("${fts.transfer.part.min-size}") long minPartSize,
+                           @Value("${fts.transfer.part.max-size}") long maxPartSize,
+                           @Value("${fts.transfer.part.max-concurrency-per-file}") int minParts,
+                           @Value("${fts.transfer.part.max-parts}") int maxParts,
+                           @Value("${fts.transfer.part.adaptive}") boolean adaptive,
+                           @Value("${fts.transfer.part.target-part-duration}") Duration targetPartDuration) {
+        this(defaultPartSize, Math.max(minPartSize, S3_MIN_PART_SIZE), maxPartSize, minParts,
+                Math.min(maxParts, S3_MAX_PARTS), adaptive, targetPartDuration.toMillis());
+    }
+
+    PartSizePlanner(long defaultPartSize, long minPartSize, long maxPartSize, int minParts, int maxParts,
+                    boolean adaptive, long targetPartMillis) {
+        this.defaultPartSize = defaultPartSize;
+        this.minPartSize = minPartSize;
+        this.maxPartSize = Math.max(maxPartSize, minPartSize);
+        this.minParts = Math.max(minParts, 1);
+        this.maxParts = maxParts;
+        this.adaptive = adaptive;
+        this.targetPartMillis = targetPartMillis;
+        log.info("Part size planner started. defaultPartSize={}, minPartSize={}, maxPartSize={}, maxParts={}, adaptive={}",
+                defaultPartSize, this.minPartSize, this.maxPartSize, maxParts, adaptive);
+    }
+
+    /**
+     * Returns the part size to use for a file of the given size. Every part but the last has exactly this size.
+     */
+    public long partSize(long fileSize) {
+        long size = Math.min(preferredPartSize(), fileSize / minParts);
+        size = Math.max(minPartSize, Math.min(size, maxPartSize));
+        // The part count limit wins over the maximum part size, otherwise the upload cannot be completed
+        size = Math.max(size, ceilDiv(fileSize, maxParts));
+        size = alignToMib(size);
+        log.debug("Planned part size. fileSize={}, partSize={}, parts={}", fileSize, size, ceilDiv(fileSize, size));
+        return size;
+    }
+
+    /**
+     * Feeds the duration of one finished part into the throughput average used by adaptive sizing.
+     */
+    public void recordPart(long bytes, long elapsedNanos) {
+        if (!adaptive || bytes <= 0 || elapsedNanos <= 0) {
+            return;
+        }
+        long sample = (long) (bytes * 1_000_000_000d / elapsedNanos);
+        bytesPerSecond.accumulateAndGet(sample, (current, next) -> current == 0
+                ? next
+                : (long) (current * (1 - THROUGHPUT_SMOOTHING) + next * THROUGHPUT_SMOOTHING));
+    }
+
+    long observedBytesPerSecond() {
+        return bytesPerSecond.get();
+    }
+
+    private long preferredPartSize() {
+        long throughput = bytesPerSecond.get();
+        if (!adaptive || throughput == 0) {
+            return defaultPartSize;
+        }
+        return throughput * targetPartMillis / 1000;
+    }
+
+    private long alignToMib(long size) {
+        if (size < MIB || size % MIB == 0) {
+            return size;
+        }
+        return (size / MIB + 1) * MIB;
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+}
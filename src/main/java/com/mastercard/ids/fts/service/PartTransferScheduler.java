@@ -0,0 +1,116 @@
+package com.mastercard.ids.fts.service;
+
+import com.mastercard.ids.fts.utils.TransferExecutors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Runs the parts of multipart transfers on a dedicated executor instead of the common ForkJoinPool.
+ * <p>
+ * Concurrency is capped globally and per file. The global semaphore is fair, so files waiting for capacity are served
+ * in arrival order and one large file cannot starve the others. Submission blocks while no permit is free, which gives
+ * natural backpressure to the file-level transfer thread. Because the limits live in the semaphores, the executor can
+ * be a virtual-thread-per-task executor without changing how many range requests are in flight.
+ */
+@Slf4j
+@Component
+public class PartTransferScheduler implements DisposableBean {
+
+    private final ExecutorService executor;
+    private final Semaphore globalPermits;
+    private final int maxConcurrencyPerFile;
+
+    @Autowired
+    public PartTransferScheduler(@Value("${fts.transfer.part.max-concurrency}") int maxConcurrency,
+                                 @Value("${fts.transfer.part.max-concurrency-per-file}") int maxConcurrencyPerFile,
+                                 @Value("${fts.transfer.virtual-threads}") boolean virtualThreads) {
+        this(TransferExecutors.newTransferExecutor("part-transfer-", maxConcurrency, virtualThreads),
+                maxConcurrency, maxConcurrencyPerFile);
+    }
+
+    PartTransferScheduler(ExecutorService executor, int maxConcurrency, int maxConcurrencyPerFile) {
+        this.executor = executor;
+        this.globalPermits = new Semaphore(maxConcurrency, true);
+        this.maxConcurrencyPerFile = Math.min(maxConcurrencyPerFile, maxConcurrency);
+        log.info("Part transfer scheduler started. maxConcurrency={}, maxConcurrencyPerFile={}", maxConcurrency, this.maxConcurrencyPerFile);
+    }
+
+    /**
+     * Transfers the given parts of one file and returns their results in the order of {@code partNumbers}.
+     * Stops submitting new parts after the first failure and rethrows it once the in-flight parts have finished.
+     */
+    public <T> List<T> transferParts(String fileId, List<Integer> partNumbers, Function<Integer, T> partTask) {
+        return transferPartsAsync(fileId, partNumbers, partNumber -> CompletableFuture.completedFuture(partTask.apply(partNumber)));
+    }
+
+    /**
+     * Like {@link #transferParts}, for parts that finish on another thread, e.g. an async S3 upload. The executor
+     * thread is released as soon as the task returns its future, the permits are held until the future completes.
+     */
+    public <T> List<T> transferPartsAsync(String fileId, List<Integer> partNumbers, Function<Integer, CompletableFuture<T>> partTask) {
+        Semaphore filePermits = new Semaphore(maxConcurrencyPerFile);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<CompletableFuture<T>> futures = new ArrayList<>(partNumbers.size());
+
+        for (Integer partNumber : partNumbers) {
+            if (failure.get() != null) {
+                log.debug("Not submitting remaining parts after failure. fileId={}, nextPart={}", fileId, partNumber);
+                break;
+            }
+            // Take the per-file permit first so a file waiting on its own limit does not hold global capacity
+            acquire(filePermits, fileId);
+            try {
+                acquire(globalPermits, fileId);
+            } catch (RuntimeException e) {
+                filePermits.release();
+                throw e;
+            }
+            futures.add(CompletableFuture.supplyAsync(() -> partTask.apply(partNumber), executor)
+                    .thenCompose(Function.identity())
+                    .whenComplete((result, e) -> {
+                        globalPermits.release();
+                        filePermits.release();
+                        if (e != null) {
+                            failure.compareAndSet(null, e);
+                        }
+                    }));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    public int availablePermits() {
+        return globalPermits.availablePermits();
+    }
+
+    private void acquire(Semaphore semaphore, String fileId) {
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for part transfer capacity. fileId=" + fileId, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,21 @@
+package com.mastercard.ids.fts.service;
+
+import com.mastercard.ids.fts.model.S3FileData;
+import com.mastercard.ids.fts.utils.PayloadDigest;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link S3Service} for the calls on the multipart transfer path. The returned futures
+ * complete on SDK threads, so callers can compose them without parking a thread for each request.
+ */
+public interface S3AsyncService {
+
+    CompletableFuture<String> uploadPart(int partition, byte[] body, PayloadDigest digest, String key, String uploadId);
+    CompletableFuture<S3FileData> multiPartDownload(String decodedObjectKey, long startByte, long endByte);
+    CompletableFuture<S3FileData> getObjectMetadata(String objectKey);
+    CompletableFuture<String> completeMultipartUpload(String key, String uploadId, List<CompletedPart> completedParts);
+
+}
@@ -0,0 +1,115 @@
+package com.mastercard.ids.fts.service;
+
+import com.mastercard.ids.fts.model.S3FileData;
+import com.mastercard.ids.fts.utils.PayloadDigest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@Profile("!local")
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class S3AsyncServiceImpl implements S3AsyncService {
+
+    private final S3AsyncClient s3AsyncClient;
+    private final MeterRegistryService meterRegistryService;
+
+    @Value("${spring.cloud.aws.s3.bucket-name}")
+    private String bucketName;
+
+    /**
+     * Uploads a part with the digest the caller already took of {@code body}, so the part is not hashed again here.
+     */
+    @Override
+    public CompletableFuture<String> uploadPart(int partition, byte[] body, PayloadDigest digest, String key, String uploadId) {
+        String base64EncodedMD5 = digest.md5Base64();
+        UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
+                .bucket(bucketName)
+                .uploadId(uploadId)
+                .key(key)
+                .partNumber(partition)
+                .contentMD5(base64EncodedMD5)
+                .build();
+        return s3AsyncClient.uploadPart(uploadPartRequest, AsyncRequestBody.fromBytes(body))
+                .handle((uploadPartResponse, e) -> {
+                    if (e != null) {
+                        log.error("Error Upload chunk to S3 async. key: {}, partition: {}, {}", key, partition, e.getMessage());
+                        throw new CompletionException(e);
+                    }
+                    log.debug("Upload part : uploadPart async : {}", uploadPartResponse.toString());
+                    meterRegistryService.recordS3Transfer("upload", body.length);
+                    return uploadPartResponse.eTag();
+                });
+    }
+
+    @Override
+    public CompletableFuture<S3FileData> multiPartDownload(String decodedObjectKey, long startByte, long endByte) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(decodedObjectKey)
+                .range("bytes=" + startByte + "-" + endByte)
+                .build();
+        return s3AsyncClient.getObject(getObjectRequest, AsyncResponseTransformer.toBytes())
+                .handle((responseBytes, e) -> {
+                    if (e != null) {
+                        log.error("Error downloading chunk from S3 async. key: {}, {}", decodedObjectKey, e.getMessage());
+                        throw new CompletionException(e);
+                    }
+                    GetObjectResponse response = responseBytes.response();
+                    log.debug("Download chunk from s3 async decodedObjectKey {},ObjectResponse {}", decodedObjectKey, response.toString());
+                    meterRegistryService.recordS3Transfer("download", responseBytes.asByteArrayUnsafe().length);
+                    return new S3FileData(Optional.of(responseBytes.asByteArrayUnsafe()), response.metadata(), Optional.ofNullable(response.contentRange()));
+                });
+    }
+
+    @Override
+    public CompletableFuture<S3FileData> getObjectMetadata(String objectKey) {
+        String decodedObjectKey = URLDecoder.decode(objectKey, StandardCharsets.UTF_8);
+        HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
+                .bucket(bucketName)
+                .key(decodedObjectKey)
+                .build();
+        return s3AsyncClient.headObject(headObjectRequest)
+                .handle((headObjectResponse, e) -> {
+                    if (e != null) {
+                        log.error("Error fetching metadata from S3 async: {}", e.getMessage());
+                        throw new CompletionException(e);
+                    }
+                    log.debug("S3 object metadata : {}", headObjectResponse.toString());
+                    return new S3FileData(Optional.empty(), headObjectResponse.metadata(), Optional.empty());
+                });
+    }
+
+    @Override
+    public CompletableFuture<String> completeMultipartUpload(String key, String uploadId, List<CompletedPart> completedParts) {
+        CompleteMultipartUploadRequest completeMultipartUploadRequest = CompleteMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .uploadId(uploadId)
+                .key(key)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                .build();
+        log.debug("Completing Multipart Upload async: {}", completeMultipartUploadRequest.toString());
+        return s3AsyncClient.completeMultipartUpload(completeMultipartUploadRequest)
+                .handle((response, e) -> {
+                    if (e != null) {
+                        log.error("Error Completing MultiPart File Upload Request to S3 async: Key : {} , UploadId: {}, {}", key, uploadId, e.getMessage());
+                        throw new CompletionException(e);
+                    }
+                    return response.eTag();
+                });
+    }
+}
@@ -0,0 +1,41 @@
+package com.mastercard.ids.fts.service;
+
+import com.mastercard.ids.fts.model.S3FileData;
+import com.mastercard.ids.fts.utils.PayloadDigest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Profile("local")
+@Service
+@Slf4j
+public class S3AsyncServiceLocalImpl implements S3AsyncService {
+
+    @Override
+    public CompletableFuture<String> uploadPart(int partition, byte[] body, PayloadDigest digest, String key, String uploadId) {
+        log.debug("Upload chunk to S3 async: partition:{}, key:{}, uploadId:{}", partition, key, uploadId);
+        return CompletableFuture.completedFuture("Not supported in local");
+    }
+
+    @Override
+    public CompletableFuture<S3FileData> multiPartDownload(String decodedObjectKey, long startByte, long endByte) {
+        log.debug("Multipart File Download from S3 async. Not Supported in Local . decodedObjectKey : {} , startByte : {} , endByte : {}", decodedObjectKey, startByte, endByte);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<S3FileData> getObjectMetadata(String objectKey) {
+        log.debug("Get S3 Object Metadata async. Not Supported in Local . ObjectKey : {}", objectKey);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<String> completeMultipartUpload(String key, String uploadId, List<CompletedPart> completedParts) {
+        log.debug("Upload to S3 async. completeMultipartUpload: key:{}, uploadId:{}", key, uploadId);
+        return CompletableFuture.completedFuture("Not supported in local");
+    }
+}
@@ -1,28 +1,31 @@
 package com.mastercard.ids.fts.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import com.mastercard.ids.fts.model.S3FileData;
-import com.mastercard.ids.fts.utils.Utils;
+import com.mastercard.ids.fts.utils.ChecksumEngine;
+import com.mastercard.ids.fts.utils.PayloadDigest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Recover;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
-import org.springframework.util.DigestUtils;
 import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -34,7 +37,8 @@ import java.util.Optional;
 public class S3ServiceImpl implements S3Service {
 
     private final S3Client s3Client;
-    private final Utils utils;
+    private final ChecksumEngine checksumEngine;
+    private final MeterRegistryService meterRegistryService;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -45,8 +49,7 @@ public class S3ServiceImpl implements S3Service {
     @Retryable(value = {RuntimeException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000))
     public String uploadS3(int partition, byte[] body, String key, String uploadId) {
         try {
-            byte[] md5Bytes = DigestUtils.md5Digest(body);
-            String base64EncodedMD5 = Base64.getEncoder().encodeToString(md5Bytes);
+            String base64EncodedMD5 = checksumEngine.digest(body).md5Base64();
 
             UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
                     .bucket(bucketName)
@@ -57,6 +60,7 @@ public class S3ServiceImpl implements S3Service {
                     .build();
             UploadPartResponse uploadPartResponse = s3Client.uploadPart(uploadPartRequest, RequestBody.fromBytes(body));
             log.debug("Upload part : uploadS3 : {}", uploadPartResponse.toString());
+            meterRegistryService.recordS3Transfer("upload", body.length);
             return uploadPartResponse.eTag();
         } catch (Exception e) {
             log.error("Error Upload chunk to S3 : {}", e.getMessage());
@@ -64,19 +68,87 @@ public class S3ServiceImpl implements S3Service {
         }
     }
 
+    /**
+     * Streams a part straight into S3. The MD5 is computed while the SDK reads the body, so it cannot be sent
+     * as Content-MD5 up front; it is checked against the returned ETag instead. Not retried here because the
+     * stream can only be consumed once - the caller retries from the source.
+     */
+    public String uploadS3(int partition, InputStream body, long contentLength, String key, String uploadId) {
+        try {
+            ChecksumEngine.DigestingInputStream digestStream = checksumEngine.digesting(body);
+
+            UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
+                    .bucket(bucketName)
+                    .uploadId(uploadId)
+                    .key(key)
+                    .partNumber(partition)
+                    .contentLength(contentLength)
+                    .build();
+            UploadPartResponse uploadPartResponse = s3Client.uploadPart(uploadPartRequest, RequestBody.fromInputStream(digestStream, contentLength));
+            log.debug("Upload part : uploadS3 stream : {}", uploadPartResponse.toString());
+
+            String md5Hex = digestStream.digest().md5Hex();
+            // With SSE-KMS the ETag is not the MD5 of the part, so it cannot be compared
+            boolean kmsEncrypted = uploadPartResponse.serverSideEncryption() != null
+                    && uploadPartResponse.serverSideEncryption().toString().startsWith("aws:kms");
+            if (!kmsEncrypted && !md5Hex.equals(unquote(uploadPartResponse.eTag()))) {
+                log.error("Checksum mismatch for streamed part {} key {}: md5 {} eTag {}", partition, key, md5Hex, uploadPartResponse.eTag());
+                throw new RuntimeException("Checksum verification failed for streamed part " + partition);
+            }
+            meterRegistryService.recordS3Transfer("upload", contentLength);
+            return uploadPartResponse.eTag();
+        } catch (Exception e) {
+            log.error("Error Stream chunk to S3 : {}", e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Uploads a part from a pooled buffer, using the digest taken while the buffer was filled. The SDK reads a view
+     * of the buffer, so a retry sends the same bytes.
+     */
     @Retryable(value = {RuntimeException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000))
-    public String singleFileUploadS3(byte[] body, String key, Map<String, String> metadata) {
+    public String uploadS3(int partition, ByteBuffer body, PayloadDigest digest, String key, String uploadId) {
         try {
-            byte[] md5Bytes = DigestUtils.md5Digest(body);
-            String base64EncodedMD5 = Base64.getEncoder().encodeToString(md5Bytes);
+            String base64EncodedMD5 = digest.md5Base64();
+            long contentLength = body.remaining();
 
+            UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
+                    .bucket(bucketName)
+                    .uploadId(uploadId)
+                    .key(key)
+                    .partNumber(partition)
+                    .contentLength(contentLength)
+                    .contentMD5(base64EncodedMD5)
+                    .build();
+            UploadPartResponse uploadPartResponse = s3Client.uploadPart(uploadPartRequest, RequestBody.fromContentProvider(
+                    () -> new ByteBufferBackedInputStream(body.duplicate()), contentLength, MediaType.APPLICATION_OCTET_STREAM_VALUE));
+            log.debug("Upload part : uploadS3 buffer : {}", uploadPartResponse.toString());
+            meterRegistryService.recordS3Transfer("upload", contentLength);
+            return uploadPartResponse.eTag();
+        } catch (Exception e) {
+            log.error("Error Upload buffered chunk to S3 : {}", e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Uploads a whole object with the digest already taken when the file was verified. Any additional checksum in the
+     * digest is sent along, so S3 stores and validates it too.
+     */
+    @Retryable(value = {RuntimeException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000))
+    public String singleFileUploadS3(byte[] body, PayloadDigest digest, String key, Map<String, String> metadata) {
+        try {
             PutObjectResponse putObjectResponse = s3Client.putObject(PutObjectRequest.builder()
                     .key(key)
                     .bucket(bucketName)
                     .metadata(metadata)
-                    .contentMD5(base64EncodedMD5)
+                    .contentMD5(digest.md5Base64())
+                    .checksumCRC32C(digest.crc32cBase64())
+                    .checksumSHA256(digest.sha256Base64())
                     .build(), RequestBody.fromBytes(body));
             log.debug("singleFileUploadS3 {} ", putObjectResponse.toString());
+            meterRegistryService.recordS3Transfer("upload", body.length);
 //            emailService.sendEmail("Single File Uploaded to S3", "Single File uploaded to S3 successfully: " + key);
             return putObjectResponse.eTag();
         } catch (Exception e) {
@@ -150,23 +222,20 @@ public class S3ServiceImpl implements S3Service {
                 .key(decodedObjectKey)
                 .build();
 
-        try (ResponseInputStream<GetObjectResponse> s3Stream = s3Client.getObject(getObjectRequest);
-             ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream()) {
+        try (ResponseInputStream<GetObjectResponse> s3Stream = s3Client.getObject(getObjectRequest)) {
 
-            byte[] buffer = new byte[8192];
-            int bytesRead;
-            while ((bytesRead = s3Stream.read(buffer)) != -1) {
-                byteArrayOutputStream.write(buffer, 0, bytesRead);
-            }
+            byte[] content = readContent(s3Stream);
             log.debug("Single file download from S3 ObjectResponse: {}", s3Stream.response().toString());
-            if (utils.verifyChecksum(byteArrayOutputStream.toByteArray(), s3Stream.response().eTag())) {
+            meterRegistryService.recordS3Transfer("download", content.length);
+            PayloadDigest digest = checksumEngine.digest(content);
+            if (isMd5ETag(s3Stream.response()) && !digest.matchesMd5Hex(unquote(s3Stream.response().eTag()))) {
                 log.error("Checksum verification failed for file download from s3 decodedObjectKey: {}", decodedObjectKey);
                 throw new RuntimeException("Checksum verification failed.");
             }
             Map<String, String> metadata = s3Stream.response().metadata();
 
             //            emailService.sendEmail("Single File Downloaded from S3", "Single File downloaded Successfully from S3: " + decodedObjectKey);
-            return new S3FileData(Optional.of(byteArrayOutputStream.toByteArray()), metadata, Optional.ofNullable(s3Stream.response().contentRange()));
+            return new S3FileData(Optional.of(content), metadata, Optional.ofNullable(s3Stream.response().contentRange()), digest);
         } catch (Exception e) {
             log.error("Error downloading file from s3: " + e);
             throw new RuntimeException(e);
@@ -199,20 +268,16 @@ public class S3ServiceImpl implements S3Service {
                 .range("bytes=" + startByte + "-" + endByte)
                 .build();
 
-        try (ResponseInputStream<GetObjectResponse> s3Stream = s3Client.getObject(getObjectRequest);
-             ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream()) {
+        try (ResponseInputStream<GetObjectResponse> s3Stream = s3Client.getObject(getObjectRequest)) {
 
-            byte[] buffer = new byte[8192];
-            int bytesRead;
-            while ((bytesRead = s3Stream.read(buffer)) != -1) {
-                byteArrayOutputStream.write(buffer, 0, bytesRead);
-            }
-            log.trace("S3 part startbytes {} endbytes {} content length {} resp{}", startByte, endByte, byteArrayOutputStream.size(), s3Stream.toString());
+            byte[] content = readContent(s3Stream);
+            log.trace("S3 part startbytes {} endbytes {} content length {} resp{}", startByte, endByte, content.length, s3Stream.toString());
             log.debug("Download chunk from s3 decodedObjectKey {},ObjectResponse {}", decodedObjectKey, s3Stream.response().toString());
 
             Map<String, String> metadata = s3Stream.response().metadata();
+            meterRegistryService.recordS3Transfer("download", content.length);
 
-            S3FileData fileData = new S3FileData(Optional.of(byteArrayOutputStream.toByteArray()), metadata, Optional.ofNullable(s3Stream.response().contentRange()));
+            S3FileData fileData = new S3FileData(Optional.of(content), metadata, Optional.ofNullable(s3Stream.response().contentRange()), checksumEngine.digest(content));
 //            emailService.sendEmail("Multipart File Downloaded from S3", "Multipart File downloaded Successfully from S3: " + decodedObjectKey);
             return fileData;
         } catch (Exception e) {
@@ -221,6 +286,49 @@ public class S3ServiceImpl implements S3Service {
         }
     }
 
+    /**
+     * Reads a range straight into a pooled buffer, which is flipped on return. The returned {@link S3FileData}
+     * carries the metadata, content range and the digest taken while reading, but no content.
+     */
+    @Retryable(value = {RuntimeException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000))
+    public S3FileData multiPartDownloadS3(String decodedObjectKey, long startByte, long endByte, ByteBuffer target) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(decodedObjectKey)
+                .range("bytes=" + startByte + "-" + endByte)
+                .build();
+
+        try (ResponseInputStream<GetObjectResponse> s3Stream = s3Client.getObject(getObjectRequest)) {
+            ChecksumEngine.DigestingInputStream digestStream = checksumEngine.digesting(s3Stream);
+            PartBufferPool.readFully(digestStream, target);
+            log.trace("S3 part startbytes {} endbytes {} content length {} resp{}", startByte, endByte, target.remaining(), s3Stream.toString());
+            log.debug("Download chunk into buffer from s3 decodedObjectKey {},ObjectResponse {}", decodedObjectKey, s3Stream.response().toString());
+            meterRegistryService.recordS3Transfer("download", target.remaining());
+
+            return new S3FileData(Optional.empty(), s3Stream.response().metadata(), Optional.ofNullable(s3Stream.response().contentRange()), digestStream.digest());
+        } catch (Exception e) {
+            log.error("Error downloading chunk into buffer from S3: " + e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Retryable(value = {RuntimeException.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000))
+    public String copyObjectS3(String sourceKey, String destinationKey) {
+        try {
+            CopyObjectResponse copyObjectResponse = s3Client.copyObject(CopyObjectRequest.builder()
+                    .sourceBucket(bucketName)
+                    .sourceKey(sourceKey)
+                    .destinationBucket(bucketName)
+                    .destinationKey(destinationKey)
+                    .build());
+            log.debug("copyObjectS3 {} ", copyObjectResponse.toString());
+            return copyObjectResponse.copyObjectResult().eTag();
+        } catch (Exception e) {
+            log.error("Error copying S3 object: sourceKey: {}, destinationKey: {}, {}", sourceKey, destinationKey, e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
     @Recover
     private S3FileData recover(RuntimeException e, String objectKey) {
         log.error("S3 - Max download retries reached for objectKey: {}. Last error: {}", objectKey, e.getMessage());
@@ -239,6 +347,39 @@ public class S3ServiceImpl implements S3Service {
         return new S3FileData(Optional.empty(), Map.of("error", "Download failed after retries"), Optional.empty());
     }
 
+    @Recover
+    private S3FileData recover(RuntimeException e, String decodedObjectKey, long startByte, long endByte, ByteBuffer target) {
+        log.error("S3 - Max download retries reached for objectKey: {}. Last error: {}", decodedObjectKey, e.getMessage());
+        target.clear().flip(); // nothing readable, callers treat it as an empty chunk
+        return new S3FileData(Optional.empty(), Map.of("error", "Download failed after retries"), Optional.empty());
+    }
+
+    // Sized from Content-Length so the body is copied once, instead of growing a stream buffer and copying it out
+    private byte[] readContent(ResponseInputStream<GetObjectResponse> s3Stream) throws IOException {
+        Long contentLength = s3Stream.response().contentLength();
+        if (contentLength == null) {
+            return s3Stream.readAllBytes();
+        }
+        byte[] content = new byte[Math.toIntExact(contentLength)];
+        int read = s3Stream.readNBytes(content, 0, content.length);
+        if (read != content.length) {
+            throw new IOException(String.format("Expected %d bytes from S3 but got %d", content.length, read));
+        }
+        return content;
+    }
+
+    // Only single-part objects without SSE-KMS carry the MD5 of their content as ETag
+    static boolean isMd5ETag(GetObjectResponse response) {
+        String eTag = unquote(response.eTag());
+        boolean kmsEncrypted = response.serverSideEncryption() != null
+                && response.serverSideEncryption().toString().startsWith("aws:kms");
+        return eTag != null && !eTag.contains("-") && !kmsEncrypted;
+    }
+
+    static String unquote(String eTag) {
+        return eTag == null ? null : eTag.replace("\"", "");
+    }
+
     private LocalDateTime parseDateTime(String input) {
         try {
             return input != null ? LocalDateTime.parse(input) : null;
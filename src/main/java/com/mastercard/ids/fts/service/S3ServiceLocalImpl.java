@@ -1,11 +1,14 @@
 package com.mastercard.ids.fts.service;
 
 import com.mastercard.ids.fts.model.S3FileData;
+import com.mastercard.ids.fts.utils.PayloadDigest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.s3.model.CompletedPart;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 
@@ -21,7 +24,19 @@ public class S3ServiceLocalImpl implements S3Service {
     }
 
     @Override
-    public String singleFileUploadS3(byte[] body, String key, Map<String, String> metadata) {
+    public String uploadS3(int partition, InputStream body, long contentLength, String key, String uploadId) {
+        log.debug("Stream chunk to S3: partition:{}, contentLength:{}, key:{}, uploadId:{}", partition, contentLength, key, uploadId);
+        return "Not supported in local";
+    }
+
+    @Override
+    public String uploadS3(int partition, ByteBuffer body, PayloadDigest digest, String key, String uploadId) {
+        log.debug("Upload buffered chunk to S3: partition:{}, size:{}, key:{}, uploadId:{}", partition, body.remaining(), key, uploadId);
+        return "Not supported in local";
+    }
+
+    @Override
+    public String singleFileUploadS3(byte[] body, PayloadDigest digest, String key, Map<String, String> metadata) {
         log.debug("Upload to S3. singleFileUploadS3: key:{}, metadata:{}", key, metadata);
         return "Not supported in local";
     }
@@ -60,5 +75,16 @@ public class S3ServiceLocalImpl implements S3Service {
         log.debug("Multipart File Download from S3. Not Supported in Local . decodedObjectKey : {} , startByte : {} , endByte : {}", decodedObjectKey, startByte, endByte);
         return null;
     }
-}
 
+    @Override
+    public S3FileData multiPartDownloadS3(String decodedObjectKey, long startByte, long endByte, ByteBuffer target) {
+        log.debug("Multipart File Download from S3 into buffer. Not Supported in Local . decodedObjectKey : {} , startByte : {} , endByte : {}", decodedObjectKey, startByte, endByte);
+        return null;
+    }
+
+    @Override
+    public String copyObjectS3(String sourceKey, String destinationKey) {
+        log.debug("Copy S3 Object. Not Supported in Local . sourceKey : {} , destinationKey : {}", sourceKey, destinationKey);
+        return "Not supported in local";
+    }
+}
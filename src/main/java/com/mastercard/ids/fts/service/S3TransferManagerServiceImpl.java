@@ -0,0 +1,211 @@
+package com.mastercard.ids.fts.service;
+
+import com.mastercard.ids.fts.model.S3FileData;
+import com.mastercard.ids.fts.utils.ChecksumEngine;
+import com.mastercard.ids.fts.utils.PayloadDigest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
+import software.amazon.awssdk.transfer.s3.model.CompletedCopy;
+import software.amazon.awssdk.transfer.s3.model.CompletedUpload;
+import software.amazon.awssdk.transfer.s3.model.CopyRequest;
+import software.amazon.awssdk.transfer.s3.model.DownloadRequest;
+import software.amazon.awssdk.transfer.s3.model.UploadRequest;
+
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * {@link S3Service} on the S3 Transfer Manager, used when {@code fts.transfer.s3.transfer-manager.enabled} is set.
+ * Whole-object uploads, downloads and copies go through the Transfer Manager, whose CRT client splits them into
+ * parallel multipart uploads, ranged GETs and part copies. Transfer progress feeds the {@code fts.s3.transfer.bytes}
+ * counter as it happens. Ranged reads into part buffers go through the Transfer Manager as well, other part-level
+ * calls of the multipart transfers are left to {@link S3ServiceImpl}.
+ */
+@Profile("!local")
+@Primary
+@ConditionalOnProperty(name = "fts.transfer.s3.transfer-manager.enabled", havingValue = "true")
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class S3TransferManagerServiceImpl implements S3Service {
+
+    private final S3TransferManager s3TransferManager;
+    private final S3ServiceImpl s3ServiceImpl;
+    private final ChecksumEngine checksumEngine;
+    private final MeterRegistryService meterRegistryService;
+
+    @Value("${spring.cloud.aws.s3.bucket-name}")
+    private String bucketName;
+
+    @Override
+    public String uploadS3(int partition, byte[] body, String key, String uploadId) {
+        return s3ServiceImpl.uploadS3(partition, body, key, uploadId);
+    }
+
+    @Override
+    public String uploadS3(int partition, InputStream body, long contentLength, String key, String uploadId) {
+        return s3ServiceImpl.uploadS3(partition, body, contentLength, key, uploadId);
+    }
+
+    @Override
+    public String uploadS3(int partition, ByteBuffer body, PayloadDigest digest, String key, String uploadId) {
+        return s3ServiceImpl.uploadS3(partition, body, digest, key, uploadId);
+    }
+
+    /**
+     * Uploads a whole object, split into a parallel multipart upload above the CRT part size. The whole-object
+     * Content-MD5 and checksums of {@code digest} do not apply to the parts, so they are not sent; the CRT client
+     * checksums every part it uploads instead.
+     */
+    @Override
+    public String singleFileUploadS3(byte[] body, PayloadDigest digest, String key, Map<String, String> metadata) {
+        try {
+            CompletedUpload completedUpload = s3TransferManager.upload(UploadRequest.builder()
+                            .putObjectRequest(PutObjectRequest.builder()
+                                    .bucket(bucketName)
+                                    .key(key)
+                                    .metadata(metadata)
+                                    .build())
+                            .requestBody(AsyncRequestBody.fromBytes(body))
+                            .addTransferListener(new S3TransferMetricsListener(meterRegistryService, "upload", key))
+                            .build())
+                    .completionFuture()
+                    .join();
+            log.debug("singleFileUploadS3 transfer manager {} ", completedUpload.response().toString());
+            return completedUpload.response().eTag();
+        } catch (Exception e) {
+            log.error("Error Single file Upload to S3 through transfer manager: {}", e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public String initiateMultipartUploadRequest(String key, Map<String, String> metadata) {
+        return s3ServiceImpl.initiateMultipartUploadRequest(key, metadata);
+    }
+
+    @Override
+    public String completeMultipartUpload(String key, String uploadId, List<CompletedPart> completedParts) {
+        return s3ServiceImpl.completeMultipartUpload(key, uploadId, completedParts);
+    }
+
+    @Override
+    public void abortMultiPartUpload(String key, String uploadId) {
+        s3ServiceImpl.abortMultiPartUpload(key, uploadId);
+    }
+
+    @Override
+    public S3FileData singleFileDownloadS3(String objectKey) {
+        String decodedObjectKey = URLDecoder.decode(objectKey, StandardCharsets.UTF_8);
+        try {
+            ResponseBytes<GetObjectResponse> responseBytes = s3TransferManager.download(DownloadRequest.builder()
+                            .getObjectRequest(GetObjectRequest.builder()
+                                    .bucket(bucketName)
+                                    .key(decodedObjectKey)
+                                    .build())
+                            .responseTransformer(AsyncResponseTransformer.<GetObjectResponse>toBytes())
+                            .addTransferListener(new S3TransferMetricsListener(meterRegistryService, "download", decodedObjectKey))
+                            .build())
+                    .completionFuture()
+                    .join()
+                    .result();
+            GetObjectResponse response = responseBytes.response();
+            byte[] content = responseBytes.asByteArrayUnsafe();
+            log.debug("Single file download from S3 through transfer manager ObjectResponse: {}", response);
+            PayloadDigest digest = checksumEngine.digest(content);
+            if (S3ServiceImpl.isMd5ETag(response) && !digest.matchesMd5Hex(S3ServiceImpl.unquote(response.eTag()))) {
+                log.error("Checksum verification failed for file download from s3 decodedObjectKey: {}", decodedObjectKey);
+                throw new RuntimeException("Checksum verification failed.");
+            }
+            return new S3FileData(Optional.of(content), response.metadata(), Optional.ofNullable(response.contentRange()), digest);
+        } catch (Exception e) {
+            log.error("Error downloading file from s3 through transfer manager: " + e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public S3FileData getS3ObjectMetadata(String objectKey) {
+        return s3ServiceImpl.getS3ObjectMetadata(objectKey);
+    }
+
+    @Override
+    public S3FileData multiPartDownloadS3(String decodedObjectKey, long startByte, long endByte) {
+        return s3ServiceImpl.multiPartDownloadS3(decodedObjectKey, startByte, endByte);
+    }
+
+    /**
+     * Reads a range straight into a pooled buffer, which is flipped on return. The CRT client fetches the range in
+     * parallel GETs of the CRT part size and hands the body over in order, so the buffer fills while later pieces are
+     * still downloading. The returned {@link S3FileData} carries no content, as in {@link S3ServiceImpl}.
+     */
+    @Override
+    public S3FileData multiPartDownloadS3(String decodedObjectKey, long startByte, long endByte, ByteBuffer target) {
+        try {
+            ResponseInputStream<GetObjectResponse> s3Stream = s3TransferManager.download(DownloadRequest.builder()
+                            .getObjectRequest(GetObjectRequest.builder()
+                                    .bucket(bucketName)
+                                    .key(decodedObjectKey)
+                                    .range("bytes=" + startByte + "-" + endByte)
+                                    .build())
+                            .responseTransformer(AsyncResponseTransformer.<GetObjectResponse>toBlockingInputStream())
+                            .addTransferListener(new S3TransferMetricsListener(meterRegistryService, "download", decodedObjectKey))
+                            .build())
+                    .completionFuture()
+                    .join()
+                    .result();
+            try (s3Stream) {
+                ChecksumEngine.DigestingInputStream digestStream = checksumEngine.digesting(s3Stream);
+                PartBufferPool.readFully(digestStream, target);
+                log.debug("Download chunk into buffer from S3 through transfer manager decodedObjectKey {}, ObjectResponse {}", decodedObjectKey, s3Stream.response());
+                return new S3FileData(Optional.empty(), s3Stream.response().metadata(), Optional.ofNullable(s3Stream.response().contentRange()), digestStream.digest());
+            }
+        } catch (Exception e) {
+            log.error("Error downloading chunk into buffer from S3 through transfer manager: decodedObjectKey: {}, {}", decodedObjectKey, e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Copies within the bucket, as a parallel multipart copy for objects above the CRT part size.
+     */
+    @Override
+    public String copyObjectS3(String sourceKey, String destinationKey) {
+        try {
+            CompletedCopy completedCopy = s3TransferManager.copy(CopyRequest.builder()
+                            .copyObjectRequest(copy -> copy
+                                    .sourceBucket(bucketName)
+                                    .sourceKey(sourceKey)
+                                    .destinationBucket(bucketName)
+                                    .destinationKey(destinationKey))
+                            .addTransferListener(new S3TransferMetricsListener(meterRegistryService, "copy", destinationKey))
+                            .build())
+                    .completionFuture()
+                    .join();
+            log.debug("copyObjectS3 transfer manager {} ", completedCopy.response().toString());
+            return completedCopy.response().copyObjectResult().eTag();
+        } catch (Exception e) {
+            log.error("Error copying S3 object through transfer manager: sourceKey: {}, destinationKey: {}, {}", sourceKey, destinationKey, e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.mastercard.ids.fts.service;
+
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.transfer.s3.progress.TransferListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feeds the progress the S3 Transfer Manager reports for one transfer into the {@code fts.s3.transfer.bytes} counter
+ * as the bytes move, instead of once the transfer completes. One listener per transfer; the SDK may call it from
+ * several threads.
+ */
+@Slf4j
+class S3TransferMetricsListener implements TransferListener {
+
+    private final MeterRegistryService meterRegistryService;
+    private final String direction;
+    private final String key;
+    private final AtomicLong recordedBytes = new AtomicLong();
+
+    S3TransferMetricsListener(MeterRegistryService meterRegistryService, String direction, String key) {
+        this.meterRegistryService = meterRegistryService;
+        this.direction = direction;
+        this.key = key;
+    }
+
+    @Override
+    public void bytesTransferred(Context.BytesTransferred context) {
+        record(context.progressSnapshot().transferredBytes());
+    }
+
+    @Override
+    public void transferComplete(Context.TransferComplete context) {
+        record(context.progressSnapshot().transferredBytes());
+        log.debug("S3 transfer complete. direction={}, key={}, bytes={}", direction, key, recordedBytes.get());
+    }
+
+    @Override
+    public void transferFailed(Context.TransferFailed context) {
+        log.warn("S3 transfer failed. direction={}, key={}, bytes={}: {}", direction, key, recordedBytes.get(),
+                context.exception().getMessage());
+    }
+
+    // Snapshots carry the running total, only the bytes not counted yet are added
+    private void record(long transferredBytes) {
+        long previous = recordedBytes.getAndAccumulate(transferredBytes, Math::max);
+        if (transferredBytes > previous) {
+            meterRegistryService.recordS3Transfer(direction, transferredBytes - previous);
+        }
+    }
+}
@@ -2,34 +2,109 @@ package com.mastercard.ids.fts.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mastercard.ids.fts.utils.TransferExecutors;
 import io.awspring.cloud.sqs.annotation.SqsListener;
-import lombok.RequiredArgsConstructor;
+import io.awspring.cloud.sqs.listener.SqsHeaders;
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 @Profile("!local")
-public class SQSMessageListnerService {
+public class SQSMessageListnerService implements DisposableBean {
 
     private final OutboundFileListProcessor outboundFileListProcessor;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper objectMapper;
 
-    @SqsListener(value = "${spring.cloud.aws.sqs.queue-name}", acknowledgementMode = "ON_SUCCESS")
-    public void receiveMessage(String message) {
+    // Records of all messages in a batch are handled side by side
+    private final ExecutorService recordExecutor;
+
+    private final int maxReceiveCount;
+
+    @Autowired
+    public SQSMessageListnerService(OutboundFileListProcessor outboundFileListProcessor,
+                                    ObjectMapper objectMapper,
+                                    @Value("${fts.transfer.outbound.sqs.record-concurrency}") int recordConcurrency,
+                                    @Value("${fts.transfer.virtual-threads}") boolean virtualThreads,
+                                    @Value("${fts.transfer.outbound.sqs.max-receive-count}") int maxReceiveCount) {
+        this(outboundFileListProcessor, objectMapper, TransferExecutors.newTransferExecutor("sqs-record-", recordConcurrency, virtualThreads), maxReceiveCount);
+        log.info("SQS listener started. recordConcurrency={}, virtualThreads={}, maxReceiveCount={}", recordConcurrency, virtualThreads, maxReceiveCount);
+    }
+
+    SQSMessageListnerService(OutboundFileListProcessor outboundFileListProcessor, ObjectMapper objectMapper, ExecutorService recordExecutor,
+                             int maxReceiveCount) {
+        this.outboundFileListProcessor = outboundFileListProcessor;
+        this.objectMapper = objectMapper;
+        this.recordExecutor = recordExecutor;
+        this.maxReceiveCount = maxReceiveCount;
+    }
+
+    /**
+     * Receives up to {@code max-messages-per-poll} messages per long poll and acknowledges the ones that were fully
+     * handled; the container deletes acknowledged messages in batches. A message whose records failed is left on the
+     * queue and comes back after its visibility timeout, until it has been received {@code max-receive-count} times;
+     * then it is acknowledged and dropped, and files it already recorded are left to the outbound sweep.
+     */
+    @SqsListener(value = "${spring.cloud.aws.sqs.queue-name}", acknowledgementMode = "MANUAL",
+            maxConcurrentMessages = "${fts.transfer.outbound.sqs.max-concurrent-messages}",
+            maxMessagesPerPoll = "${fts.transfer.outbound.sqs.max-messages-per-poll}",
+            pollTimeoutSeconds = "${fts.transfer.outbound.sqs.poll-timeout-seconds}")
+    public void receiveMessages(List<Message<String>> messages, BatchAcknowledgement<String> acknowledgement) {
+        List<CompletableFuture<Boolean>> results = messages.stream().map(message -> handle(message.getPayload())).toList();
+
+        List<Message<String>> handled = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i++) {
+            Message<String> message = messages.get(i);
+            if (results.get(i).join()) {
+                handled.add(message);
+            } else if (receiveCount(message) >= maxReceiveCount) {
+                log.error("Dropping message after {} receives. messageId={}, payload={}", receiveCount(message), message.getHeaders().getId(), message.getPayload());
+                handled.add(message);
+            }
+        }
+        if (!handled.isEmpty()) {
+            acknowledgement.acknowledge(handled);
+        }
+        log.info("Received {} messages, acknowledged {}", messages.size(), handled.size());
+    }
+
+    // Times SQS has delivered the message, 1 on its first delivery
+    private static int receiveCount(Message<String> message) {
+        Object receiveCount = message.getHeaders().get(SqsHeaders.MessageSystemAttributes.SQS_APPROXIMATE_RECEIVE_COUNT);
+        try {
+            return receiveCount != null ? Integer.parseInt(receiveCount.toString()) : 1;
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    /**
+     * Handles a single message. Returns false when one of its records failed and the message should be redelivered.
+     */
+    public boolean receiveMessage(String message) {
+        return handle(message).join();
+    }
+
+    private CompletableFuture<Boolean> handle(String message) {
         try {
             log.info("Received message: " + message);
             JsonNode rootNode = objectMapper.readTree(message);
 
             if ("s3:TestEvent".equals(rootNode.path("Event").asText())) {
-                return;
+                return CompletableFuture.completedFuture(true);
             }
 
             JsonNode recordsNode = rootNode.get("Records");
@@ -38,19 +113,37 @@ public class SQSMessageListnerService {
             if (recordsNode != null && recordsNode.isArray()) {
                 recordsNode.forEach(recordList::add);
             }
-            recordList.forEach(record -> {
-                JsonNode s3Node = record.path("s3");
-                String objectKey = s3Node.path("object").path("key").asText();
-                long fileSize = s3Node.path("object").path("size").asLong();
-                log.info("S3 object available for transfer to NGFT : {} , File Size : {}", objectKey, fileSize);
-                outboundFileListProcessor.processOutboundFiles(objectKey, fileSize);
-            });
+            List<CompletableFuture<Void>> records = recordList.stream()
+                    .map(record -> CompletableFuture.runAsync(() -> {
+                        JsonNode s3Node = record.path("s3");
+                        String objectKey = s3Node.path("object").path("key").asText();
+                        long fileSize = s3Node.path("object").path("size").asLong();
+                        log.info("S3 object available for transfer to NGFT : {} , File Size : {}", objectKey, fileSize);
+                        outboundFileListProcessor.processOutboundFiles(objectKey, fileSize);
+                    }, recordExecutor))
+                    .toList();
+
+            return CompletableFuture.allOf(records.toArray(new CompletableFuture[0]))
+                    .handle((result, e) -> {
+                        if (e != null) {
+                            log.error("Unexpected error: " + e.getMessage());
+                            return false;
+                        }
+                        return true;
+                    });
 
         } catch (IOException e) {
+            // A message that cannot be parsed will not parse on redelivery either
             log.error("Error processing message: " + e.getMessage());
+            return CompletableFuture.completedFuture(true);
         } catch (Exception e) {
             log.error("Unexpected error: " + e.getMessage());
+            return CompletableFuture.completedFuture(false);
         }
     }
 
+    @Override
+    public void destroy() {
+        recordExecutor.shutdownNow();
+    }
 }
@@ -0,0 +1,71 @@
+package com.mastercard.ids.fts.service;
+
+import com.mastercard.ids.fts.model.SchedulerLock;
+import com.mastercard.ids.fts.repository.SchedulerLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Cluster-wide lock held in SCHEDULER_LOCK, so only one instance runs a scheduled job at a time. A lock is held until
+ * it is released or for at most {@code lock-minutes}, after which a crashed holder no longer blocks the others.
+ */
+@Slf4j
+@Service
+public class SchedulerLockService {
+
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final String owner;
+    private final boolean enabled;
+    private final Duration lockAtMost;
+
+    public SchedulerLockService(SchedulerLockRepository schedulerLockRepository,
+                                TransferLeaseService transferLeaseService,
+                                @Value("${fts.ngft.poll.cluster-lock.enabled}") boolean enabled,
+                                @Value("${fts.ngft.poll.cluster-lock.lock-minutes}") long lockMinutes) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        this.owner = transferLeaseService.owner();
+        this.enabled = enabled;
+        this.lockAtMost = Duration.ofMinutes(lockMinutes);
+    }
+
+    /**
+     * Takes the lock if nobody holds it or the holder's time is up. Returns false when another instance holds it.
+     */
+    public boolean tryLock(String name) {
+        if (!enabled) {
+            return true;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (schedulerLockRepository.acquire(name, owner, now.plus(lockAtMost), now) == 1) {
+            return true;
+        }
+        if (schedulerLockRepository.existsById(name)) {
+            log.info("Scheduler lock {} is held by another instance", name);
+            return false;
+        }
+        try {
+            // Inserted as a new row, a concurrent insert fails on the primary key instead of being merged over
+            schedulerLockRepository.saveAndFlush(SchedulerLock.builder()
+                    .name(name)
+                    .lockedBy(owner)
+                    .lockedUntil(now.plus(lockAtMost))
+                    .build());
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the lock row first
+            log.info("Scheduler lock {} was taken by another instance", name);
+            return false;
+        }
+    }
+
+    public void unlock(String name) {
+        if (enabled) {
+            schedulerLockRepository.release(name, owner, LocalDateTime.now());
+        }
+    }
+}
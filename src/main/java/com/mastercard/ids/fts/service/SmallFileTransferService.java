@@ -3,8 +3,10 @@ package com.mastercard.ids.fts.service;
 import com.mastercard.ids.fts.model.*;
 import com.mastercard.ids.fts.repository.FileRepository;
 import com.mastercard.ids.fts.repository.OutboundRepository;
+import com.mastercard.ids.fts.utils.ChecksumEngine;
 import com.mastercard.ids.fts.utils.Constants;
 import com.mastercard.ids.fts.utils.NGFTConstants;
+import com.mastercard.ids.fts.utils.PayloadDigest;
 import com.mastercard.ids.fts.utils.Utils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +26,8 @@ public class SmallFileTransferService implements FileTransferService {
     private final FileRepository fileRepository;
     private final OutboundRepository outboundRepository;
     private final Utils utils;
+    private final ChecksumEngine checksumEngine;
+    private final CompletedFileIdCache completedFileIdCache;
 
     /**
      * Downloads a file from API, uploads to S3, and logs CloudWatch metrics.
@@ -41,8 +45,10 @@ public class SmallFileTransferService implements FileTransferService {
             log.debug("Downloading file from NGFT: {}", fileInfo.getId());
             ResponseEntity<byte[]> response = ngftService.download(request);
 
+            // Digest once: the MD5 verifies the download and is reused as Content-MD5 for S3
+            PayloadDigest digest = checksumEngine.digest(response.getBody());
             String checksum = response.getHeaders().getFirst(NGFTConstants.HEADER_FILE_CHECKSUM);
-            if (Boolean.FALSE.equals(utils.verifyChecksum(response.getBody(), checksum))) {
+            if (!digest.matchesMd5Hex(checksum)) {
                 log.error("Checksum verification failed for File Id: {} ", request.getFileInfo().getId());
                 throw new RuntimeException("Checksum verification failed.");
             }
@@ -50,9 +56,10 @@ public class SmallFileTransferService implements FileTransferService {
             String key = utils.getS3FileNamekey(request);
             Map<String, String> metaData = utils.getFileMetadata(request);
             log.debug("Uploading file to S3: {} key: {}", fileInfo.getId(), key);
-            String etag = s3Service.singleFileUploadS3(response.getBody(), key, metaData);
+            String etag = s3Service.singleFileUploadS3(response.getBody(), digest, key, metaData);
 
             fileRepository.updateFileStatusesByFileId(fileInfo.getId(), Constants.FILE_PROCESSING_STATUS_COMPLETED, Constants.FILE_PROCESSING_STATUS_COMPLETED);
+            completedFileIdCache.markCompleted(fileInfo.getId());
             long endTime = System.currentTimeMillis();
             log.info("Inbound: Finished transferring small file {} , fileId: {} in {} ms.", fileInfo.getName(), fileInfo.getId(), (endTime - startTime));
             return CompletableFuture.completedFuture(etag);
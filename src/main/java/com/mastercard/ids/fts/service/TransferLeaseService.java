@@ -0,0 +1,201 @@
+package com.mastercard.ids.fts.service;
+
+import com.mastercard.ids.fts.model.InboundFile;
+import com.mastercard.ids.fts.repository.FileRepository;
+import com.mastercard.ids.fts.repository.OutboundRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leases unfinished INBOUND_FILE and OUTBOUND_FILE rows to this instance so several replicas can share the work
+ * without transferring the same file twice.
+ * <p>
+ * A claim is a conditional update that only takes rows nobody holds or whose lease has expired, followed by reading
+ * back which rows this instance now owns. Leases of files in flight are renewed at a third of the lease duration and
+ * released once the transfer attempt ends, so a crashed instance only holds its files until the lease runs out.
+ * When disabled, every claim succeeds and nothing is written.
+ */
+@Slf4j
+@Component
+public class TransferLeaseService implements DisposableBean {
+
+    private final FileRepository fileRepository;
+    private final OutboundRepository outboundRepository;
+    private final ScheduledExecutorService renewer;
+    private final boolean enabled;
+    private final Duration leaseDuration;
+    private final String owner;
+    private final Set<String> heldInbound = ConcurrentHashMap.newKeySet();
+    private final Set<String> heldOutbound = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public TransferLeaseService(FileRepository fileRepository,
+                                OutboundRepository outboundRepository,
+                                @Value("${fts.transfer.lease.enabled}") boolean enabled,
+                                @Value("${fts.transfer.lease.duration-minutes}") long leaseDurationMinutes) {
+        this(fileRepository, outboundRepository,
+                enabled ? Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("transfer-lease-").daemon().factory()) : null,
+                enabled, Duration.ofMinutes(leaseDurationMinutes), instanceName() + "-" + UUID.randomUUID().toString().substring(0, 8));
+        log.info("Transfer lease service started. enabled={}, leaseDuration={}, owner={}", enabled, leaseDuration, owner);
+    }
+
+    TransferLeaseService(FileRepository fileRepository, OutboundRepository outboundRepository,
+                         ScheduledExecutorService renewer, boolean enabled, Duration leaseDuration, String owner) {
+        this.fileRepository = fileRepository;
+        this.outboundRepository = outboundRepository;
+        this.renewer = renewer;
+        this.enabled = enabled;
+        this.leaseDuration = leaseDuration;
+        this.owner = owner;
+        if (renewer != null) {
+            long renewMillis = Math.max(leaseDuration.toMillis() / 3, 1);
+            renewer.scheduleWithFixedDelay(this::renewLeases, renewMillis, renewMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Claims the given inbound file IDs and returns the ones this instance now holds. IDs already held here are not
+     * returned again, so a file in flight is never dispatched twice.
+     */
+    public Set<String> claimInbound(Collection<String> fileIds) {
+        if (!enabled) {
+            return new LinkedHashSet<>(fileIds);
+        }
+        return claim(fileIds, heldInbound, (ids, now) -> {
+            fileRepository.claimLeases(ids, owner, now.plus(leaseDuration), now);
+            return fileRepository.findLeasedFileIds(ids, owner);
+        });
+    }
+
+    /**
+     * Claims the not completed inbound files of one dispatch lane that fit {@code window}, oldest first, and returns
+     * the ones this instance now holds. Files in {@code exclude}, already attempted by the caller, are skipped. Only
+     * one bounded page of the backlog is read and leased per call, so the rest stays free for the other instances.
+     */
+    public List<InboundFile> claimNextInbound(InboundDispatchQueue.ClaimWindow window, Set<String> exclude) {
+        if (window.files() <= 0) {
+            return List.of();
+        }
+        // Excluded files may still be unleased and come back first, read past them
+        List<InboundFile> unattempted = fileRepository.findClaimableFiles(LocalDateTime.now(), window.aboveSize(), window.upToSize(),
+                        PageRequest.of(0, window.files() + exclude.size())).stream()
+                .filter(file -> !exclude.contains(file.getFileId()))
+                .toList();
+        List<InboundFile> candidates = window.take(unattempted, file -> file.getFileSize() != null ? file.getFileSize() : 0L);
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        Set<String> claimed = claimInbound(candidates.stream().map(InboundFile::getFileId).toList());
+        return candidates.stream()
+                .filter(file -> claimed.contains(file.getFileId()))
+                .toList();
+    }
+
+    public void releaseInbound(String fileId) {
+        if (enabled && heldInbound.remove(fileId)) {
+            fileRepository.releaseLease(fileId, owner);
+        }
+    }
+
+    /**
+     * Claims the given outbound request IDs and returns the ones this instance now holds.
+     */
+    public Set<String> claimOutbound(Collection<String> requestIds) {
+        if (!enabled) {
+            return new LinkedHashSet<>(requestIds);
+        }
+        return claim(requestIds, heldOutbound, (ids, now) -> {
+            outboundRepository.claimLeases(ids, owner, now.plus(leaseDuration), now);
+            return outboundRepository.findLeasedRequestIds(ids, owner);
+        });
+    }
+
+    public void releaseOutbound(String requestId) {
+        if (enabled && heldOutbound.remove(requestId)) {
+            outboundRepository.releaseLease(requestId, owner);
+        }
+    }
+
+    /**
+     * Name this instance holds leases under, unique per process.
+     */
+    public String owner() {
+        return owner;
+    }
+
+    private Set<String> claim(Collection<String> ids, Set<String> held, LeaseClaim leaseClaim) {
+        List<String> candidates = ids.stream().distinct().filter(id -> !held.contains(id)).toList();
+        Set<String> claimed = new LinkedHashSet<>();
+        for (int from = 0; from < candidates.size(); from += CompletedFileIdCache.LOOKUP_BATCH_SIZE) {
+            List<String> batch = candidates.subList(from, Math.min(from + CompletedFileIdCache.LOOKUP_BATCH_SIZE, candidates.size()));
+            Set<String> owned = new HashSet<>(leaseClaim.claim(batch, LocalDateTime.now()));
+            batch.stream().filter(owned::contains).forEach(claimed::add);
+        }
+        held.addAll(claimed);
+        log.debug("Claimed leases. owner={}, requested={}, claimed={}", owner, ids.size(), claimed.size());
+        return claimed;
+    }
+
+    void renewLeases() {
+        try {
+            LocalDateTime expiresAt = LocalDateTime.now().plus(leaseDuration);
+            for (List<String> batch : batches(heldInbound)) {
+                fileRepository.renewLeases(batch, owner, expiresAt);
+            }
+            for (List<String> batch : batches(heldOutbound)) {
+                outboundRepository.renewLeases(batch, owner, expiresAt);
+            }
+        } catch (Exception e) {
+            log.warn("Could not renew transfer leases. owner={}: {}", owner, e.getMessage());
+        }
+    }
+
+    private static List<List<String>> batches(Set<String> ids) {
+        List<String> snapshot = new ArrayList<>(ids);
+        List<List<String>> batches = new ArrayList<>();
+        for (int from = 0; from < snapshot.size(); from += CompletedFileIdCache.LOOKUP_BATCH_SIZE) {
+            batches.add(snapshot.subList(from, Math.min(from + CompletedFileIdCache.LOOKUP_BATCH_SIZE, snapshot.size())));
+        }
+        return batches;
+    }
+
+    private static String instanceName() {
+        try {
+            String hostName = InetAddress.getLocalHost().getHostName();
+            return hostName.length() > 80 ? hostName.substring(0, 80) : hostName;
+        } catch (Exception e) {
+            return "fts";
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (renewer != null) {
+            renewer.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface LeaseClaim {
+        List<String> claim(List<String> ids, LocalDateTime now);
+    }
+}
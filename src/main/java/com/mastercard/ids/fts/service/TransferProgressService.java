@@ -0,0 +1,51 @@
+package com.mastercard.ids.fts.service;
+
+import com.mastercard.ids.fts.model.TransferPart;
+import com.mastercard.ids.fts.repository.TransferPartRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Persists which parts of a multipart transfer have reached their destination, so a retry of the same file can skip
+ * them and re-transfer only the missing parts.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransferProgressService {
+
+    private final TransferPartRepository transferPartRepository;
+
+    public Map<Integer, TransferPart> completedParts(String transferId) {
+        Map<Integer, TransferPart> parts = new LinkedHashMap<>();
+        transferPartRepository.findByTransferIdOrderByPartNumber(transferId)
+                .forEach(part -> parts.put(part.getPartNumber(), part));
+        return parts;
+    }
+
+    public void recordPart(String transferId, String direction, int partNumber, long startByte, long endByte, String eTag, String checksum) {
+        TransferPart part = TransferPart.builder()
+                .partId(transferId + ":" + partNumber)
+                .transferId(transferId)
+                .direction(direction)
+                .partNumber(partNumber)
+                .startByte(startByte)
+                .endByte(endByte)
+                .eTag(eTag)
+                .checksum(checksum)
+                .completedTs(LocalDateTime.now())
+                .build();
+        transferPartRepository.save(part);
+        log.trace("Recorded transferred part. transferId={}, partNumber={}", transferId, partNumber);
+    }
+
+    public void clear(String transferId) {
+        transferPartRepository.deleteByTransferId(transferId);
+        log.debug("Cleared transferred parts. transferId={}", transferId);
+    }
+}
@@ -0,0 +1,167 @@
+package com.mastercard.ids.fts.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.zip.CRC32C;
+
+/**
+ * Computes every checksum a payload needs in a single pass over its bytes: the MD5 used by NGFT and S3 Content-MD5,
+ * and optionally one S3 additional checksum ({@code crc32c} or {@code sha256}). Digests are produced where the bytes
+ * are first read and passed along as a {@link PayloadDigest}, so no payload is hashed twice.
+ */
+@Slf4j
+@Component
+public class ChecksumEngine {
+
+    // Blocks small enough to stay in cache while every algorithm consumes them
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    private final String additionalAlgorithm;
+
+    public ChecksumEngine(@Value("${fts.transfer.checksum.additional-algorithm}") String additionalAlgorithm) {
+        this.additionalAlgorithm = additionalAlgorithm == null ? "none" : additionalAlgorithm.toLowerCase(Locale.ROOT);
+        if (!this.additionalAlgorithm.equals("none") && !this.additionalAlgorithm.equals("crc32c") && !this.additionalAlgorithm.equals("sha256")) {
+            throw new IllegalArgumentException("Unsupported additional checksum algorithm: " + additionalAlgorithm);
+        }
+        log.info("Checksum engine started. additionalAlgorithm={}", this.additionalAlgorithm);
+    }
+
+    public PayloadDigest digest(byte[] content) {
+        Digester digester = newDigester();
+        for (int offset = 0; offset < content.length; offset += BLOCK_SIZE) {
+            digester.update(content, offset, Math.min(BLOCK_SIZE, content.length - offset));
+        }
+        return digester.finish();
+    }
+
+    /**
+     * Digests the readable bytes of {@code content} without moving its position.
+     */
+    public PayloadDigest digest(ByteBuffer content) {
+        Digester digester = newDigester();
+        ByteBuffer view = content.duplicate();
+        while (view.hasRemaining()) {
+            ByteBuffer block = view.slice();
+            block.limit(Math.min(BLOCK_SIZE, view.remaining()));
+            digester.update(block);
+            view.position(view.position() + block.limit());
+        }
+        return digester.finish();
+    }
+
+    /**
+     * Wraps a stream so the payload is digested as it is read. Call {@link DigestingInputStream#digest()} once the
+     * stream has been consumed.
+     */
+    public DigestingInputStream digesting(InputStream in) {
+        return new DigestingInputStream(in, newDigester());
+    }
+
+    private Digester newDigester() {
+        try {
+            return new Digester(MessageDigest.getInstance("MD5"),
+                    additionalAlgorithm.equals("crc32c") ? new CRC32C() : null,
+                    additionalAlgorithm.equals("sha256") ? MessageDigest.getInstance("SHA-256") : null);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static final class DigestingInputStream extends FilterInputStream {
+
+        private final Digester digester;
+        private PayloadDigest digest;
+
+        private DigestingInputStream(InputStream in, Digester digester) {
+            super(in);
+            this.digester = digester;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                digester.update(new byte[]{(byte) b}, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                digester.update(b, off, read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) {
+            throw new UnsupportedOperationException("Skipping would leave bytes out of the digest");
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        /**
+         * The digest of everything read so far. Reading further after this is an error.
+         */
+        public PayloadDigest digest() {
+            if (digest == null) {
+                digest = digester.finish();
+            }
+            return digest;
+        }
+    }
+
+    private static final class Digester {
+
+        private final MessageDigest md5;
+        private final CRC32C crc32c;
+        private final MessageDigest sha256;
+
+        private Digester(MessageDigest md5, CRC32C crc32c, MessageDigest sha256) {
+            this.md5 = md5;
+            this.crc32c = crc32c;
+            this.sha256 = sha256;
+        }
+
+        private void update(byte[] bytes, int offset, int length) {
+            md5.update(bytes, offset, length);
+            if (crc32c != null) {
+                crc32c.update(bytes, offset, length);
+            }
+            if (sha256 != null) {
+                sha256.update(bytes, offset, length);
+            }
+        }
+
+        private void update(ByteBuffer block) {
+            md5.update(block.duplicate());
+            if (crc32c != null) {
+                crc32c.update(block.duplicate());
+            }
+            if (sha256 != null) {
+                sha256.update(block.duplicate());
+            }
+        }
+
+        private PayloadDigest finish() {
+            return new PayloadDigest(md5.digest(),
+                    crc32c != null ? Base64.getEncoder().encodeToString(ByteBuffer.allocate(4).putInt((int) crc32c.getValue()).array()) : null,
+                    sha256 != null ? Base64.getEncoder().encodeToString(sha256.digest()) : null);
+        }
+    }
+}
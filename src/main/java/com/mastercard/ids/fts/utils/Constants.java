@@ -5,4 +5,8 @@ public final class Constants {
     public static final String FILE_PROCESSING_STATUS_IN_PROGRESS = "InProgress";
     public static final String FILE_PROCESSING_STATUS_COMPLETED = "Completed";
     public static final String FILE_PROCESSING_STATUS_FAILED = "Failed";
+    // A file is aborted once its retry count reaches this value, see updateAsFailedAndIncrementRetry
+    public static final int MAX_RETRY_COUNT = 3;
+    public static final String TRANSFER_DIRECTION_INBOUND = "Inbound";
+    public static final String TRANSFER_DIRECTION_OUTBOUND = "Outbound";
 }
@@ -0,0 +1,58 @@
+package com.mastercard.ids.fts.utils;
+
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * The checksums of one payload, computed once by {@link ChecksumEngine} and handed along with the bytes. The
+ * additional checksums are only present when the engine is configured to compute them.
+ */
+public final class PayloadDigest {
+
+    private final byte[] md5;
+    private final String crc32c;
+    private final String sha256;
+
+    PayloadDigest(byte[] md5, String crc32c, String sha256) {
+        this.md5 = md5;
+        this.crc32c = crc32c;
+        this.sha256 = sha256;
+    }
+
+    /**
+     * MD5 as lower-case hex, as exchanged with NGFT in the x-mc-checksum headers.
+     */
+    public String md5Hex() {
+        return HexFormat.of().formatHex(md5);
+    }
+
+    /**
+     * MD5 as base64, as sent to S3 in Content-MD5.
+     */
+    public String md5Base64() {
+        return Base64.getEncoder().encodeToString(md5);
+    }
+
+    /**
+     * CRC32C as base64 for the S3 additional checksum, or null when not computed.
+     */
+    public String crc32cBase64() {
+        return crc32c;
+    }
+
+    /**
+     * SHA-256 as base64 for the S3 additional checksum, or null when not computed.
+     */
+    public String sha256Base64() {
+        return sha256;
+    }
+
+    public boolean matchesMd5Hex(String checksum) {
+        return checksum != null && md5Hex().equalsIgnoreCase(checksum);
+    }
+
+    @Override
+    public String toString() {
+        return "PayloadDigest(md5=" + md5Hex() + ", crc32c=" + crc32c + ", sha256=" + sha256 + ")";
+    }
+}
@@ -0,0 +1,19 @@
+package com.mastercard.ids.fts.utils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public final class TransferExecutors {
+    private TransferExecutors() {}
+
+    /**
+     * Creates the executor for blocking NGFT/S3 transfer work. With virtual threads every task gets its own thread and
+     * callers are expected to bound concurrency with semaphores; otherwise a fixed pool of {@code platformThreads}.
+     */
+    public static ExecutorService newTransferExecutor(String threadNamePrefix, int platformThreads, boolean virtualThreads) {
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadNamePrefix, 0).factory());
+        }
+        return Executors.newFixedThreadPool(platformThreads, Thread.ofPlatform().name(threadNamePrefix, 0).factory());
+    }
+}
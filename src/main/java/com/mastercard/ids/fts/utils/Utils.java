@@ -80,7 +80,10 @@ public class Utils {
         headers.set("x-mc-file-name", metadata.get("x-mc-file-name"));
         headers.set("x-mc-file-size", metadata.get("x-mc-file-size"));
         headers.set("x-mc-file-content-type", metadata.get("content-type"));
-        headers.set("x-mc-checksum", DigestUtils.md5DigestAsHex(fileData.getFileContent().get()));
+        // The S3 download already digested the content, only hash here when it did not
+        headers.set("x-mc-checksum", fileData.getDigest() != null
+                ? fileData.getDigest().md5Hex()
+                : DigestUtils.md5DigestAsHex(fileData.getFileContent().get()));
 //        headers.set("x-mc-checksum", "332d0acc96e83293068621362446d891");
 
         headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
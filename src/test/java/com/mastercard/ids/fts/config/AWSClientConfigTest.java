@@ -6,17 +6,21 @@ import org.mockito.Mockito;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.SdkHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.acm.AcmClient;
 import software.amazon.awssdk.services.acm.AcmClientBuilder;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3ClientBuilder;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClient;
 import software.amazon.awssdk.services.secretsmanager.SecretsManagerClientBuilder;
 import software.amazon.awssdk.services.sqs.SqsClient;
 import software.amazon.awssdk.services.sqs.SqsClientBuilder;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
 
 import java.net.URI;
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,11 +28,23 @@ import static org.mockito.Mockito.*;
 class AWSClientConfigTest {
     private AWSClientConfig config;
     private AWSProperties awsProperties;
+    private S3HttpClientProperties s3HttpProperties;
 
     @BeforeEach
     void setUp() {
         config = new AWSClientConfig();
         awsProperties = mock(AWSProperties.class);
+        s3HttpProperties = new S3HttpClientProperties();
+        s3HttpProperties.setClient("apache");
+        s3HttpProperties.setMaxConnections(64);
+        s3HttpProperties.setConnectionAcquisitionTimeout(Duration.ofSeconds(30));
+        s3HttpProperties.setConnectionTimeout(Duration.ofSeconds(5));
+        s3HttpProperties.setSocketTimeout(Duration.ofSeconds(60));
+        s3HttpProperties.setConnectionMaxIdleTime(Duration.ofSeconds(60));
+        s3HttpProperties.setTcpKeepAlive(true);
+        s3HttpProperties.setApiCallTimeout(Duration.ZERO);
+        s3HttpProperties.setApiCallAttemptTimeout(Duration.ZERO);
+        s3HttpProperties.setMetricsEnabled(true);
     }
 
     @Test
@@ -37,7 +53,7 @@ class AWSClientConfigTest {
         when(awsProperties.getEndpoint()).thenReturn("http://localhost:9000");
         when(awsProperties.getAccessKey()).thenReturn("access");
         when(awsProperties.getSecretKey()).thenReturn("secret");
-        S3Client client = config.s3Client(awsProperties);
+        S3Client client = config.s3Client(awsProperties, s3HttpProperties);
         assertNotNull(client);
     }
 
@@ -45,10 +61,34 @@ class AWSClientConfigTest {
     void s3Client_withoutEndpoint_shouldUseDefaultCredentials() {
         when(awsProperties.getRegion()).thenReturn("us-east-1");
         when(awsProperties.getEndpoint()).thenReturn(null);
-        S3Client client = config.s3Client(awsProperties);
+        S3Client client = config.s3Client(awsProperties, s3HttpProperties);
         assertNotNull(client);
     }
 
+    @Test
+    void s3Client_crt_shouldReturnClient() {
+        s3HttpProperties.setClient("crt");
+        when(awsProperties.getRegion()).thenReturn("us-east-1");
+        when(awsProperties.getEndpoint()).thenReturn(null);
+        try (S3Client client = config.s3Client(awsProperties, s3HttpProperties)) {
+            assertNotNull(client);
+        }
+    }
+
+    @Test
+    void crtHttpClientBuilder_shouldBuildCrtClient() {
+        try (SdkHttpClient httpClient = AWSClientConfig.crtHttpClientBuilder(s3HttpProperties).build()) {
+            assertEquals("AwsCommonRuntime", httpClient.clientName());
+        }
+    }
+
+    @Test
+    void apacheHttpClientBuilder_shouldBuildApacheClient() {
+        try (SdkHttpClient httpClient = AWSClientConfig.apacheHttpClientBuilder(s3HttpProperties).build()) {
+            assertEquals("Apache", httpClient.clientName());
+        }
+    }
+
     @Test
     void acmClient_withValidProps_shouldReturnClient() {
         when(awsProperties.getRegion()).thenReturn("us-east-1");
@@ -57,6 +97,40 @@ class AWSClientConfigTest {
         assertNotNull(client);
     }
 
+    @Test
+    void s3AsyncClient_netty_withEndpoint_shouldReturnClient() {
+        when(awsProperties.getRegion()).thenReturn("us-east-1");
+        when(awsProperties.getEndpoint()).thenReturn("http://localhost:9000");
+        when(awsProperties.getAccessKey()).thenReturn("access");
+        when(awsProperties.getSecretKey()).thenReturn("secret");
+        try (S3AsyncClient client = config.s3AsyncClient(awsProperties, s3HttpProperties, "netty", 16, 10, 8 * 1024 * 1024)) {
+            assertNotNull(client);
+        }
+    }
+
+    @Test
+    void s3AsyncClient_crt_shouldReturnClient() {
+        when(awsProperties.getRegion()).thenReturn("us-east-1");
+        when(awsProperties.getEndpoint()).thenReturn(null);
+        try (S3AsyncClient client = config.s3AsyncClient(awsProperties, s3HttpProperties, "crt", 16, 10, 8 * 1024 * 1024)) {
+            assertNotNull(client);
+        }
+    }
+
+    @Test
+    void s3TransferManager_crt_shouldReturnTransferManager() {
+        S3AsyncClient client = mock(S3AsyncClient.class);
+
+        try (S3TransferManager transferManager = config.s3TransferManager(client, "crt")) {
+            assertNotNull(transferManager);
+        }
+    }
+
+    @Test
+    void s3TransferManager_netty_shouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> config.s3TransferManager(mock(S3AsyncClient.class), "netty"));
+    }
+
     @Test
     void secretsManagerClient_withValidProps_shouldReturnClient() {
         when(awsProperties.getRegion()).thenReturn("us-east-1");
@@ -76,7 +150,7 @@ class AWSClientConfigTest {
     @Test
     void s3Client_withNullRegion_shouldThrowException() {
         when(awsProperties.getRegion()).thenReturn(null);
-        assertThrows(Exception.class, () -> config.s3Client(awsProperties));
+        assertThrows(Exception.class, () -> config.s3Client(awsProperties, s3HttpProperties));
     }
 
     @Test
@@ -85,7 +159,25 @@ class AWSClientConfigTest {
         when(awsProperties.getEndpoint()).thenReturn("not-a-uri");
         when(awsProperties.getAccessKey()).thenReturn("access");
         when(awsProperties.getSecretKey()).thenReturn("secret");
-        assertThrows(Exception.class, () -> config.s3Client(awsProperties));
+        assertThrows(Exception.class, () -> config.s3Client(awsProperties, s3HttpProperties));
     }
-}
 
+    @Test
+    void s3OverrideConfiguration_shouldSetTimeoutsAndMetricPublisher() {
+        s3HttpProperties.setApiCallTimeout(Duration.ofMinutes(10));
+        s3HttpProperties.setApiCallAttemptTimeout(Duration.ofMinutes(2));
+        ClientOverrideConfiguration configuration = AWSClientConfig.s3OverrideConfiguration(s3HttpProperties, "s3");
+        assertEquals(Duration.ofMinutes(10), configuration.apiCallTimeout().orElseThrow());
+        assertEquals(Duration.ofMinutes(2), configuration.apiCallAttemptTimeout().orElseThrow());
+        assertEquals(1, configuration.metricPublishers().size());
+    }
+
+    @Test
+    void s3OverrideConfiguration_shouldLeaveZeroTimeoutsUnset() {
+        s3HttpProperties.setMetricsEnabled(false);
+        ClientOverrideConfiguration configuration = AWSClientConfig.s3OverrideConfiguration(s3HttpProperties, "s3");
+        assertTrue(configuration.apiCallTimeout().isEmpty());
+        assertTrue(configuration.apiCallAttemptTimeout().isEmpty());
+        assertTrue(configuration.metricPublishers().isEmpty());
+    }
+}
@@ -1,34 +1,85 @@
 package com.mastercard.ids.fts.config;
 
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 
+import javax.net.ssl.SSLContext;
+
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class AppConfigTest {
     private final AppConfig config = new AppConfig();
 
+    @Test
+    void httpConnectionManager_shouldApplyPoolLimits() {
+        SSLConnectionSocketFactory socketFactory = mock(SSLConnectionSocketFactory.class);
+        PoolingHttpClientConnectionManager connectionManager = config.httpConnectionManager(socketFactory, properties());
+        assertEquals(40, connectionManager.getMaxTotal());
+        assertEquals(20, connectionManager.getDefaultMaxPerRoute());
+        assertEquals(0, connectionManager.getTotalStats().getLeased());
+        connectionManager.close();
+    }
+
     @Test
     void httpClient_shouldReturnNonNullClient() {
         SSLConnectionSocketFactory socketFactory = mock(SSLConnectionSocketFactory.class);
-        CloseableHttpClient client = config.httpClient(socketFactory);
+        NgftHttpClientProperties properties = properties();
+        CloseableHttpClient client = config.httpClient(config.httpConnectionManager(socketFactory, properties), properties);
         assertNotNull(client);
     }
 
     @Test
-    void restClient_shouldReturnNonNullRestClient() {
+    void restClient_shouldReturnNonNullRestClient() throws Exception {
         CloseableHttpClient httpClient = mock(CloseableHttpClient.class);
-        RestClient restClient = config.restClient(httpClient);
+        RestClient restClient = config.restClient(httpClient, SSLContext.getDefault(), properties());
         assertNotNull(restClient);
     }
 
+    @Test
+    void ngftRequestFactory_shouldUseHttpComponentsByDefault() throws Exception {
+        CloseableHttpClient httpClient = mock(CloseableHttpClient.class);
+        ClientHttpRequestFactory requestFactory = AppConfig.ngftRequestFactory(httpClient, SSLContext.getDefault(), properties());
+        assertInstanceOf(HttpComponentsClientHttpRequestFactory.class, requestFactory);
+    }
+
+    @Test
+    void ngftRequestFactory_shouldUseJdkClientForHttp2() throws Exception {
+        CloseableHttpClient httpClient = mock(CloseableHttpClient.class);
+        NgftHttpClientProperties properties = properties();
+        properties.setVersion("http2");
+        ClientHttpRequestFactory requestFactory = AppConfig.ngftRequestFactory(httpClient, SSLContext.getDefault(), properties);
+        assertInstanceOf(JdkClientHttpRequestFactory.class, requestFactory);
+    }
+
     @Test
     void restClientLocal_shouldReturnNonNullRestClient() {
         RestClient restClient = config.restClientLocal();
         assertNotNull(restClient);
     }
+
+    private static NgftHttpClientProperties properties() {
+        NgftHttpClientProperties properties = new NgftHttpClientProperties();
+        properties.setVersion("http1");
+        properties.setMaxTotal(40);
+        properties.setMaxPerRoute(20);
+        properties.setLeaseTimeout(Duration.ofSeconds(30));
+        properties.setIdleEviction(Duration.ofSeconds(30));
+        properties.setTimeToLive(Duration.ofMinutes(5));
+        properties.setValidateAfterInactivity(Duration.ofSeconds(2));
+        properties.setConnectTimeout(Duration.ofSeconds(10));
+        properties.setSocketTimeout(Duration.ofSeconds(60));
+        properties.setResponseTimeout(Duration.ofSeconds(120));
+        properties.setKeepAlive(Duration.ofSeconds(30));
+        return properties;
+    }
 }
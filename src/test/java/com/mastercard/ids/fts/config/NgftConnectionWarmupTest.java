@@ -0,0 +1,89 @@
+package com.mastercard.ids.fts.config;
+
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NgftConnectionWarmupTest {
+
+    private PoolingHttpClientConnectionManager connectionManager;
+    private NgftHttpClientProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        connectionManager = mock(PoolingHttpClientConnectionManager.class);
+        properties = new NgftHttpClientProperties();
+        properties.setVersion("http1");
+        properties.setMaxPerRoute(4);
+        properties.setKeepAlive(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void warmUp_opensConnectionsUpToPerRouteLimit() throws Exception {
+        ConnectionEndpoint endpoint = leasedEndpoint();
+        when(endpoint.isConnected()).thenReturn(false, true);
+        NgftConnectionWarmup warmup = warmup(true, 10);
+
+        assertEquals(4, warmup.warmUp());
+        verify(connectionManager, atLeastOnce()).connect(eq(endpoint), any(TimeValue.class), any(HttpContext.class));
+        verify(connectionManager, times(4)).lease(anyString(), eq(NgftConnectionWarmup.route(URI.create("https://ngft.example.com/api"))), any(Timeout.class), isNull());
+        verify(connectionManager, times(4)).release(eq(endpoint), isNull(), eq(TimeValue.ofSeconds(30)));
+    }
+
+    @Test
+    void warmUp_releasesFailedConnectionsAsNotReusable() throws Exception {
+        ConnectionEndpoint endpoint = leasedEndpoint();
+        doThrow(new IOException("handshake failed")).when(connectionManager).connect(any(), any(TimeValue.class), any(HttpContext.class));
+
+        assertEquals(0, warmup(true, 2).warmUp());
+        verify(connectionManager, times(2)).release(eq(endpoint), isNull(), eq(TimeValue.ZERO_MILLISECONDS));
+    }
+
+    @Test
+    void start_skipsWhenDisabled() {
+        NgftConnectionWarmup warmup = warmup(false, 4);
+        warmup.start();
+        assertTrue(warmup.isRunning());
+        verifyNoInteractions(connectionManager);
+    }
+
+    @Test
+    void start_skipsForHttp2Client() {
+        properties.setVersion("http2");
+        warmup(true, 4).start();
+        verifyNoInteractions(connectionManager);
+    }
+
+    @Test
+    void route_usesDefaultPortForScheme() {
+        HttpRoute route = NgftConnectionWarmup.route(URI.create("https://ngft.example.com/api"));
+        assertEquals(443, route.getTargetHost().getPort());
+        assertTrue(route.isSecure());
+    }
+
+    private ConnectionEndpoint leasedEndpoint() throws Exception {
+        ConnectionEndpoint endpoint = mock(ConnectionEndpoint.class);
+        LeaseRequest leaseRequest = mock(LeaseRequest.class);
+        when(leaseRequest.get(any(Timeout.class))).thenReturn(endpoint);
+        when(connectionManager.lease(anyString(), any(HttpRoute.class), any(Timeout.class), any())).thenReturn(leaseRequest);
+        return endpoint;
+    }
+
+    private NgftConnectionWarmup warmup(boolean enabled, int connections) {
+        return new NgftConnectionWarmup(connectionManager, properties, "https://ngft.example.com/api", enabled, connections, 5);
+    }
+}
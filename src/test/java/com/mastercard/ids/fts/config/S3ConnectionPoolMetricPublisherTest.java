@@ -0,0 +1,43 @@
+package com.mastercard.ids.fts.config;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollector;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class S3ConnectionPoolMetricPublisherTest {
+
+    @Test
+    void publish_recordsPoolStateFromNestedHttpClientCollection() {
+        MetricCollector apiCall = MetricCollector.create("ApiCall");
+        MetricCollector httpClient = apiCall.createChild("ApiCallAttempt").createChild("HttpClient");
+        httpClient.reportMetric(HttpMetric.LEASED_CONCURRENCY, 12);
+        httpClient.reportMetric(HttpMetric.PENDING_CONCURRENCY_ACQUIRES, 3);
+        httpClient.reportMetric(HttpMetric.AVAILABLE_CONCURRENCY, 0);
+        httpClient.reportMetric(HttpMetric.MAX_CONCURRENCY, 64);
+        httpClient.reportMetric(HttpMetric.CONCURRENCY_ACQUIRE_DURATION, Duration.ofMillis(250));
+
+        S3ConnectionPoolMetricPublisher publisher = new S3ConnectionPoolMetricPublisher("s3");
+        publisher.publish(apiCall.collect());
+
+        assertEquals(12, publisher.leased());
+        assertEquals(3, publisher.pending());
+        assertEquals(0, publisher.available());
+        assertEquals(64, publisher.max());
+    }
+
+    @Test
+    void publish_keepsLastValuesWhenAttemptReportsNoPoolState() {
+        MetricCollector first = MetricCollector.create("ApiCall");
+        first.createChild("ApiCallAttempt").createChild("HttpClient").reportMetric(HttpMetric.LEASED_CONCURRENCY, 5);
+        S3ConnectionPoolMetricPublisher publisher = new S3ConnectionPoolMetricPublisher("s3");
+        publisher.publish(first.collect());
+
+        publisher.publish(MetricCollector.create("ApiCall").collect());
+
+        assertEquals(5, publisher.leased());
+    }
+}
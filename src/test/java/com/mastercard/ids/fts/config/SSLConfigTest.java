@@ -63,6 +63,15 @@ class SSLConfigTest {
         assertTrue(sslContext.getProvider().getName().length() > 0);
     }
 
+    @Test
+    void testSslContextCreation_appliesSessionCacheSettings() throws Exception {
+        ReflectionTestUtils.setField(sslConfig, "sessionCacheSize", 500);
+        ReflectionTestUtils.setField(sslConfig, "sessionTimeoutSeconds", 3600);
+        SSLContext sslContext = sslConfig.sslContext();
+        assertEquals(500, sslContext.getClientSessionContext().getSessionCacheSize());
+        assertEquals(3600, sslContext.getClientSessionContext().getSessionTimeout());
+    }
+
     @Test
     void testSslConnectionSocketFactoryCreation_success() throws Exception {
         SSLContext sslContext = sslConfig.sslContext();
@@ -0,0 +1,29 @@
+package com.mastercard.ids.fts.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptivePollPolicyTest {
+
+    @Test
+    void backsOffUpToMaxAndResetsOnNewFiles() {
+        AdaptivePollPolicy policy = new AdaptivePollPolicy(Duration.ofMinutes(5), Duration.ofMinutes(30), 2.0);
+
+        assertEquals(Duration.ofMinutes(5), policy.currentInterval());
+        assertEquals(Duration.ofMinutes(10), policy.onPoll(0));
+        assertEquals(Duration.ofMinutes(20), policy.onPoll(0));
+        assertEquals(Duration.ofMinutes(30), policy.onPoll(0));
+        assertEquals(Duration.ofMinutes(30), policy.onPoll(0));
+        assertEquals(Duration.ofMinutes(5), policy.onPoll(2));
+    }
+
+    @Test
+    void maxBelowMinIsRaisedToMin() {
+        AdaptivePollPolicy policy = new AdaptivePollPolicy(Duration.ofMinutes(10), Duration.ofMinutes(5), 2.0);
+
+        assertEquals(Duration.ofMinutes(10), policy.onPoll(0));
+    }
+}
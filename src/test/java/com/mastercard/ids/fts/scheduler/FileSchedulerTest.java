@@ -1,21 +1,33 @@
 package com.mastercard.ids.fts.scheduler;
 
 import com.mastercard.ids.fts.service.FileSchedulerService;
+import com.mastercard.ids.fts.service.SchedulerLockService;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 
 public class FileSchedulerTest {
+    private final FileSchedulerService mockService = mock(FileSchedulerService.class);
+    private final SchedulerLockService lockService = mock(SchedulerLockService.class);
+    private final FileScheduler scheduler = new FileScheduler(mockService, lockService,
+            new AdaptivePollPolicy(Duration.ofMinutes(5), Duration.ofMinutes(60), 2.0), true);
+
     @Test
     void shouldInvokeFileSchedulerServiceWithValidParams() {
         // Arrange
-        FileSchedulerService mockService = mock(FileSchedulerService.class);
-        FileScheduler scheduler = new FileScheduler(mockService);
+        when(lockService.tryLock(FileScheduler.POLL_LOCK)).thenReturn(true);
 
         // Act
         scheduler.runFileDownloadJob();
@@ -24,7 +36,7 @@ public class FileSchedulerTest {
         ArgumentCaptor<String> idCaptor = ArgumentCaptor.forClass(String.class);
         ArgumentCaptor<LocalDateTime> tsCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
 
-        verify(mockService, times(1)).process(idCaptor.capture(), tsCaptor.capture());
+        verify(mockService, times(1)).process(idCaptor.capture(), tsCaptor.capture(), any());
 
         String capturedId = idCaptor.getValue();
         LocalDateTime capturedTs = tsCaptor.getValue();
@@ -32,5 +44,89 @@ public class FileSchedulerTest {
         assertNotNull(capturedId);
         assertFalse(capturedId.isEmpty());
         assertNotNull(capturedTs);
+        verify(lockService).unlock(FileScheduler.POLL_LOCK);
+    }
+
+    @Test
+    void shouldBackOffWhenNoFilesAndAccelerateWhenFilesArrive() {
+        when(lockService.tryLock(FileScheduler.POLL_LOCK)).thenReturn(true);
+        when(mockService.process(anyString(), any(), any())).thenReturn(0, 0, 3);
+
+        scheduler.runFileDownloadJob();
+        scheduler.runFileDownloadJob();
+        scheduler.runFileDownloadJob();
+
+        verify(mockService).recordPollDecision(anyString(), any(), eq("BackOff"), eq(Duration.ofMinutes(10)));
+        verify(mockService).recordPollDecision(anyString(), any(), eq("BackOff"), eq(Duration.ofMinutes(20)));
+        verify(mockService).recordPollDecision(anyString(), any(), eq("Accelerate"), eq(Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void shouldSkipPollWhenAnotherInstanceHoldsTheLock() {
+        when(lockService.tryLock(FileScheduler.POLL_LOCK)).thenReturn(false);
+
+        scheduler.runFileDownloadJob();
+
+        verify(mockService, never()).process(anyString(), any(), any());
+        verify(lockService, never()).unlock(anyString());
+        verify(mockService).recordPollDecision(anyString(), any(), eq("Skipped"), eq(Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void shouldReleaseLockOnceListedBeforeTransfersFinish() {
+        when(lockService.tryLock(FileScheduler.POLL_LOCK)).thenReturn(true);
+        when(mockService.process(anyString(), any(), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(2).run();
+            // Transfers are still running here, the lock is already free for the next instance to list
+            verify(lockService).unlock(FileScheduler.POLL_LOCK);
+            return 1;
+        });
+
+        scheduler.runFileDownloadJob();
+
+        verify(lockService, times(1)).unlock(FileScheduler.POLL_LOCK);
+    }
+
+    @Test
+    void shouldHoldLockUntilTransfersFinishWithoutLeases() {
+        FileScheduler withoutLeases = new FileScheduler(mockService, lockService,
+                new AdaptivePollPolicy(Duration.ofMinutes(5), Duration.ofMinutes(60), 2.0), false);
+        when(lockService.tryLock(FileScheduler.POLL_LOCK)).thenReturn(true);
+        when(mockService.process(anyString(), any(), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(2).run();
+            // Nothing but the lock keeps another instance from claiming the files in flight
+            verify(lockService, never()).unlock(anyString());
+            return 1;
+        });
+
+        withoutLeases.runFileDownloadJob();
+
+        verify(lockService, times(1)).unlock(FileScheduler.POLL_LOCK);
+    }
+
+    @Test
+    void shouldPollAtStartupThenAfterTheInterval() {
+        ScheduledTaskRegistrar registrar = new ScheduledTaskRegistrar();
+        scheduler.configureTasks(registrar);
+        Trigger trigger = registrar.getTriggerTaskList().get(0).getTrigger();
+        Instant before = Instant.now();
+
+        Instant first = trigger.nextExecution(new SimpleTriggerContext());
+        Instant completed = Instant.parse("2026-01-01T00:00:00Z");
+        Instant next = trigger.nextExecution(new SimpleTriggerContext(completed, completed, completed));
+
+        assertFalse(first.isAfter(Instant.now()));
+        assertFalse(first.isBefore(before));
+        assertEquals(completed.plus(Duration.ofMinutes(5)), next);
+    }
+
+    @Test
+    void shouldReleaseLockWhenPollThrows() {
+        when(lockService.tryLock(FileScheduler.POLL_LOCK)).thenReturn(true);
+        when(mockService.process(anyString(), any(), any())).thenThrow(new RuntimeException("fail"));
+
+        assertDoesNotThrow(scheduler::runFileDownloadJob);
+
+        verify(lockService).unlock(FileScheduler.POLL_LOCK);
     }
 }
@@ -0,0 +1,28 @@
+package com.mastercard.ids.fts.scheduler;
+
+import com.mastercard.ids.fts.service.OutboundFileListProcessor;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class OutboundSweepSchedulerTest {
+    @Test
+    void shouldRetryNotCompletedOutboundFiles() {
+        OutboundFileListProcessor processor = mock(OutboundFileListProcessor.class);
+        OutboundSweepScheduler scheduler = new OutboundSweepScheduler(processor);
+
+        scheduler.runOutboundSweep();
+
+        verify(processor, times(1)).retryNotCompletedFiles();
+    }
+
+    @Test
+    void shouldNotPropagateSweepFailures() {
+        OutboundFileListProcessor processor = mock(OutboundFileListProcessor.class);
+        when(processor.retryNotCompletedFiles()).thenThrow(new RuntimeException("db down"));
+        OutboundSweepScheduler scheduler = new OutboundSweepScheduler(processor);
+
+        assertDoesNotThrow(scheduler::runOutboundSweep);
+    }
+}
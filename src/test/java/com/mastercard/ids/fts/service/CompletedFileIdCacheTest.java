@@ -0,0 +1,95 @@
+package com.mastercard.ids.fts.service;
+
+import com.mastercard.ids.fts.repository.FileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class CompletedFileIdCacheTest {
+
+    @Mock
+    private FileRepository fileRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void findCompleted_disabled_looksUpEveryIdInBatches() {
+        CompletedFileIdCache cache = new CompletedFileIdCache(fileRepository, false, 1000, 0.01, 1000);
+        List<String> ids = ids(0, 1500);
+        when(fileRepository.findCompletedFileIdsIn(anyCollection())).thenReturn(List.of("3"));
+
+        assertEquals(Set.of("3"), cache.findCompleted(ids));
+
+        verify(fileRepository).findCompletedFileIdsIn(ids.subList(0, 1000));
+        verify(fileRepository).findCompletedFileIdsIn(ids.subList(1000, 1500));
+        verify(fileRepository, never()).findCompletedFileIds();
+    }
+
+    @Test
+    void findCompleted_confirmsOnlyPossibleHits() {
+        CompletedFileIdCache cache = new CompletedFileIdCache(fileRepository, true, 1000, 0.001, 1000);
+        when(fileRepository.findCompletedFileIds()).thenReturn(List.of("a", "b"));
+        when(fileRepository.findCompletedFileIdsIn(anyCollection())).thenReturn(List.of("a", "b"));
+
+        assertEquals(Set.of("a", "b"), cache.findCompleted(List.of("a", "b", "new-1", "new-2")));
+        verify(fileRepository).findCompletedFileIdsIn(List.of("a", "b"));
+
+        // Confirmed IDs are answered from memory on the next poll
+        assertEquals(Set.of("a", "b"), cache.findCompleted(List.of("a", "b", "new-3")));
+        verify(fileRepository, times(1)).findCompletedFileIdsIn(anyCollection());
+        verify(fileRepository, times(1)).findCompletedFileIds();
+    }
+
+    @Test
+    void markCompleted_isSeenWithoutDatabaseLookup() {
+        CompletedFileIdCache cache = new CompletedFileIdCache(fileRepository, true, 1000, 0.01, 1000);
+        when(fileRepository.findCompletedFileIds()).thenReturn(List.of());
+
+        assertEquals(Set.of(), cache.findCompleted(List.of("x")));
+        cache.markCompleted("x");
+
+        assertEquals(Set.of("x"), cache.findCompleted(List.of("x")));
+        verify(fileRepository, never()).findCompletedFileIdsIn(anyCollection());
+    }
+
+    @Test
+    void findCompleted_fallsBackToDatabaseWhenFilterCannotLoad() {
+        CompletedFileIdCache cache = new CompletedFileIdCache(fileRepository, true, 1000, 0.01, 1000);
+        when(fileRepository.findCompletedFileIds()).thenThrow(new RuntimeException("db down"));
+        when(fileRepository.findCompletedFileIdsIn(anyCollection())).thenReturn(List.of("a"));
+
+        assertEquals(Set.of("a"), cache.findCompleted(List.of("a", "b")));
+        verify(fileRepository).findCompletedFileIdsIn(List.of("a", "b"));
+    }
+
+    @Test
+    void bloomFilter_hasNoFalseNegativesAndFewFalsePositives() {
+        CompletedFileIdCache.BloomFilter filter = new CompletedFileIdCache.BloomFilter(10_000, 0.01);
+        List<String> added = ids(0, 10_000);
+        added.forEach(filter::put);
+
+        assertTrue(added.stream().allMatch(filter::mightContain));
+        long falsePositives = ids(10_000, 20_000).stream().filter(filter::mightContain).count();
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    private static List<String> ids(int from, int to) {
+        List<String> ids = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            ids.add(String.valueOf(i));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,131 @@
+package com.mastercard.ids.fts.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileListPageFetcherTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void fetchPages_returnsPagesInOrder() {
+        FileListPageFetcher fetcher = new FileListPageFetcher(executor, 3);
+
+        List<String> pages = fetcher.fetchPages(2, 6, page -> {
+            sleep((7 - page) * 10L); // later pages finish first
+            return "page-" + page;
+        });
+
+        assertEquals(List.of("page-2", "page-3", "page-4", "page-5", "page-6"), pages);
+    }
+
+    @Test
+    void fetchPages_boundsPagesInFlight() {
+        FileListPageFetcher fetcher = new FileListPageFetcher(executor, 2);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        fetcher.fetchPages(1, 8, page -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            sleep(20);
+            inFlight.decrementAndGet();
+            return page;
+        });
+
+        assertTrue(maxInFlight.get() <= 2);
+    }
+
+    @Test
+    void fetchPages_emptyRange() {
+        FileListPageFetcher fetcher = new FileListPageFetcher(executor, 2);
+
+        assertEquals(List.of(), fetcher.fetchPages(2, 1, page -> page));
+    }
+
+    @Test
+    void fetchPages_failureStopsSubmittingAndRethrows() {
+        FileListPageFetcher fetcher = new FileListPageFetcher(executor, 1);
+        List<Integer> fetched = new CopyOnWriteArrayList<>();
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> fetcher.fetchPages(1, 10, page -> {
+            fetched.add(page);
+            if (page == 2) {
+                throw new RuntimeException("page failed");
+            }
+            return page;
+        }));
+
+        assertEquals("page failed", e.getMessage());
+        assertTrue(fetched.size() < 10);
+    }
+
+    @Test
+    void streamPages_consumesEveryPageOnCallingThread() {
+        FileListPageFetcher fetcher = new FileListPageFetcher(executor, 3);
+        List<Integer> consumed = new CopyOnWriteArrayList<>();
+        Thread caller = Thread.currentThread();
+
+        fetcher.streamPages(2, 7, page -> {
+            sleep((8 - page) * 10L);
+            return page;
+        }, page -> {
+            assertSame(caller, Thread.currentThread());
+            consumed.add(page);
+        });
+
+        assertEquals(List.of(2, 3, 4, 5, 6, 7), consumed.stream().sorted().toList());
+    }
+
+    @Test
+    void streamPages_consumerFailureStopsAndRethrows() {
+        FileListPageFetcher fetcher = new FileListPageFetcher(executor, 1);
+        List<Integer> fetched = new CopyOnWriteArrayList<>();
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> fetcher.streamPages(1, 10, page -> {
+            fetched.add(page);
+            return page;
+        }, page -> {
+            if (page == 2) {
+                throw new RuntimeException("save failed");
+            }
+        }));
+
+        assertEquals("save failed", e.getMessage());
+        assertTrue(fetched.size() < 10);
+    }
+
+    @Test
+    void streamPages_fetchFailureRethrows() {
+        FileListPageFetcher fetcher = new FileListPageFetcher(executor, 2);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> fetcher.streamPages(1, 4, page -> {
+            if (page == 3) {
+                throw new RuntimeException("page failed");
+            }
+            return page;
+        }, page -> { }));
+
+        assertEquals("page failed", e.getMessage());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -7,8 +7,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,14 +30,14 @@ class FileSchedulerServiceTest {
     @Test
     void process_shouldHandleNoFilesFound_nullList() {
         when(ngftService.retrieveFileList()).thenReturn(null);
-        service.process("inv1", LocalDateTime.now());
+        service.process("inv1", LocalDateTime.now(), () -> {});
         verify(schedulerRepository).save(any(SchedulerLog.class));
     }
 
     @Test
     void process_shouldHandleNoFilesFound_emptyList() {
         when(ngftService.retrieveFileList()).thenReturn(List.of());
-        service.process("inv1", LocalDateTime.now());
+        service.process("inv1", LocalDateTime.now(), () -> {});
         verify(schedulerRepository).save(any(SchedulerLog.class));
     }
 
@@ -43,18 +45,83 @@ class FileSchedulerServiceTest {
     void process_shouldHandleFilesFoundAndProcessed() {
         FileInfo file = new FileInfo();
         when(ngftService.retrieveFileList()).thenReturn(List.of(file));
-        when(inboundFileListProcessor.process(anyString(), anyList())).thenReturn(List.of(file));
-        service.process("inv1", LocalDateTime.now());
+        when(inboundFileListProcessor.process(anyString(), anyList(), any())).thenReturn(List.of(file));
+        service.process("inv1", LocalDateTime.now(), () -> {});
         verify(schedulerRepository).save(any(SchedulerLog.class));
     }
 
     @Test
     void process_shouldHandleExceptionAndLogFailed() {
         when(ngftService.retrieveFileList()).thenThrow(new RuntimeException("fail"));
-        service.process("inv1", LocalDateTime.now());
+        service.process("inv1", LocalDateTime.now(), () -> {});
         verify(schedulerRepository).save(any(SchedulerLog.class));
     }
 
+    @Test
+    void process_streaming_handsPagesToRunAndLogsProcessedCount() throws Exception {
+        setStreamingListing(true);
+        InboundFileListProcessor.StreamingRun run = mock(InboundFileListProcessor.StreamingRun.class);
+        when(inboundFileListProcessor.startStreamingRun("inv1")).thenReturn(run);
+        when(ngftService.retrieveFileList(any())).thenReturn(3);
+        when(run.finish(any())).thenReturn(List.of(new FileInfo(), new FileInfo()));
+
+        service.process("inv1", LocalDateTime.now(), () -> {});
+
+        verify(ngftService, never()).retrieveFileList();
+        verify(run).finish(any());
+        verify(schedulerRepository).save(argThat(log -> log.getStatus().equals("Success") && log.getTotalFileCount() == 2));
+    }
+
+    @Test
+    void process_streaming_logsListedCountOnFailure() throws Exception {
+        setStreamingListing(true);
+        InboundFileListProcessor.StreamingRun run = mock(InboundFileListProcessor.StreamingRun.class);
+        when(inboundFileListProcessor.startStreamingRun("inv1")).thenReturn(run);
+        when(ngftService.retrieveFileList(any())).thenThrow(new RuntimeException("fail"));
+        when(run.listedCount()).thenReturn(4);
+
+        service.process("inv1", LocalDateTime.now(), () -> {});
+
+        verify(run, never()).finish(any());
+        verify(schedulerRepository).save(argThat(log -> log.getStatus().equals("Failed") && log.getTotalFileCount() == 4));
+    }
+
+    @Test
+    void recordPollDecision_updatesRunLog() {
+        SchedulerLog run = SchedulerLog.builder().invocationId("inv1").status("Success").totalFileCount(2).build();
+        when(schedulerRepository.findById("inv1")).thenReturn(Optional.of(run));
+
+        service.recordPollDecision("inv1", LocalDateTime.now(), "Accelerate", Duration.ofMinutes(5));
+
+        verify(schedulerRepository).save(argThat(log -> log.getStatus().equals("Success")
+                && log.getPollDecision().equals("Accelerate") && log.getNextPollDelaySeconds() == 300L));
+    }
+
+    @Test
+    void recordPollDecision_logsSkippedPoll() {
+        when(schedulerRepository.findById("inv1")).thenReturn(Optional.empty());
+
+        service.recordPollDecision("inv1", LocalDateTime.now(), "Skipped", Duration.ofMinutes(5));
+
+        verify(schedulerRepository).save(argThat(log -> log.getStatus().equals("Skipped") && log.getTotalFileCount() == 0
+                && log.getPollDecision().equals("Skipped")));
+    }
+
+    @Test
+    void process_returnsNewFileCount() {
+        FileInfo file = new FileInfo();
+        when(ngftService.retrieveFileList()).thenReturn(List.of(file, file));
+        when(inboundFileListProcessor.process(anyString(), anyList(), any())).thenReturn(List.of(file));
+
+        assertEquals(1, service.process("inv1", LocalDateTime.now(), () -> {}));
+    }
+
+    private void setStreamingListing(boolean value) throws Exception {
+        var field = FileSchedulerService.class.getDeclaredField("streamingListing");
+        field.setAccessible(true);
+        field.set(service, value);
+    }
+
     @Test
     void saveSchedulerLog_shouldSaveCorrectly() {
         LocalDateTime now = LocalDateTime.now();
@@ -0,0 +1,51 @@
+package com.mastercard.ids.fts.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileTransferExecutorTest {
+
+    @Test
+    void submit_boundsFilesInFlightOnVirtualThreads() {
+        FileTransferExecutor executor = new FileTransferExecutor(Executors.newVirtualThreadPerTaskExecutor(), 3);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        List<CompletableFuture<Boolean>> futures = IntStream.range(0, 20)
+                .mapToObj(i -> executor.submit(() -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    inFlight.decrementAndGet();
+                    return Thread.currentThread().isVirtual();
+                }))
+                .toList();
+
+        assertTrue(futures.stream().allMatch(CompletableFuture::join));
+        assertTrue(maxInFlight.get() <= 3, "Expected at most 3 files in flight but saw " + maxInFlight.get());
+        executor.destroy();
+    }
+
+    @Test
+    void submit_releasesPermitOnFailure() {
+        FileTransferExecutor executor = new FileTransferExecutor(Executors.newFixedThreadPool(1), 1);
+
+        CompletableFuture<String> failed = executor.submit(() -> {
+            throw new RuntimeException("fail");
+        });
+
+        assertThrows(RuntimeException.class, failed::join);
+        assertEquals("ok", executor.submit(() -> "ok").join());
+        executor.destroy();
+    }
+}
@@ -0,0 +1,189 @@
+package com.mastercard.ids.fts.service;
+
+import com.mastercard.ids.fts.model.FileInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InboundDispatchQueueTest {
+
+    private static final long LARGE = 1_000L;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void largeFilesTakeAtMostTheirSlots() throws Exception {
+        InboundDispatchQueue queue = queue(3, 1, Long.MAX_VALUE, "");
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> started = new CopyOnWriteArrayList<>();
+        List<CompletableFuture<String>> transfers = new ArrayList<>();
+
+        transfers.add(queue.submit(file("big-1", 5_000, null), blocking("big-1", started, release)));
+        transfers.add(queue.submit(file("big-2", 5_000, null), blocking("big-2", started, release)));
+        transfers.add(queue.submit(file("small-1", 10, null), blocking("small-1", started, release)));
+        transfers.add(queue.submit(file("small-2", 10, null), blocking("small-2", started, release)));
+
+        waitFor(() -> started.size() == 3);
+        assertEquals(List.of("big-1", "small-1", "small-2"), started.stream().sorted().toList());
+        assertEquals(1, queue.queued());
+
+        release.countDown();
+        CompletableFuture.allOf(transfers.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        assertTrue(started.contains("big-2"));
+    }
+
+    @Test
+    void profilePriorityAndSizeOrderQueuedFiles() throws Exception {
+        InboundDispatchQueue queue = queue(1, 1, Long.MAX_VALUE, "URGENT:10");
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> started = new CopyOnWriteArrayList<>();
+        List<CompletableFuture<String>> transfers = new ArrayList<>();
+
+        transfers.add(queue.submit(file("first", 10, null), blocking("first", started, release)));
+        transfers.add(queue.submit(file("bigger", 50, null), blocking("bigger", started, release)));
+        transfers.add(queue.submit(file("smaller", 20, null), blocking("smaller", started, release)));
+        transfers.add(queue.submit(file("urgent", 90, "URGENT"), blocking("urgent", started, release)));
+
+        release.countDown();
+        CompletableFuture.allOf(transfers.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("first", "urgent", "smaller", "bigger"), started);
+    }
+
+    @Test
+    void largeFileBytesInFlightAreCapped() throws Exception {
+        InboundDispatchQueue queue = queue(4, 4, 3_500, "");
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> started = new CopyOnWriteArrayList<>();
+        List<CompletableFuture<String>> transfers = new ArrayList<>();
+
+        transfers.add(queue.submit(file("a", 2_000, null), blocking("a", started, release)));
+        transfers.add(queue.submit(file("b", 2_000, null), blocking("b", started, release)));
+        transfers.add(queue.submit(file("c", 1_500, null), blocking("c", started, release)));
+
+        waitFor(() -> started.size() == 2);
+        assertEquals(List.of("a", "c"), started.stream().sorted().toList());
+
+        release.countDown();
+        CompletableFuture.allOf(transfers.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        assertEquals(3, started.size());
+    }
+
+    @Test
+    void smallFileStartsWhileLargeFilesFillTheByteBudget() throws Exception {
+        InboundDispatchQueue queue = queue(4, 2, 2_000, "");
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> started = new CopyOnWriteArrayList<>();
+        List<CompletableFuture<String>> transfers = new ArrayList<>();
+
+        transfers.add(queue.submit(file("big-1", 2_000, null), blocking("big-1", started, release)));
+        transfers.add(queue.submit(file("big-2", 1_500, null), blocking("big-2", started, release)));
+        transfers.add(queue.submit(file("small", 10, null), blocking("small", started, release)));
+
+        waitFor(() -> started.size() == 2);
+        assertEquals(List.of("big-1", "small"), started.stream().sorted().toList());
+        assertEquals(1, queue.queued());
+
+        release.countDown();
+        CompletableFuture.allOf(transfers.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        assertEquals(3, started.size());
+    }
+
+    @Test
+    void fileLargerThanByteBudgetRunsAlone() throws Exception {
+        InboundDispatchQueue queue = queue(2, 2, 100, "");
+
+        assertEquals("huge", queue.submit(file("huge", 5_000, null), () -> "huge").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void claimWindowsSplitTheFreeSlotsByLane() throws Exception {
+        InboundDispatchQueue queue = queue(4, 2, 3_000, "");
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> started = new CopyOnWriteArrayList<>();
+
+        assertEquals(new InboundDispatchQueue.ClaimWindow(LARGE, Long.MAX_VALUE, 2, 3_000, true), queue.largeFileWindow(32));
+        CompletableFuture<String> big = queue.submit(file("big", 2_000, null), blocking("big", started, release));
+        waitFor(() -> started.size() == 1);
+
+        // One large slot and 1,000 bytes of budget left; small files may take every free slot
+        assertEquals(new InboundDispatchQueue.ClaimWindow(LARGE, Long.MAX_VALUE, 1, 1_000, false), queue.largeFileWindow(32));
+        assertEquals(new InboundDispatchQueue.ClaimWindow(-1, LARGE, 3, Long.MAX_VALUE, false), queue.smallFileWindow(32));
+        assertEquals(2, queue.smallFileWindow(2).files());
+
+        release.countDown();
+        big.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void failedTransferFreesItsSlot() throws Exception {
+        InboundDispatchQueue queue = queue(1, 1, Long.MAX_VALUE, "");
+        AtomicInteger runs = new AtomicInteger();
+
+        CompletableFuture<String> failed = queue.submit(file("a", 10, null), () -> {
+            runs.incrementAndGet();
+            throw new RuntimeException("transfer failed");
+        });
+        CompletableFuture<String> next = queue.submit(file("b", 10, null), () -> {
+            runs.incrementAndGet();
+            return "b";
+        });
+
+        assertThrows(Exception.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertEquals("b", next.get(5, TimeUnit.SECONDS));
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void invalidProfilePrioritiesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> queue(1, 1, 100, "URGENT"));
+    }
+
+    private InboundDispatchQueue queue(int maxConcurrency, int largeFileSlots, long maxBytesInFlight, String priorities) {
+        return new InboundDispatchQueue(new FileTransferExecutor(executor, maxConcurrency), maxConcurrency, largeFileSlots,
+                LARGE, maxBytesInFlight, priorities);
+    }
+
+    private static FileInfo file(String id, long size, String profile) {
+        FileInfo fileInfo = new FileInfo();
+        fileInfo.setId(id);
+        fileInfo.setSize(size);
+        fileInfo.setFileProfile(profile);
+        return fileInfo;
+    }
+
+    private static java.util.function.Supplier<String> blocking(String id, List<String> started, CountDownLatch release) {
+        return () -> {
+            started.add(id);
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return id;
+        };
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
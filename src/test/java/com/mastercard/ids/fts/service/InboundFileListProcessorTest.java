@@ -6,9 +6,14 @@ import com.mastercard.ids.fts.utils.Utils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.data.domain.Pageable;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -18,15 +23,21 @@ class InboundFileListProcessorTest {
     @Mock FileRepository fileRepository;
     @Mock Utils utils;
     @Mock FileTransferService fileTransferService;
+    TransferLeaseService transferLeaseService;
     @InjectMocks InboundFileListProcessor processor;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        processor = new InboundFileListProcessor(fileTransferServiceFactory, fileRepository, utils);
+        transferLeaseService = spy(new TransferLeaseService(fileRepository, null, null, false, Duration.ofMinutes(15), "test"));
+        processor = new InboundFileListProcessor(fileTransferServiceFactory, fileRepository, utils,
+                new InboundDispatchQueue(new FileTransferExecutor(Executors.newFixedThreadPool(2), 2), 2, 1, 100L, Long.MAX_VALUE, ""),
+                new CompletedFileIdCache(fileRepository, false, 1000, 0.01, 1000),
+                transferLeaseService);
         // Set @Value fields via reflection
         setField("ftsReceiverLogicalAddress", "receiver");
         setField("ftsSenderLogicalAddress", "sender");
+        setField("leaseBatchSize", 32);
     }
     private void setField(String name, Object value) {
         try {
@@ -39,46 +50,248 @@ class InboundFileListProcessorTest {
     @Test
     void process_returnsEmpty_whenAllFilesProcessed() {
         FileInfo file = new FileInfo(); file.setId("1"); file.setName("file.csv");
-        when(fileRepository.findExistingCompletedFileIds()).thenReturn(List.of("1"));
-        List<FileInfo> result = processor.process("inv1", List.of(file));
+        when(fileRepository.findCompletedFileIdsIn(anyCollection())).thenReturn(List.of("1"));
+        List<FileInfo> result = processor.process("inv1", List.of(file), () -> {});
         assertTrue(result.isEmpty());
     }
 
     @Test
     void process_returnsEmpty_whenNoValidFileTypes() {
         FileInfo file = new FileInfo(); file.setId("1"); file.setName("file.txt");
-        when(fileRepository.findExistingCompletedFileIds()).thenReturn(List.of());
+        when(fileRepository.findCompletedFileIdsIn(anyCollection())).thenReturn(List.of());
         when(utils.getFileExtension(any())).thenReturn("txt"); // Fix: mock file extension
-        List<FileInfo> result = processor.process("inv1", List.of(file));
+        List<FileInfo> result = processor.process("inv1", List.of(file), () -> {});
         assertTrue(result.isEmpty());
     }
 
     @Test
     void process_savesAndProcessesValidFiles() {
         FileInfo file = new FileInfo(); file.setId("1"); file.setName("file.csv"); file.setSize(10L); file.setCreatedDate(LocalDateTime.now().toString());
-        when(fileRepository.findExistingCompletedFileIds()).thenReturn(List.of());
+        when(fileRepository.findCompletedFileIdsIn(anyCollection())).thenReturn(List.of());
         when(utils.getFileExtension(any())).thenReturn("csv");
         when(fileRepository.saveAll(any())).thenReturn(List.of());
         InboundFile inboundFile = InboundFile.builder().fileId("1").fileName("file.csv").fileSize(10L).fileCreatedDate(LocalDateTime.now()).fileDownloadStatus("PENDING").fileDownloadTs(LocalDateTime.now()).build();
-        when(fileRepository.findNotCompletedFiles()).thenReturn(List.of(inboundFile));
+        claimable(() -> List.of(inboundFile));
         when(fileTransferServiceFactory.getService(anyLong())).thenReturn(fileTransferService);
         when(fileTransferService.transferInbound(any())).thenReturn(CompletableFuture.completedFuture("ok"));
-        List<FileInfo> result = processor.process("inv1", List.of(file));
+        List<FileInfo> result = processor.process("inv1", List.of(file), () -> {});
         assertEquals(1, result.size());
     }
 
+    @Test
+    void streamingRun_dispatchesEachPageAndSkipsDuplicatesAndCompleted() {
+        when(fileRepository.findCompletedFileIdsIn(anyCollection())).thenReturn(List.of("2"));
+        when(utils.getFileExtension(any())).thenReturn("csv");
+        List<InboundFile> saved = new ArrayList<>();
+        when(fileRepository.saveAll(any())).thenAnswer(invocation -> {
+            saved.addAll(invocation.getArgument(0));
+            return List.of();
+        });
+        claimable(() -> List.copyOf(saved));
+        when(fileTransferServiceFactory.getService(anyLong())).thenReturn(fileTransferService);
+        when(fileTransferService.transferInbound(any())).thenReturn(CompletableFuture.completedFuture("ok"));
+
+        InboundFileListProcessor.StreamingRun run = processor.startStreamingRun("inv1");
+        run.acceptPage(List.of(fileInfo("1"), fileInfo("2")));
+        run.acceptPage(List.of(fileInfo("1"), fileInfo("3")));
+        List<FileInfo> result = run.finish(() -> {});
+
+        assertEquals(List.of("1", "3"), result.stream().map(FileInfo::getId).toList());
+        assertEquals(3, run.listedCount());
+        verify(fileRepository, times(2)).saveAll(any());
+        verify(fileRepository).findCompletedFileIdsIn(List.of("1", "2"));
+        verify(fileRepository).findCompletedFileIdsIn(List.of("3"));
+        verify(fileTransferService, times(2)).transferInbound(any());
+    }
+
+    @Test
+    void streamingRun_finishDispatchesNotCompletedFilesNotAlreadyDispatched() {
+        when(fileRepository.findCompletedFileIdsIn(anyCollection())).thenReturn(List.of());
+        when(utils.getFileExtension(any())).thenReturn("csv");
+        InboundFile pending = InboundFile.builder().fileId("1").fileName("file.csv").fileSize(10L).fileCreatedDate(LocalDateTime.now()).fileDownloadStatus("PENDING").fileDownloadTs(LocalDateTime.now()).build();
+        InboundFile leftOver = InboundFile.builder().fileId("9").fileName("old.csv").fileSize(10L).fileCreatedDate(LocalDateTime.now()).fileDownloadStatus("FAILED").fileDownloadTs(LocalDateTime.now()).build();
+        claimable(() -> List.of(pending, leftOver));
+        when(fileTransferServiceFactory.getService(anyLong())).thenReturn(fileTransferService);
+        List<String> transferred = Collections.synchronizedList(new ArrayList<>());
+        when(fileTransferService.transferInbound(any())).thenAnswer(invocation -> {
+            transferred.add(((FileDownloadRequest) invocation.getArgument(0)).getFileInfo().getId());
+            return CompletableFuture.completedFuture("ok");
+        });
+
+        InboundFileListProcessor.StreamingRun run = processor.startStreamingRun("inv1");
+        run.acceptPage(List.of(fileInfo("1")));
+        run.finish(() -> {});
+
+        assertEquals(List.of("1", "9"), transferred.stream().sorted().toList());
+    }
+
+    @Test
+    void process_insertsOnlyUnrecordedFilesOnce() {
+        when(fileRepository.findCompletedFileIdsIn(anyCollection())).thenReturn(List.of());
+        when(utils.getFileExtension(any())).thenReturn("csv");
+        when(fileRepository.findExistingFileIdsIn(anyCollection())).thenReturn(List.of("2"));
+        claimable(List::of);
+
+        processor.process("inv1", List.of(fileInfo("1"), fileInfo("2"), fileInfo("1")), () -> {});
+
+        verify(fileRepository).findExistingFileIdsIn(List.of("1", "2"));
+        verify(fileRepository).saveAll(argThat((List<InboundFile> files) ->
+                files.size() == 1 && files.get(0).getFileId().equals("1") && files.get(0).isNew()));
+    }
+
+    @Test
+    void process_skipsSaveWhenAllFilesRecorded() {
+        when(fileRepository.findCompletedFileIdsIn(anyCollection())).thenReturn(List.of());
+        when(utils.getFileExtension(any())).thenReturn("csv");
+        when(fileRepository.findExistingFileIdsIn(anyCollection())).thenReturn(List.of("1"));
+        claimable(List::of);
+
+        processor.process("inv1", List.of(fileInfo("1")), () -> {});
+
+        verify(fileRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void process_transfersOnlyClaimedFilesAndReleasesThem() {
+        when(fileRepository.findCompletedFileIdsIn(anyCollection())).thenReturn(List.of());
+        when(utils.getFileExtension(any())).thenReturn("csv");
+        InboundFile mine = InboundFile.builder().fileId("1").fileName("file1.csv").fileSize(10L).fileCreatedDate(LocalDateTime.now()).fileDownloadStatus("Pending").fileDownloadTs(LocalDateTime.now()).build();
+        InboundFile theirs = InboundFile.builder().fileId("2").fileName("file2.csv").fileSize(10L).fileCreatedDate(LocalDateTime.now()).fileDownloadStatus("Pending").fileDownloadTs(LocalDateTime.now()).build();
+        claimable(() -> List.of(mine, theirs));
+        doAnswer(invocation -> new LinkedHashSet<>(invocation.<List<String>>getArgument(0).stream().filter("1"::equals).toList()))
+                .when(transferLeaseService).claimInbound(anyList());
+        when(fileTransferServiceFactory.getService(anyLong())).thenReturn(fileTransferService);
+        when(fileTransferService.transferInbound(any())).thenReturn(CompletableFuture.completedFuture("ok"));
+
+        processor.process("inv1", List.of(fileInfo("1"), fileInfo("2")), () -> {});
+
+        verify(fileTransferService, times(1)).transferInbound(argThat(request -> request.getFileInfo().getId().equals("1")));
+        verify(transferLeaseService).releaseInbound("1");
+        verify(transferLeaseService, never()).releaseInbound("2");
+    }
+
+    @Test
+    void process_claimsNoMoreThanTheFreeSlotsAndMoreAsTheyFree() {
+        when(fileRepository.findCompletedFileIdsIn(anyCollection())).thenReturn(List.of());
+        when(utils.getFileExtension(any())).thenReturn("csv");
+        List<InboundFile> notCompleted = Collections.synchronizedList(new ArrayList<>());
+        for (String id : List.of("1", "2", "3", "4", "5")) {
+            notCompleted.add(InboundFile.builder().fileId(id).fileName("file" + id + ".csv").fileSize(10L).fileCreatedDate(LocalDateTime.now()).fileDownloadStatus("Pending").fileDownloadTs(LocalDateTime.now()).build());
+        }
+        List<Integer> pageSizes = new ArrayList<>();
+        claimable(() -> List.copyOf(notCompleted));
+        when(fileRepository.findClaimableFiles(any(), eq(-1L), anyLong(), any())).thenAnswer(invocation -> {
+            pageSizes.add(invocation.<Pageable>getArgument(3).getPageSize());
+            return List.copyOf(notCompleted);
+        });
+        when(fileTransferServiceFactory.getService(anyLong())).thenReturn(fileTransferService);
+        when(fileTransferService.transferInbound(any())).thenAnswer(invocation -> {
+            String id = ((FileDownloadRequest) invocation.getArgument(0)).getFileInfo().getId();
+            notCompleted.removeIf(file -> file.getFileId().equals(id));
+            return CompletableFuture.completedFuture("ok");
+        });
+
+        processor.process("inv1", List.of(fileInfo("1")), () -> {});
+
+        verify(fileTransferService, times(5)).transferInbound(any());
+        assertTrue(notCompleted.isEmpty());
+        // Two dispatch slots, so no claim reads more than two files past the ones already attempted
+        assertEquals(2, pageSizes.get(0));
+        assertTrue(pageSizes.size() >= 3);
+    }
+
+    @Test
+    void process_runsOnListedBeforeWaitingForTransfers() throws Exception {
+        when(fileRepository.findCompletedFileIdsIn(anyCollection())).thenReturn(List.of());
+        when(utils.getFileExtension(any())).thenReturn("csv");
+        InboundFile pending = InboundFile.builder().fileId("1").fileName("file1.csv").fileSize(10L).fileCreatedDate(LocalDateTime.now()).fileDownloadStatus("Pending").fileDownloadTs(LocalDateTime.now()).build();
+        claimable(() -> List.of(pending));
+        when(fileTransferServiceFactory.getService(anyLong())).thenReturn(fileTransferService);
+        CompletableFuture<String> transfer = new CompletableFuture<>();
+        when(fileTransferService.transferInbound(any())).thenReturn(transfer);
+        CountDownLatch listed = new CountDownLatch(1);
+
+        CompletableFuture<List<FileInfo>> run = CompletableFuture.supplyAsync(() -> processor.process("inv1", List.of(fileInfo("1")), listed::countDown));
+
+        assertTrue(listed.await(5, TimeUnit.SECONDS));
+        assertFalse(run.isDone());
+        transfer.complete("ok");
+        assertEquals(1, run.get(5, TimeUnit.SECONDS).size());
+    }
+
+    @Test
+    void process_claimsSmallFilesWhileLargeFilesAreBackedUp() throws Exception {
+        when(fileRepository.findCompletedFileIdsIn(anyCollection())).thenReturn(List.of());
+        when(utils.getFileExtension(any())).thenReturn("csv");
+        LocalDateTime created = LocalDateTime.now().minusHours(1);
+        List<InboundFile> notCompleted = new ArrayList<>();
+        for (String id : List.of("big-1", "big-2", "big-3")) {
+            notCompleted.add(InboundFile.builder().fileId(id).fileName(id + ".csv").fileSize(500L).fileCreatedDate(created).fileDownloadStatus("Pending").fileDownloadTs(created).build());
+        }
+        notCompleted.add(InboundFile.builder().fileId("small").fileName("small.csv").fileSize(10L).fileCreatedDate(LocalDateTime.now()).fileDownloadStatus("Pending").fileDownloadTs(LocalDateTime.now()).build());
+        claimable(() -> List.copyOf(notCompleted));
+        when(fileTransferServiceFactory.getService(anyLong())).thenReturn(fileTransferService);
+        List<String> started = Collections.synchronizedList(new ArrayList<>());
+        CompletableFuture<String> release = new CompletableFuture<>();
+        when(fileTransferService.transferInbound(any())).thenAnswer(invocation -> {
+            started.add(((FileDownloadRequest) invocation.getArgument(0)).getFileInfo().getId());
+            return release;
+        });
+        CountDownLatch listed = new CountDownLatch(1);
+
+        CompletableFuture<List<FileInfo>> run = CompletableFuture.supplyAsync(() -> processor.process("inv1", List.of(fileInfo("1")), listed::countDown));
+
+        // Two file slots, one of them for large files: the older large files do not take the other one
+        assertTrue(listed.await(5, TimeUnit.SECONDS));
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (started.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(List.of("big-1", "small"), started.stream().sorted().toList());
+        release.complete("ok");
+        run.get(5, TimeUnit.SECONDS);
+        assertEquals(4, started.size());
+    }
+
+    // Claimable files as the repository returns them, one size range per dispatch lane
+    private void claimable(java.util.function.Supplier<List<InboundFile>> files) {
+        when(fileRepository.findClaimableFiles(any(), anyLong(), anyLong(), any())).thenAnswer(invocation -> files.get().stream()
+                .filter(file -> file.getFileSize() > invocation.<Long>getArgument(1) && file.getFileSize() <= invocation.<Long>getArgument(2))
+                .toList());
+    }
+
+    private FileInfo fileInfo(String id) {
+        FileInfo file = new FileInfo(); file.setId(id); file.setName("file" + id + ".csv"); file.setSize(10L); file.setCreatedDate(LocalDateTime.now().toString());
+        return file;
+    }
+
     @Test
     void filterProcessedFileIds_returnsOnlyNew() {
         List<String> ids = List.of("1", "2", "3");
-        when(fileRepository.findExistingCompletedFileIds()).thenReturn(List.of("2"));
+        when(fileRepository.findCompletedFileIdsIn(anyCollection())).thenReturn(List.of("2"));
         List<String> result = invokeFilterProcessedFileIds(ids);
         assertEquals(List.of("1", "3"), result);
     }
 
+    @Test
+    void filterProcessedFileIds_queriesOnlyListedIdsInBatches() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            ids.add(String.valueOf(i));
+        }
+        when(fileRepository.findCompletedFileIdsIn(anyCollection())).thenReturn(List.of("7"));
+        List<String> result = invokeFilterProcessedFileIds(ids);
+        assertEquals(2499, result.size());
+        assertFalse(result.contains("7"));
+        verify(fileRepository).findCompletedFileIdsIn(ids.subList(0, 1000));
+        verify(fileRepository).findCompletedFileIdsIn(ids.subList(1000, 2000));
+        verify(fileRepository).findCompletedFileIdsIn(ids.subList(2000, 2500));
+    }
+
     @Test
     void filterProcessedFileIds_returnsEmptyIfAllExist() {
         List<String> ids = List.of("1", "2");
-        when(fileRepository.findExistingCompletedFileIds()).thenReturn(List.of("1", "2"));
+        when(fileRepository.findCompletedFileIdsIn(anyCollection())).thenReturn(List.of("1", "2"));
         List<String> result = invokeFilterProcessedFileIds(ids);
         assertTrue(result.isEmpty());
     }
@@ -3,6 +3,7 @@ package com.mastercard.ids.fts.service;
 import com.mastercard.ids.fts.model.*;
 import com.mastercard.ids.fts.repository.FileRepository;
 import com.mastercard.ids.fts.repository.OutboundRepository;
+import com.mastercard.ids.fts.utils.ChecksumEngine;
 import com.mastercard.ids.fts.utils.Constants;
 import com.mastercard.ids.fts.utils.Utils;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -20,29 +22,32 @@ class LargeFileTransferServiceTest {
 
     @Mock private NGFTService ngftService;
     @Mock private S3Service s3Service;
+    @Mock private S3AsyncService s3AsyncService;
     @Mock private FileRepository fileRepository;
     @Mock private OutboundRepository outboundRepository;
     @Mock private Utils utils;
+    @Mock private TransferProgressService transferProgressService;
+    @Mock private CompletedFileIdCache completedFileIdCache;
 
     @InjectMocks
     private LargeFileTransferService transferService;
 
+    private final PartBufferPool partBufferPool = new PartBufferPool(16, 4, false);
+
     private final long chunkSize = 5L;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
         transferService = new LargeFileTransferService(
-                ngftService, s3Service, fileRepository, outboundRepository, utils
+                ngftService, s3Service, s3AsyncService, fileRepository, outboundRepository, utils,
+                new PartTransferScheduler(Executors.newFixedThreadPool(2), 2, 2),
+                transferProgressService,
+                new PartSizePlanner(chunkSize, chunkSize, chunkSize, 1, PartSizePlanner.S3_MAX_PARTS, false, 10_000),
+                partBufferPool,
+                new ChecksumEngine("none"),
+                completedFileIdCache
         );
-        // Use reflection to set private field CHUNK_SIZE
-        try {
-            java.lang.reflect.Field field = LargeFileTransferService.class.getDeclaredField("CHUNK_SIZE");
-            field.setAccessible(true);
-            field.set(transferService, chunkSize);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
     }
 
     @Test
@@ -62,9 +67,9 @@ class LargeFileTransferServiceTest {
         when(utils.getS3FileNamekey(any())).thenReturn(key);
         when(utils.getFileMetadata(any())).thenReturn(metadata);
         when(s3Service.initiateMultipartUploadRequest(any(), any())).thenReturn(uploadId);
-        when(ngftService.downloadChunk(any(), anyInt(), anyLong()))
+        when(ngftService.downloadChunk(any(), anyInt(), anyLong(), anyLong()))
                 .thenReturn(ResponseEntity.ok("chunk".getBytes()));
-        when(s3Service.uploadS3(anyInt(), any(), any(), any())).thenReturn("etag-part");
+        when(s3Service.uploadS3(anyInt(), any(byte[].class), any(), any())).thenReturn("etag-part");
 
         when(s3Service.completeMultipartUpload(eq(key), eq(uploadId), any())).thenReturn("final-etag");
 
@@ -72,6 +77,146 @@ class LargeFileTransferServiceTest {
 
         assertEquals("Completed", result.join());
         verify(fileRepository).updateFileStatusesByFileId(fileInfo.getId(), Constants.FILE_PROCESSING_STATUS_COMPLETED, Constants.FILE_PROCESSING_STATUS_COMPLETED);
+        verify(completedFileIdCache).markCompleted(fileInfo.getId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testTransferInbound_streaming_success() throws Exception {
+        java.lang.reflect.Field streaming = LargeFileTransferService.class.getDeclaredField("streamingEnabled");
+        streaming.setAccessible(true);
+        streaming.set(transferService, true);
+
+        FileInfo fileInfo = new FileInfo();
+        fileInfo.setId("file123");
+        fileInfo.setName("testFile");
+        fileInfo.setSize(11L);
+
+        FileDownloadRequest request = new FileDownloadRequest();
+        request.setFileInfo(fileInfo);
+
+        when(utils.getS3FileNamekey(any())).thenReturn("key123");
+        when(utils.getFileMetadata(any())).thenReturn(Map.of());
+        when(s3Service.initiateMultipartUploadRequest(any(), any())).thenReturn("upload-001");
+        when(ngftService.downloadChunk(any(), anyInt(), anyLong(), anyLong(), any(java.util.function.BiFunction.class)))
+                .thenAnswer(invocation -> {
+                    java.util.function.BiFunction<java.io.InputStream, Long, String> handler = invocation.getArgument(4);
+                    return handler.apply(new java.io.ByteArrayInputStream("chunk".getBytes()), 5L);
+                });
+        when(s3Service.uploadS3(anyInt(), any(java.io.InputStream.class), anyLong(), any(), any())).thenReturn("etag-part");
+        when(s3Service.completeMultipartUpload(eq("key123"), eq("upload-001"), any())).thenReturn("final-etag");
+
+        CompletableFuture<String> result = transferService.transferInbound(request);
+
+        assertEquals("Completed", result.join());
+        verify(ngftService, never()).downloadChunk(any(), anyInt(), anyLong(), anyLong());
+        verify(s3Service, times(3)).uploadS3(anyInt(), any(java.io.InputStream.class), anyLong(), eq("key123"), eq("upload-001"));
+    }
+
+    @Test
+    void testTransferInbound_s3Async_success() throws Exception {
+        java.lang.reflect.Field s3Async = LargeFileTransferService.class.getDeclaredField("s3AsyncEnabled");
+        s3Async.setAccessible(true);
+        s3Async.set(transferService, true);
+
+        FileInfo fileInfo = new FileInfo();
+        fileInfo.setId("file123");
+        fileInfo.setName("testFile");
+        fileInfo.setSize(11L);
+
+        FileDownloadRequest request = new FileDownloadRequest();
+        request.setFileInfo(fileInfo);
+
+        when(utils.getS3FileNamekey(any())).thenReturn("key123");
+        when(utils.getFileMetadata(any())).thenReturn(Map.of());
+        when(s3Service.initiateMultipartUploadRequest(any(), any())).thenReturn("upload-001");
+        when(ngftService.downloadChunk(any(), anyInt(), anyLong(), anyLong()))
+                .thenReturn(ResponseEntity.ok("chunk".getBytes()));
+        when(s3AsyncService.uploadPart(anyInt(), any(), any(), any(), any())).thenReturn(CompletableFuture.completedFuture("etag-part"));
+        when(s3AsyncService.completeMultipartUpload(eq("key123"), eq("upload-001"), any())).thenReturn(CompletableFuture.completedFuture("final-etag"));
+
+        CompletableFuture<String> result = transferService.transferInbound(request);
+
+        assertEquals("Completed", result.join());
+        verify(s3AsyncService, times(3)).uploadPart(anyInt(), any(), argThat(digest -> digest.md5Hex().equals(org.springframework.util.DigestUtils.md5DigestAsHex("chunk".getBytes()))), eq("key123"), eq("upload-001"));
+        verify(s3Service, never()).uploadS3(anyInt(), any(byte[].class), any(), any());
+        verify(transferProgressService, times(3)).recordPart(eq("file123"), any(), anyInt(), anyLong(), anyLong(), eq("etag-part"), isNull());
+        verify(s3AsyncService).completeMultipartUpload(eq("key123"), eq("upload-001"), any());
+        verify(s3Service, never()).completeMultipartUpload(any(), any(), any());
+    }
+
+    @Test
+    void testTransferInbound_s3Async_uploadFailure_fails() throws Exception {
+        java.lang.reflect.Field s3Async = LargeFileTransferService.class.getDeclaredField("s3AsyncEnabled");
+        s3Async.setAccessible(true);
+        s3Async.set(transferService, true);
+
+        FileInfo fileInfo = new FileInfo();
+        fileInfo.setId("file123");
+        fileInfo.setName("testFile");
+        fileInfo.setSize(10L);
+
+        FileDownloadRequest request = new FileDownloadRequest();
+        request.setFileInfo(fileInfo);
+
+        when(utils.getS3FileNamekey(any())).thenReturn("key");
+        when(utils.getFileMetadata(any())).thenReturn(Map.of());
+        when(s3Service.initiateMultipartUploadRequest(any(), any())).thenReturn("upload-id");
+        when(ngftService.downloadChunk(any(), anyInt(), anyLong(), anyLong()))
+                .thenReturn(ResponseEntity.ok("chunk".getBytes()));
+        when(s3AsyncService.uploadPart(anyInt(), any(), any(), any(), any())).thenReturn(CompletableFuture.failedFuture(new RuntimeException("fail")));
+
+        CompletableFuture<String> result = transferService.transferInbound(request);
+
+        assertTrue(result.join().startsWith("FAILED"));
+        verify(s3AsyncService, never()).completeMultipartUpload(any(), any(), any());
+        verify(s3Service).abortMultiPartUpload(eq("key"), eq("upload-id"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testTransferInbound_pooledBuffer_success() throws Exception {
+        java.lang.reflect.Field pooled = LargeFileTransferService.class.getDeclaredField("bufferPoolEnabled");
+        pooled.setAccessible(true);
+        pooled.set(transferService, true);
+
+        FileInfo fileInfo = new FileInfo();
+        fileInfo.setId("file123");
+        fileInfo.setName("testFile");
+        fileInfo.setSize(11L);
+
+        FileDownloadRequest request = new FileDownloadRequest();
+        request.setFileInfo(fileInfo);
+
+        when(utils.getS3FileNamekey(any())).thenReturn("key123");
+        when(utils.getFileMetadata(any())).thenReturn(Map.of());
+        when(s3Service.initiateMultipartUploadRequest(any(), any())).thenReturn("upload-001");
+        when(ngftService.downloadChunk(any(), anyInt(), anyLong(), anyLong(), any(java.util.function.BiFunction.class)))
+                .thenAnswer(invocation -> {
+                    // The part buffer is already leased when the NGFT request goes out
+                    assertTrue(partBufferPool.leasedCount() >= 1);
+                    java.util.function.BiFunction<java.io.InputStream, Long, Object> handler = invocation.getArgument(4);
+                    return handler.apply(new java.io.ByteArrayInputStream("chunk".getBytes()), 5L);
+                });
+        List<String> uploaded = new java.util.concurrent.CopyOnWriteArrayList<>();
+        when(s3Service.uploadS3(anyInt(), any(java.nio.ByteBuffer.class), any(), any(), any())).thenAnswer(invocation -> {
+            java.nio.ByteBuffer body = invocation.getArgument(1);
+            byte[] content = new byte[body.remaining()];
+            body.duplicate().get(content);
+            uploaded.add(new String(content));
+            // Digested while the part was read into the buffer
+            assertEquals(org.springframework.util.DigestUtils.md5DigestAsHex(content),
+                    ((com.mastercard.ids.fts.utils.PayloadDigest) invocation.getArgument(2)).md5Hex());
+            return "etag-part";
+        });
+        when(s3Service.completeMultipartUpload(eq("key123"), eq("upload-001"), any())).thenReturn("final-etag");
+
+        CompletableFuture<String> result = transferService.transferInbound(request);
+
+        assertEquals("Completed", result.join());
+        assertEquals(List.of("chunk", "chunk", "chunk"), uploaded);
+        verify(s3Service, never()).uploadS3(anyInt(), any(byte[].class), any(), any());
+        assertEquals(0, partBufferPool.leasedCount());
     }
 
     @Test
@@ -87,15 +232,179 @@ class LargeFileTransferServiceTest {
         when(utils.getS3FileNamekey(any())).thenReturn("key");
         when(utils.getFileMetadata(any())).thenReturn(Map.of());
         when(s3Service.initiateMultipartUploadRequest(any(), any())).thenReturn("upload-id");
-        when(ngftService.downloadChunk(any(), anyInt(), anyLong()))
+        when(ngftService.downloadChunk(any(), anyInt(), anyLong(), anyLong()))
                 .thenReturn(ResponseEntity.ok("chunk".getBytes()));
-        when(s3Service.uploadS3(anyInt(), any(), any(), any())).thenReturn(null); // Simulate failure
+        when(s3Service.uploadS3(anyInt(), any(byte[].class), any(), any())).thenReturn(null); // Simulate failure
 
         CompletableFuture<String> result = transferService.transferInbound(request);
 
         assertTrue(result.join().startsWith("FAILED"));
-        verify(s3Service).abortMultiPartUpload(eq(fileInfo.getId()), eq("upload-id"));
+        verify(s3Service).abortMultiPartUpload(eq("key"), eq("upload-id"));
         verify(fileRepository).updateAsFailedAndIncrementRetry(eq(fileInfo.getId()), any(), any());
+        verify(transferProgressService).clear(fileInfo.getId());
+    }
+
+    @Test
+    void testTransferInbound_uploadFailure_retriesLeft_keepsUploadOpen() {
+        FileInfo fileInfo = new FileInfo();
+        fileInfo.setId("file123");
+        fileInfo.setName("testFile");
+        fileInfo.setSize(10L);
+
+        FileDownloadRequest request = new FileDownloadRequest();
+        request.setFileInfo(fileInfo);
+
+        InboundFile inboundFile = new InboundFile();
+        inboundFile.setFileId("file123");
+        inboundFile.setAbortFile(false);
+        inboundFile.setRetryCount(0);
+
+        when(fileRepository.findById("file123")).thenReturn(Optional.of(inboundFile));
+        when(utils.getS3FileNamekey(any())).thenReturn("key");
+        when(utils.getFileMetadata(any())).thenReturn(Map.of());
+        when(s3Service.initiateMultipartUploadRequest(any(), any())).thenReturn("upload-id");
+        when(ngftService.downloadChunk(any(), anyInt(), anyLong(), anyLong()))
+                .thenReturn(ResponseEntity.ok("chunk".getBytes()));
+        when(s3Service.uploadS3(anyInt(), any(byte[].class), any(), any())).thenReturn(null); // Simulate failure
+
+        CompletableFuture<String> result = transferService.transferInbound(request);
+
+        assertTrue(result.join().startsWith("FAILED"));
+        verify(fileRepository).updateMultipartUpload("file123", "key", "upload-id", chunkSize);
+        verify(s3Service, never()).abortMultiPartUpload(any(), any());
+        verify(transferProgressService, never()).clear(any());
+    }
+
+    @Test
+    void testTransferInbound_verifiesWholeFileChecksum() throws Exception {
+        java.lang.reflect.Field verify = LargeFileTransferService.class.getDeclaredField("verifyFileChecksum");
+        verify.setAccessible(true);
+        verify.set(transferService, true);
+
+        FileInfo fileInfo = new FileInfo();
+        fileInfo.setId("file123");
+        fileInfo.setName("testFile");
+        fileInfo.setSize(15L);
+        fileInfo.setChecksum(org.springframework.util.DigestUtils.md5DigestAsHex("chunk1chunk2chunk3".getBytes()));
+
+        FileDownloadRequest request = new FileDownloadRequest();
+        request.setFileInfo(fileInfo);
+
+        when(utils.getS3FileNamekey(any())).thenReturn("key123");
+        when(utils.getFileMetadata(any())).thenReturn(Map.of());
+        when(s3Service.initiateMultipartUploadRequest(any(), any())).thenReturn("upload-001");
+        // Later parts finish their download first, the digest still sees them in file order
+        when(ngftService.downloadChunk(any(), anyInt(), anyLong(), anyLong())).thenAnswer(invocation -> {
+            int partition = invocation.getArgument(1);
+            Thread.sleep(partition == 1 ? 100 : 0);
+            return ResponseEntity.ok(("chunk" + partition).getBytes());
+        });
+        when(s3Service.uploadS3(anyInt(), any(byte[].class), any(), any())).thenReturn("etag-part");
+        when(s3Service.completeMultipartUpload(eq("key123"), eq("upload-001"), any())).thenReturn("final-etag");
+
+        CompletableFuture<String> result = transferService.transferInbound(request);
+
+        assertEquals("Completed", result.join());
+        verify(s3Service).completeMultipartUpload(eq("key123"), eq("upload-001"), any());
+    }
+
+    @Test
+    void testTransferInbound_wholeFileChecksumMismatch_abortsUpload() throws Exception {
+        java.lang.reflect.Field verify = LargeFileTransferService.class.getDeclaredField("verifyFileChecksum");
+        verify.setAccessible(true);
+        verify.set(transferService, true);
+
+        FileInfo fileInfo = new FileInfo();
+        fileInfo.setId("file123");
+        fileInfo.setName("testFile");
+        fileInfo.setSize(10L);
+        fileInfo.setChecksum("00000000000000000000000000000000");
+
+        FileDownloadRequest request = new FileDownloadRequest();
+        request.setFileInfo(fileInfo);
+
+        InboundFile inboundFile = new InboundFile();
+        inboundFile.setFileId("file123");
+        inboundFile.setAbortFile(false);
+        inboundFile.setRetryCount(0);
+
+        when(fileRepository.findById("file123")).thenReturn(Optional.of(inboundFile));
+        when(utils.getS3FileNamekey(any())).thenReturn("key");
+        when(utils.getFileMetadata(any())).thenReturn(Map.of());
+        when(s3Service.initiateMultipartUploadRequest(any(), any())).thenReturn("upload-id");
+        when(ngftService.downloadChunk(any(), anyInt(), anyLong(), anyLong()))
+                .thenReturn(ResponseEntity.ok("chunk".getBytes()));
+        when(s3Service.uploadS3(anyInt(), any(byte[].class), any(), any())).thenReturn("etag-part");
+
+        CompletableFuture<String> result = transferService.transferInbound(request);
+
+        // Retries are left, but the uploaded parts are bad so the upload is not kept for resuming
+        assertTrue(result.join().startsWith("FAILED"));
+        verify(s3AsyncService, never()).completeMultipartUpload(any(), any(), any());
+        verify(s3Service).abortMultiPartUpload(eq("key"), eq("upload-id"));
+        verify(transferProgressService).clear("file123");
+    }
+
+    @Test
+    void testTransferInbound_partFailure_releasesWholeFileDigest() throws Exception {
+        java.lang.reflect.Field verify = LargeFileTransferService.class.getDeclaredField("verifyFileChecksum");
+        verify.setAccessible(true);
+        verify.set(transferService, true);
+
+        FileInfo fileInfo = new FileInfo();
+        fileInfo.setId("file123");
+        fileInfo.setName("testFile");
+        fileInfo.setSize(10L);
+        fileInfo.setChecksum("00000000000000000000000000000000");
+
+        FileDownloadRequest request = new FileDownloadRequest();
+        request.setFileInfo(fileInfo);
+
+        when(utils.getS3FileNamekey(any())).thenReturn("key");
+        when(utils.getFileMetadata(any())).thenReturn(Map.of());
+        when(s3Service.initiateMultipartUploadRequest(any(), any())).thenReturn("upload-id");
+        when(ngftService.downloadChunk(any(), eq(1), anyLong(), anyLong())).thenThrow(new RuntimeException("download failed"));
+        when(ngftService.downloadChunk(any(), eq(2), anyLong(), anyLong())).thenReturn(ResponseEntity.ok("chunk".getBytes()));
+
+        CompletableFuture<String> result = transferService.transferInbound(request);
+
+        // Part 2 waits for part 1 in the digest, it must not hang once part 1 has failed
+        assertTrue(result.orTimeout(5, java.util.concurrent.TimeUnit.SECONDS).join().startsWith("FAILED"));
+        verify(s3Service, never()).uploadS3(anyInt(), any(byte[].class), any(), any());
+    }
+
+    @Test
+    void testTransferInbound_resume_skipsCompletedParts() {
+        FileInfo fileInfo = new FileInfo();
+        fileInfo.setId("file123");
+        fileInfo.setName("testFile");
+        fileInfo.setSize(11L);
+
+        FileDownloadRequest request = new FileDownloadRequest();
+        request.setFileInfo(fileInfo);
+
+        InboundFile inboundFile = new InboundFile();
+        inboundFile.setFileId("file123");
+        inboundFile.setS3ObjectKey("key123");
+        inboundFile.setS3UploadId("upload-001");
+
+        TransferPart uploaded = TransferPart.builder().partNumber(1).eTag("etag-1").build();
+        when(fileRepository.findById("file123")).thenReturn(Optional.of(inboundFile));
+        when(transferProgressService.completedParts("file123")).thenReturn(Map.of(1, uploaded));
+        when(ngftService.downloadChunk(any(), anyInt(), anyLong(), anyLong()))
+                .thenReturn(ResponseEntity.ok("chunk".getBytes()));
+        when(s3Service.uploadS3(anyInt(), any(byte[].class), any(), any())).thenReturn("etag-part");
+        when(s3Service.completeMultipartUpload(eq("key123"), eq("upload-001"), any())).thenReturn("final-etag");
+
+        CompletableFuture<String> result = transferService.transferInbound(request);
+
+        assertEquals("Completed", result.join());
+        verify(s3Service, never()).initiateMultipartUploadRequest(any(), any());
+        verify(ngftService, never()).downloadChunk(any(), eq(1), anyLong(), anyLong());
+        verify(ngftService, times(2)).downloadChunk(any(), anyInt(), anyLong(), anyLong());
+        verify(s3Service).completeMultipartUpload(eq("key123"), eq("upload-001"), argThat(parts ->
+                parts.size() == 3 && parts.get(0).partNumber() == 1 && "etag-1".equals(parts.get(0).eTag())));
+        verify(transferProgressService).clear("file123");
     }
 
     @Test
@@ -113,8 +422,8 @@ class LargeFileTransferServiceTest {
 
         when(s3Service.getS3ObjectMetadata(any())).thenReturn(s3FileData); // used before the stream
         when(s3Service.multiPartDownloadS3(anyString(), anyLong(), anyLong())).thenReturn(s3FileData); // used inside the stream
-        when(ngftService.initiateMultiPartUpload(any())).thenReturn(ngftInit);
-        doNothing().when(ngftService).uploadPartFile(any(), any(), anyInt());
+        when(ngftService.initiateMultiPartUpload(any(), anyLong())).thenReturn(ngftInit);
+        when(ngftService.uploadPartFile(any(), any(), anyInt())).thenReturn("md5-hex");
         doNothing().when(ngftService).completedMultiPartUpload(any(), any());
 
         CompletableFuture<String> result = transferService.transferOutbound(outboundFile);
@@ -125,12 +434,146 @@ class LargeFileTransferServiceTest {
                 Constants.FILE_PROCESSING_STATUS_COMPLETED);
     }
 
+    @Test
+    void testTransferOutbound_prefetch_readsWithAsyncClient() throws Exception {
+        java.lang.reflect.Field prefetch = LargeFileTransferService.class.getDeclaredField("outboundPrefetchParts");
+        prefetch.setAccessible(true);
+        prefetch.set(transferService, 2);
+
+        OutboundFile outboundFile = new OutboundFile();
+        outboundFile.setFileId("out123");
+        outboundFile.setRequestId("req123");
+        outboundFile.setFileSize(15L); // 3 partitions
+        outboundFile.setObjectKey("object%2Ekey");
+
+        S3FileData s3FileData = new S3FileData();
+        s3FileData.setFileContent(Optional.of("chunk".getBytes()));
+        s3FileData.setMetadata(Map.of());
+
+        when(s3Service.getS3ObjectMetadata(any())).thenReturn(s3FileData);
+        when(s3AsyncService.multiPartDownload(anyString(), anyLong(), anyLong())).thenReturn(CompletableFuture.completedFuture(s3FileData));
+        when(ngftService.initiateMultiPartUpload(any(), anyLong())).thenReturn(new InitializeMultipartUploadNGFTResponse("ngft-file-id", "ngft-upload-id"));
+
+        CompletableFuture<String> result = transferService.transferOutbound(outboundFile);
+
+        assertEquals("Completed", result.join());
+        verify(s3Service, never()).multiPartDownloadS3(anyString(), anyLong(), anyLong());
+        verify(s3AsyncService).multiPartDownload("object.key", 0L, 4L);
+        verify(s3AsyncService).multiPartDownload("object.key", 5L, 9L);
+        verify(s3AsyncService).multiPartDownload("object.key", 10L, 14L);
+        verify(ngftService, times(3)).uploadPartFile(any(), any(), anyInt());
+    }
+
+    @Test
+    void testTransferOutbound_transferManager_readsPartsIntoPooledBuffers() throws Exception {
+        java.lang.reflect.Field enabled = LargeFileTransferService.class.getDeclaredField("transferManagerEnabled");
+        enabled.setAccessible(true);
+        enabled.set(transferService, true);
+        java.lang.reflect.Field prefetch = LargeFileTransferService.class.getDeclaredField("outboundPrefetchParts");
+        prefetch.setAccessible(true);
+        prefetch.set(transferService, 2);
+
+        OutboundFile outboundFile = new OutboundFile();
+        outboundFile.setFileId("out123");
+        outboundFile.setRequestId("req123");
+        outboundFile.setFileSize(15L); // 3 partitions
+        outboundFile.setObjectKey("object%2Ekey");
+
+        S3FileData s3FileData = new S3FileData();
+        s3FileData.setFileContent(Optional.empty());
+        s3FileData.setMetadata(Map.of());
+
+        when(s3Service.getS3ObjectMetadata(any())).thenReturn(s3FileData);
+        when(s3Service.multiPartDownloadS3(anyString(), anyLong(), anyLong(), any(java.nio.ByteBuffer.class))).thenAnswer(invocation -> {
+            java.nio.ByteBuffer target = invocation.getArgument(3);
+            target.clear();
+            target.put("chunk".getBytes()).flip();
+            return s3FileData;
+        });
+        when(ngftService.initiateMultiPartUpload(any(), anyLong())).thenReturn(new InitializeMultipartUploadNGFTResponse("ngft-file-id", "ngft-upload-id"));
+        when(ngftService.uploadPartFile(any(), any(java.nio.ByteBuffer.class), any(), anyInt())).thenReturn("md5-hex");
+
+        CompletableFuture<String> result = transferService.transferOutbound(outboundFile);
+
+        assertEquals("Completed", result.join());
+        // Each part is a ranged read of its own, no whole-object copy and no byte[] prefetch
+        verify(s3Service).multiPartDownloadS3(eq("object.key"), eq(0L), eq(4L), any(java.nio.ByteBuffer.class));
+        verify(s3Service).multiPartDownloadS3(eq("object.key"), eq(5L), eq(9L), any(java.nio.ByteBuffer.class));
+        verify(s3Service).multiPartDownloadS3(eq("object.key"), eq(10L), eq(14L), any(java.nio.ByteBuffer.class));
+        verifyNoInteractions(s3AsyncService);
+        verify(ngftService, times(3)).uploadPartFile(any(), any(java.nio.ByteBuffer.class), any(), anyInt());
+        assertEquals(0, partBufferPool.leasedCount());
+    }
+
+    @Test
+    void testTransferOutbound_s3Async_usesAsyncHead() throws Exception {
+        java.lang.reflect.Field s3Async = LargeFileTransferService.class.getDeclaredField("s3AsyncEnabled");
+        s3Async.setAccessible(true);
+        s3Async.set(transferService, true);
+
+        OutboundFile outboundFile = new OutboundFile();
+        outboundFile.setFileId("out123");
+        outboundFile.setRequestId("req123");
+        outboundFile.setFileSize(5L);
+        outboundFile.setObjectKey("object.key");
+
+        S3FileData s3FileData = new S3FileData();
+        s3FileData.setFileContent(Optional.of("chunk".getBytes()));
+        s3FileData.setMetadata(Map.of());
+
+        when(s3AsyncService.getObjectMetadata("object.key")).thenReturn(CompletableFuture.completedFuture(s3FileData));
+        when(s3Service.multiPartDownloadS3(anyString(), anyLong(), anyLong())).thenReturn(s3FileData);
+        when(ngftService.initiateMultiPartUpload(any(), anyLong())).thenReturn(new InitializeMultipartUploadNGFTResponse("ngft-file-id", "ngft-upload-id"));
+
+        CompletableFuture<String> result = transferService.transferOutbound(outboundFile);
+
+        assertEquals("Completed", result.join());
+        verify(s3Service, never()).getS3ObjectMetadata(any());
+        verify(ngftService).initiateMultiPartUpload(eq(s3FileData), anyLong());
+    }
+
+    @Test
+    void testTransferOutbound_pooledBuffer_success() throws Exception {
+        java.lang.reflect.Field pooled = LargeFileTransferService.class.getDeclaredField("bufferPoolEnabled");
+        pooled.setAccessible(true);
+        pooled.set(transferService, true);
+
+        OutboundFile outboundFile = new OutboundFile();
+        outboundFile.setFileId("out123");
+        outboundFile.setRequestId("req123");
+        outboundFile.setFileSize(10L);
+        outboundFile.setObjectKey("object.key");
+
+        S3FileData s3FileData = new S3FileData();
+        s3FileData.setFileContent(Optional.empty());
+        s3FileData.setMetadata(Map.of());
+
+        when(s3Service.getS3ObjectMetadata(any())).thenReturn(s3FileData);
+        when(s3Service.multiPartDownloadS3(anyString(), anyLong(), anyLong(), any(java.nio.ByteBuffer.class))).thenAnswer(invocation -> {
+            java.nio.ByteBuffer target = invocation.getArgument(3);
+            target.clear();
+            target.put("chunk".getBytes()).flip();
+            return s3FileData;
+        });
+        when(ngftService.initiateMultiPartUpload(any(), anyLong())).thenReturn(new InitializeMultipartUploadNGFTResponse("ngft-file-id", "ngft-upload-id"));
+        when(ngftService.uploadPartFile(any(), any(java.nio.ByteBuffer.class), any(), anyInt())).thenReturn("md5-hex");
+
+        CompletableFuture<String> result = transferService.transferOutbound(outboundFile);
+
+        assertEquals("Completed", result.join());
+        verify(ngftService, times(2)).uploadPartFile(any(), any(java.nio.ByteBuffer.class), any(), anyInt());
+        verify(s3Service, never()).multiPartDownloadS3(anyString(), anyLong(), anyLong());
+        verify(transferProgressService, times(2)).recordPart(eq("req123"), any(), anyInt(), anyLong(), anyLong(), isNull(), eq("md5-hex"));
+        assertEquals(0, partBufferPool.leasedCount());
+    }
+
     @Test
     void testTransferOutbound_chunkEmpty_abortsUpload() {
         OutboundFile outboundFile = new OutboundFile();
         outboundFile.setFileId("out123");
         outboundFile.setFileSize(5L);
         outboundFile.setObjectKey("object.key");
+        outboundFile.setRetryCount(Constants.MAX_RETRY_COUNT - 1); // last attempt
 
         S3FileData s3FileData = new S3FileData();
         s3FileData.setFileContent(Optional.of(new byte[0])); // Simulate empty chunk
@@ -139,7 +582,7 @@ class LargeFileTransferServiceTest {
         InitializeMultipartUploadNGFTResponse ngftInit = new InitializeMultipartUploadNGFTResponse("ngft-upload-id", "ngft-file-id");
 
         when(s3Service.getS3ObjectMetadata(any())).thenReturn(s3FileData);
-        when(ngftService.initiateMultiPartUpload(any())).thenReturn(ngftInit);
+        when(ngftService.initiateMultiPartUpload(any(), anyLong())).thenReturn(ngftInit);
 
         CompletableFuture<String> result = transferService.transferOutbound(outboundFile);
         String resultValue = result.join();
@@ -149,4 +592,34 @@ class LargeFileTransferServiceTest {
 
         verify(ngftService).abortMultiPartUpload(any(), eq(ngftInit));
     }
+
+    @Test
+    void testTransferOutbound_resume_reusesNgftUpload() throws Exception {
+        OutboundFile outboundFile = new OutboundFile();
+        outboundFile.setFileId("out123");
+        outboundFile.setRequestId("req123");
+        outboundFile.setFileSize(10L);
+        outboundFile.setObjectKey("object.key");
+        outboundFile.setNgftFileId("ngft-file-id");
+        outboundFile.setNgftUploadId("ngft-upload-id");
+
+        S3FileData s3FileData = new S3FileData();
+        s3FileData.setFileContent(Optional.of("chunk".getBytes()));
+        s3FileData.setMetadata(Map.of());
+
+        when(s3Service.getS3ObjectMetadata(any())).thenReturn(s3FileData);
+        when(s3Service.multiPartDownloadS3(anyString(), anyLong(), anyLong())).thenReturn(s3FileData);
+        when(transferProgressService.completedParts("req123"))
+                .thenReturn(Map.of(1, TransferPart.builder().partNumber(1).build()));
+        when(ngftService.uploadPartFile(any(), any(), anyInt())).thenReturn("md5-hex");
+
+        CompletableFuture<String> result = transferService.transferOutbound(outboundFile);
+
+        assertEquals("Completed", result.join());
+        verify(ngftService, never()).initiateMultiPartUpload(any(), anyLong());
+        verify(ngftService).uploadPartFile(any(), eq(new InitializeMultipartUploadNGFTResponse("ngft-file-id", "ngft-upload-id")), eq(2));
+        verify(ngftService, times(1)).uploadPartFile(any(), any(), anyInt());
+        verify(transferProgressService).recordPart(eq("req123"), eq(Constants.TRANSFER_DIRECTION_OUTBOUND), eq(2), eq(5L), eq(9L), isNull(), eq("md5-hex"));
+        verify(outboundRepository).updateMultipartUpload("req123", null, null, null);
+    }
 }
@@ -18,4 +18,9 @@ class MeterRegistryServiceTest {
     void testRecordOutboundFileProcessed_doesNotThrow() {
         assertDoesNotThrow(() -> meterRegistryService.recordOutboundFileProcessed());
     }
+
+    @Test
+    void testRecordS3Transfer_doesNotThrow() {
+        assertDoesNotThrow(() -> meterRegistryService.recordS3Transfer("upload", 1024));
+    }
 }
@@ -1,6 +1,7 @@
 package com.mastercard.ids.fts.service;
 
 import com.mastercard.ids.fts.model.*;
+import com.mastercard.ids.fts.utils.ChecksumEngine;
 import com.mastercard.ids.fts.utils.Utils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,6 +25,10 @@ class NGFTServiceTest {
     RestClient restClient;
     @Mock
     Utils utils;
+    @Spy
+    ChecksumEngine checksumEngine = new ChecksumEngine("none");
+    @Spy
+    FileListPageFetcher fileListPageFetcher = new FileListPageFetcher(java.util.concurrent.Executors.newFixedThreadPool(2), 2);
 
     @BeforeEach
     void setUp() {
@@ -36,7 +41,6 @@ class NGFTServiceTest {
         setField("ftsLogicalAddress", "receiver");
         setField("ngftFileListPageSize", 10);
         setField("ngftFileListStatus", "READY");
-        setField("CHUNK_SIZE", 100L);
     }
 
     private void setField(String name, Object value) {
@@ -81,7 +85,7 @@ class NGFTServiceTest {
         when(bodySpec.headers(any())).thenReturn(bodySpec);
         when(bodySpec.retrieve()).thenReturn(responseSpec);
         when(responseSpec.toEntity(eq(Object.class))).thenReturn(entity);
-        var result = ngftService.initiateMultiPartUpload(fileData);
+        var result = ngftService.initiateMultiPartUpload(fileData, 100L);
         assertNotNull(result);
         assertEquals("fileId", result.getFileID());
         assertEquals("uploadId", result.getUploadId());
@@ -107,7 +111,7 @@ class NGFTServiceTest {
         when(bodySpec.headers(any())).thenReturn(bodySpec);
         when(bodySpec.retrieve()).thenReturn(responseSpec);
         when(responseSpec.toEntity(eq(Object.class))).thenReturn(entity);
-        Exception ex = assertThrows(Exception.class, () -> ngftService.initiateMultiPartUpload(fileData));
+        Exception ex = assertThrows(Exception.class, () -> ngftService.initiateMultiPartUpload(fileData, 100L));
         System.out.println("Exception thrown: " + ex.getClass() + ", message: " + ex.getMessage());
         assertTrue(ex instanceof RuntimeException);
     }
@@ -120,7 +124,7 @@ class NGFTServiceTest {
         when(fileData.getMetadata()).thenReturn(metadata);
         when(restClient.post()).thenReturn(uriSpec);
         when(uriSpec.uri(anyString())).thenThrow(new RuntimeException("fail"));
-        assertThrows(RuntimeException.class, () -> ngftService.initiateMultiPartUpload(fileData));
+        assertThrows(RuntimeException.class, () -> ngftService.initiateMultiPartUpload(fileData, 100L));
     }
 
     @Test
@@ -160,6 +164,61 @@ class NGFTServiceTest {
         assertEquals(1, result.size());
     }
 
+    @Test
+    void testRetrieveFileList_fetchesRemainingPagesConcurrently() {
+        RestClient.RequestHeadersUriSpec uriSpec = mock(RestClient.RequestHeadersUriSpec.class);
+        RestClient.ResponseSpec responseSpec = mock(RestClient.ResponseSpec.class);
+        when(restClient.get()).thenReturn(uriSpec);
+        when(uriSpec.uri(anyString())).thenReturn(uriSpec);
+        when(uriSpec.headers(any())).thenReturn(uriSpec);
+        when(uriSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.toEntity(eq(FileListResponse.class))).thenReturn(
+                new ResponseEntity<>(fileListPage(3, 2), HttpStatus.OK),
+                new ResponseEntity<>(fileListPage(3, 2), HttpStatus.OK),
+                new ResponseEntity<>(fileListPage(3, 1), HttpStatus.OK));
+
+        List<FileInfo> result = ngftService.retrieveFileList();
+
+        assertEquals(5, result.size());
+        verify(fileListPageFetcher).fetchPages(eq(2), eq(3), any());
+        verify(restClient, times(3)).get();
+    }
+
+    @Test
+    void testRetrieveFileList_streamsPagesToConsumer() {
+        RestClient.RequestHeadersUriSpec uriSpec = mock(RestClient.RequestHeadersUriSpec.class);
+        RestClient.ResponseSpec responseSpec = mock(RestClient.ResponseSpec.class);
+        when(restClient.get()).thenReturn(uriSpec);
+        when(uriSpec.uri(anyString())).thenReturn(uriSpec);
+        when(uriSpec.headers(any())).thenReturn(uriSpec);
+        when(uriSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.toEntity(eq(FileListResponse.class))).thenReturn(
+                new ResponseEntity<>(fileListPage(3, 2), HttpStatus.OK),
+                new ResponseEntity<>(fileListPage(3, 2), HttpStatus.OK),
+                new ResponseEntity<>(fileListPage(3, 1), HttpStatus.OK));
+        List<List<FileInfo>> pages = new ArrayList<>();
+
+        int listed = ngftService.retrieveFileList(pages::add);
+
+        assertEquals(5, listed);
+        assertEquals(3, pages.size());
+        verify(fileListPageFetcher).streamPages(eq(2), eq(3), any(), any());
+    }
+
+    private FileListResponse fileListPage(int totalPages, int files) {
+        FileListResponse fileListResponse = new FileListResponse();
+        FileListing listing = new FileListing();
+        List<FileInfo> fileInfos = new ArrayList<>();
+        for (int i = 0; i < files; i++) {
+            fileInfos.add(new FileInfo());
+        }
+        listing.setFiles(fileInfos);
+        fileListResponse.setFileListing(listing);
+        fileListResponse.setTotalPages(totalPages);
+        fileListResponse.setCurrentPageSize(files);
+        return fileListResponse;
+    }
+
     @Test
     void testRetrieveFileList_empty() {
         RestClient.RequestHeadersUriSpec uriSpec = mock(RestClient.RequestHeadersUriSpec.class);
@@ -293,18 +352,69 @@ class NGFTServiceTest {
         when(uriSpec.headers(any())).thenReturn(uriSpec);
         when(uriSpec.retrieve()).thenReturn(responseSpec);
         when(responseSpec.toEntity(eq(byte[].class))).thenReturn(entity);
-        ResponseEntity<byte[]> result = ngftService.downloadChunk(request, 1, 100L);
+        ResponseEntity<byte[]> result = ngftService.downloadChunk(request, 1, 100L, 100L);
         assertNotNull(result);
         assertEquals(HttpStatus.OK, result.getStatusCode());
     }
 
+    @Test
+    void testDownloadChunkStream_success() throws Exception {
+        RestClient.RequestHeadersUriSpec uriSpec = mock(RestClient.RequestHeadersUriSpec.class);
+        RestClient.RequestHeadersSpec.ConvertibleClientHttpResponse clientResponse = mock(RestClient.RequestHeadersSpec.ConvertibleClientHttpResponse.class);
+        FileDownloadRequest request = mock(FileDownloadRequest.class);
+        FileInfo fileInfo = mock(FileInfo.class);
+        when(request.getFileInfo()).thenReturn(fileInfo);
+        when(fileInfo.getId()).thenReturn("id");
+        when(utils.getDownloadFileHeader(any())).thenReturn(new HttpHeaders());
+        HttpHeaders responseHeaders = new HttpHeaders();
+        responseHeaders.setContentLength(3);
+        when(clientResponse.getStatusCode()).thenReturn(HttpStatus.PARTIAL_CONTENT);
+        when(clientResponse.getHeaders()).thenReturn(responseHeaders);
+        when(clientResponse.getBody()).thenReturn(new java.io.ByteArrayInputStream(new byte[]{1,2,3}));
+        when(restClient.get()).thenReturn(uriSpec);
+        when(uriSpec.uri(anyString())).thenReturn(uriSpec);
+        when(uriSpec.headers(any())).thenReturn(uriSpec);
+        when(uriSpec.exchange(any())).thenAnswer(invocation -> {
+            RestClient.RequestHeadersSpec.ExchangeFunction<?> exchangeFunction = invocation.getArgument(0);
+            return exchangeFunction.exchange(null, clientResponse);
+        });
+        String result = ngftService.downloadChunk(request, 1, 100L, 100L, (body, contentLength) -> {
+            try {
+                return body.readAllBytes().length + "/" + contentLength;
+            } catch (java.io.IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertEquals("3/3", result);
+    }
+
+    @Test
+    void testDownloadChunkStream_non2xx() throws Exception {
+        RestClient.RequestHeadersUriSpec uriSpec = mock(RestClient.RequestHeadersUriSpec.class);
+        RestClient.RequestHeadersSpec.ConvertibleClientHttpResponse clientResponse = mock(RestClient.RequestHeadersSpec.ConvertibleClientHttpResponse.class);
+        FileDownloadRequest request = mock(FileDownloadRequest.class);
+        FileInfo fileInfo = mock(FileInfo.class);
+        when(request.getFileInfo()).thenReturn(fileInfo);
+        when(fileInfo.getId()).thenReturn("id");
+        when(utils.getDownloadFileHeader(any())).thenReturn(new HttpHeaders());
+        when(clientResponse.getStatusCode()).thenReturn(HttpStatus.BAD_REQUEST);
+        when(restClient.get()).thenReturn(uriSpec);
+        when(uriSpec.uri(anyString())).thenReturn(uriSpec);
+        when(uriSpec.headers(any())).thenReturn(uriSpec);
+        when(uriSpec.exchange(any())).thenAnswer(invocation -> {
+            RestClient.RequestHeadersSpec.ExchangeFunction<?> exchangeFunction = invocation.getArgument(0);
+            return exchangeFunction.exchange(null, clientResponse);
+        });
+        assertThrows(RuntimeException.class, () -> ngftService.downloadChunk(request, 1, 100L, 100L, (body, contentLength) -> "etag"));
+    }
+
     @Test
     void testDownloadChunk_failure() {
         RestClient.RequestHeadersUriSpec uriSpec = mock(RestClient.RequestHeadersUriSpec.class);
         FileDownloadRequest request = mock(FileDownloadRequest.class);
         when(restClient.get()).thenReturn(uriSpec);
         when(uriSpec.uri(anyString())).thenThrow(new RuntimeException("fail"));
-        assertThrows(RuntimeException.class, () -> ngftService.downloadChunk(request, 1, 100L));
+        assertThrows(RuntimeException.class, () -> ngftService.downloadChunk(request, 1, 100L, 100L));
     }
 
     @Test
@@ -322,7 +432,7 @@ class NGFTServiceTest {
         when(uriSpec.headers(any())).thenReturn(uriSpec);
         when(uriSpec.retrieve()).thenReturn(responseSpec);
         when(responseSpec.toEntity(eq(byte[].class))).thenReturn(entity);
-        assertThrows(RuntimeException.class, () -> ngftService.downloadChunk(request, 1, 100L));
+        assertThrows(RuntimeException.class, () -> ngftService.downloadChunk(request, 1, 100L, 100L));
     }
 
     @Test
@@ -376,15 +486,16 @@ class NGFTServiceTest {
         when(fileData.getMetadata()).thenReturn(metadata);
         when(fileData.getFileContent()).thenReturn(Optional.of(new byte[]{1,2,3}));
         when(fileData.getFileContentRange()).thenReturn(Optional.of("bytes 0-2/3"));
-        ResponseEntity<Void> entity = new ResponseEntity<>(HttpStatus.OK);
+        String md5Hex = org.springframework.util.DigestUtils.md5DigestAsHex(new byte[]{1,2,3});
+        ResponseEntity<Void> entity = ResponseEntity.ok().header("x-mc-checksum", md5Hex).build();
         when(restClient.put()).thenReturn(uriSpec);
         when(uriSpec.uri(anyString())).thenReturn(bodySpec);
         when(bodySpec.headers(any())).thenReturn(bodySpec);
         when(bodySpec.body(any(org.springframework.core.io.Resource.class))).thenReturn(bodySpec);
         when(bodySpec.retrieve()).thenReturn(responseSpec);
         when(responseSpec.toEntity(eq(Void.class))).thenReturn(entity);
-        when(utils.verifyChecksum(any(), any())).thenReturn(true);
-        assertDoesNotThrow(() -> ngftService.uploadPartFile(fileData, resp, 1));
+        assertEquals(md5Hex, ngftService.uploadPartFile(fileData, resp, 1));
+        verify(checksumEngine, times(1)).digest(any(byte[].class));
     }
 
     @Test
@@ -409,7 +520,28 @@ class NGFTServiceTest {
         when(bodySpec.body(any(org.springframework.core.io.Resource.class))).thenReturn(bodySpec);
         when(bodySpec.retrieve()).thenReturn(responseSpec);
         when(responseSpec.toEntity(eq(Void.class))).thenReturn(entity);
-        when(utils.verifyChecksum(any(), any())).thenReturn(false);
         assertThrows(RuntimeException.class, () -> ngftService.uploadPartFile(fileData, resp, 1));
     }
+
+    @Test
+    void testUploadPartFile_buffer_reusesDigest() throws Exception {
+        RestClient.RequestBodyUriSpec uriSpec = mock(RestClient.RequestBodyUriSpec.class);
+        RestClient.RequestBodySpec bodySpec = mock(RestClient.RequestBodySpec.class);
+        RestClient.ResponseSpec responseSpec = mock(RestClient.ResponseSpec.class);
+        InitializeMultipartUploadNGFTResponse resp = new InitializeMultipartUploadNGFTResponse("fileId", "uploadId");
+        java.nio.ByteBuffer content = java.nio.ByteBuffer.wrap(new byte[]{1,2,3});
+        S3FileData fileData = new S3FileData(Optional.empty(), new HashMap<>(), Optional.of("bytes 0-2/3"), checksumEngine.digest(content));
+        String md5Hex = org.springframework.util.DigestUtils.md5DigestAsHex(new byte[]{1,2,3});
+        ResponseEntity<Void> entity = ResponseEntity.ok().header("x-mc-checksum", md5Hex).build();
+        when(restClient.put()).thenReturn(uriSpec);
+        when(uriSpec.uri(anyString())).thenReturn(bodySpec);
+        when(bodySpec.headers(any())).thenReturn(bodySpec);
+        when(bodySpec.body(any(StreamingHttpOutputMessage.Body.class))).thenReturn(bodySpec);
+        when(bodySpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.toEntity(eq(Void.class))).thenReturn(entity);
+        clearInvocations(checksumEngine);
+
+        assertEquals(md5Hex, ngftService.uploadPartFile(fileData, content, resp, 1));
+        verify(checksumEngine, never()).digest(any(java.nio.ByteBuffer.class));
+    }
 }
@@ -0,0 +1,58 @@
+package com.mastercard.ids.fts.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.DigestUtils;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderedFileDigestTest {
+
+    @Test
+    void update_inOrder() {
+        OrderedFileDigest digest = new OrderedFileDigest(1);
+
+        digest.update(1, "part1".getBytes());
+        digest.update(2, ByteBuffer.wrap("part2".getBytes()));
+
+        assertEquals(DigestUtils.md5DigestAsHex("part1part2".getBytes()), digest.md5Hex());
+    }
+
+    @Test
+    void update_laterPartWaitsForEarlierOne() throws Exception {
+        OrderedFileDigest digest = new OrderedFileDigest(1);
+
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> digest.update(2, "part2".getBytes()));
+        assertThrows(TimeoutException.class, () -> second.get(100, TimeUnit.MILLISECONDS));
+
+        digest.update(1, "part1".getBytes());
+        second.get(5, TimeUnit.SECONDS);
+
+        assertEquals(DigestUtils.md5DigestAsHex("part1part2".getBytes()), digest.md5Hex());
+    }
+
+    @Test
+    void update_keepsBufferPosition() {
+        OrderedFileDigest digest = new OrderedFileDigest(3);
+        ByteBuffer content = ByteBuffer.wrap("part3".getBytes());
+
+        digest.update(3, content);
+
+        assertEquals(0, content.position());
+    }
+
+    @Test
+    void abort_releasesWaitingParts() {
+        OrderedFileDigest digest = new OrderedFileDigest(1);
+
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> digest.update(2, "part2".getBytes()));
+        digest.abort(new RuntimeException("part 1 failed"));
+
+        Exception e = assertThrows(Exception.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertEquals("part 1 failed", e.getCause().getCause().getMessage());
+    }
+}
@@ -0,0 +1,117 @@
+package com.mastercard.ids.fts.service;
+
+import com.mastercard.ids.fts.model.OutboundFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OutboundDispatcherTest {
+
+    @Mock
+    private FileTransferServiceFactory fileTransferServiceFactory;
+
+    @Mock
+    private FileTransferService fileTransferService;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private TransferLeaseService transferLeaseService;
+    private OutboundDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        transferLeaseService = spy(new TransferLeaseService(null, null, null, false, Duration.ofMinutes(15), "test"));
+        dispatcher = new OutboundDispatcher(fileTransferServiceFactory, transferLeaseService, executor, 2);
+        when(fileTransferServiceFactory.getService(anyLong())).thenReturn(fileTransferService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void dispatch_runsTransferOffCallerThreadAndReleases() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        when(fileTransferService.transferOutbound(any())).thenAnswer(invocation -> {
+            started.countDown();
+            finish.await(5, TimeUnit.SECONDS);
+            return CompletableFuture.completedFuture("ok");
+        });
+        OutboundFile file = outboundFile("r1");
+
+        CompletableFuture<Void> transfer = dispatcher.dispatch(file);
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(dispatcher.isInFlight("r1"));
+        // A second dispatch of the same file while it runs is ignored
+        assertTrue(dispatcher.dispatch(file).isDone());
+
+        finish.countDown();
+        transfer.get(5, TimeUnit.SECONDS);
+        assertFalse(dispatcher.isInFlight("r1"));
+        verify(fileTransferService, times(1)).transferOutbound(file);
+        verify(transferLeaseService).releaseOutbound("r1");
+    }
+
+    @Test
+    void dispatch_skipsFilesLeasedElsewhere() {
+        doReturn(Set.of()).when(transferLeaseService).claimOutbound(List.of("r1"));
+
+        assertTrue(dispatcher.dispatch(outboundFile("r1")).isDone());
+
+        assertFalse(dispatcher.isInFlight("r1"));
+        verifyNoInteractions(fileTransferService);
+    }
+
+    @Test
+    void dispatch_failedTransferStillReleases() throws Exception {
+        when(fileTransferService.transferOutbound(any())).thenThrow(new RuntimeException("ngft down"));
+
+        CompletableFuture<Void> transfer = dispatcher.dispatch(outboundFile("r1"));
+
+        assertThrows(Exception.class, () -> transfer.get(5, TimeUnit.SECONDS));
+        assertFalse(dispatcher.isInFlight("r1"));
+        verify(transferLeaseService).releaseOutbound("r1");
+    }
+
+    @Test
+    void offer_returnsWithoutWaitingWhenAllSlotsAreBusy() throws Exception {
+        CountDownLatch finish = new CountDownLatch(1);
+        when(fileTransferService.transferOutbound(any())).thenAnswer(invocation -> {
+            finish.await(5, TimeUnit.SECONDS);
+            return CompletableFuture.completedFuture("ok");
+        });
+        CompletableFuture<Void> first = dispatcher.dispatch(outboundFile("r1"));
+        CompletableFuture<Void> second = dispatcher.dispatch(outboundFile("r2"));
+
+        assertFalse(dispatcher.offer(outboundFile("r3")));
+        assertFalse(dispatcher.isInFlight("r3"));
+        verify(transferLeaseService).releaseOutbound("r3");
+
+        finish.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertTrue(dispatcher.offer(outboundFile("r3")));
+    }
+
+    private static OutboundFile outboundFile(String requestId) {
+        return OutboundFile.builder().requestId(requestId).objectKey("key-" + requestId).fileSize(10L).build();
+    }
+}
@@ -7,7 +7,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -21,10 +20,7 @@ class OutboundFileListProcessorTest {
     private OutboundRepository outboundRepository;
 
     @Mock
-    private FileTransferServiceFactory fileTransferServiceFactory;
-
-    @Mock
-    private LargeFileTransferService largeFileTransferService;
+    private OutboundDispatcher outboundDispatcher;
 
     @InjectMocks
     private OutboundFileListProcessor outboundFileListProcessor;
@@ -56,26 +52,84 @@ class OutboundFileListProcessorTest {
 
         S3FileData mockS3Data = createMockS3FileData();
         when(s3Service.getS3ObjectMetadata(objectKey)).thenReturn(mockS3Data);
-
-        // Simulate saved OutboundFile
-        OutboundFile savedFile = OutboundFile.builder()
-                .fileId("file123")
-                .fileSize(fileSize)
-                .objectKey(objectKey)
-                .build();
-
-        when(outboundRepository.save(any(OutboundFile.class))).thenReturn(savedFile);
-        when(outboundRepository.findNotCompletedFiles()).thenReturn(List.of(savedFile));
-        when(fileTransferServiceFactory.getService(fileSize)).thenReturn(largeFileTransferService);
-        when(largeFileTransferService.transferOutbound(any(OutboundFile.class)))
-                .thenReturn(CompletableFuture.completedFuture(null));
+        when(outboundRepository.save(any(OutboundFile.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         assertDoesNotThrow(() -> outboundFileListProcessor.processOutboundFiles(objectKey, fileSize));
 
+        ArgumentCaptor<OutboundFile> saved = ArgumentCaptor.forClass(OutboundFile.class);
         verify(s3Service, times(1)).getS3ObjectMetadata(objectKey);
-        verify(outboundRepository, times(1)).save(any(OutboundFile.class));
-        verify(fileTransferServiceFactory, times(1)).getService(fileSize);
-        verify(largeFileTransferService, times(1)).transferOutbound(savedFile);
+        verify(outboundRepository, times(1)).save(saved.capture());
+        verify(outboundDispatcher, times(1)).dispatch(saved.getValue());
+        assertEquals(objectKey, saved.getValue().getObjectKey());
+        // The backlog is left to the sweep
+        verify(outboundRepository, never()).findNotCompletedFiles();
+    }
+
+    @Test
+    void testProcessOutboundFiles_requestIdFollowsObjectAndFile() {
+        when(s3Service.getS3ObjectMetadata("test-object-key")).thenReturn(createMockS3FileData());
+
+        outboundFileListProcessor.processOutboundFiles("test-object-key", 12345L);
+
+        ArgumentCaptor<OutboundFile> saved = ArgumentCaptor.forClass(OutboundFile.class);
+        verify(outboundRepository).save(saved.capture());
+        assertEquals(OutboundFileListProcessor.requestId("test-object-key", "file123"), saved.getValue().getRequestId());
+        assertNotEquals(OutboundFileListProcessor.requestId("test-object-key", "file456"), saved.getValue().getRequestId());
+    }
+
+    @Test
+    void testProcessOutboundFiles_redeliveryDispatchesRecordedFileWithoutSaving() {
+        OutboundFile recorded = OutboundFile.builder().requestId(OutboundFileListProcessor.requestId("test-object-key", "file123"))
+                .objectKey("test-object-key").fileDownloadStatus("Completed").fileUploadStatus("Failed").abortFile(false).build();
+        when(s3Service.getS3ObjectMetadata("test-object-key")).thenReturn(createMockS3FileData());
+        when(outboundRepository.findById(recorded.getRequestId())).thenReturn(Optional.of(recorded));
+
+        outboundFileListProcessor.processOutboundFiles("test-object-key", 12345L);
+
+        verify(outboundRepository, never()).save(any());
+        verify(outboundDispatcher).dispatch(recorded);
+    }
+
+    @Test
+    void testProcessOutboundFiles_redeliveryOfCompletedFileIsSkipped() {
+        OutboundFile recorded = OutboundFile.builder().requestId(OutboundFileListProcessor.requestId("test-object-key", "file123"))
+                .objectKey("test-object-key").fileDownloadStatus("Completed").fileUploadStatus("Completed").abortFile(false).build();
+        when(s3Service.getS3ObjectMetadata("test-object-key")).thenReturn(createMockS3FileData());
+        when(outboundRepository.findById(recorded.getRequestId())).thenReturn(Optional.of(recorded));
+
+        outboundFileListProcessor.processOutboundFiles("test-object-key", 12345L);
+
+        verify(outboundRepository, never()).save(any());
+        verifyNoInteractions(outboundDispatcher);
+    }
+
+    @Test
+    void retryNotCompletedFiles_dispatchesFilesNotInFlight() {
+        OutboundFile running = OutboundFile.builder().requestId("r1").fileSize(10L).build();
+        OutboundFile failed = OutboundFile.builder().requestId("r2").fileSize(10L).build();
+        when(outboundRepository.findNotCompletedFiles()).thenReturn(List.of(running, failed));
+        when(outboundDispatcher.isInFlight("r1")).thenReturn(true);
+        when(outboundDispatcher.offer(failed)).thenReturn(true);
+
+        assertEquals(1, outboundFileListProcessor.retryNotCompletedFiles());
+
+        verify(outboundDispatcher, never()).offer(running);
+        verify(outboundDispatcher).offer(failed);
+        verify(outboundDispatcher, never()).dispatch(any());
+    }
+
+    @Test
+    void retryNotCompletedFiles_leavesTheRestForTheNextSweepOnceSlotsAreBusy() {
+        OutboundFile first = OutboundFile.builder().requestId("r1").fileSize(10L).build();
+        OutboundFile second = OutboundFile.builder().requestId("r2").fileSize(10L).build();
+        OutboundFile third = OutboundFile.builder().requestId("r3").fileSize(10L).build();
+        when(outboundRepository.findNotCompletedFiles()).thenReturn(List.of(first, second, third));
+        when(outboundDispatcher.offer(first)).thenReturn(true);
+        when(outboundDispatcher.offer(second)).thenReturn(false);
+
+        assertEquals(1, outboundFileListProcessor.retryNotCompletedFiles());
+
+        verify(outboundDispatcher, never()).offer(third);
     }
 
     @Test
@@ -90,6 +144,6 @@ class OutboundFileListProcessorTest {
 
         assertEquals("S3 failure", exception.getMessage());
         verify(outboundRepository, never()).save(any());
-        verify(fileTransferServiceFactory, never()).getService(anyLong());
+        verify(outboundDispatcher, never()).dispatch(any());
     }
 }
@@ -0,0 +1,173 @@
+package com.mastercard.ids.fts.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartBufferPoolTest {
+
+    @Test
+    void lease_reusesReleasedBuffer() {
+        PartBufferPool pool = new PartBufferPool(16, 2, false);
+
+        ByteBuffer first;
+        try (PartBufferPool.PartBuffer buffer = pool.lease(10)) {
+            first = buffer.buffer();
+            assertEquals(1, pool.leasedCount());
+        }
+        assertEquals(0, pool.leasedCount());
+        assertEquals(1, pool.idleCount());
+
+        try (PartBufferPool.PartBuffer buffer = pool.lease(16)) {
+            assertSame(first, buffer.buffer());
+            assertEquals(0, buffer.buffer().position());
+            assertEquals(16, buffer.buffer().limit());
+        }
+    }
+
+    @Test
+    void lease_directBuffers() {
+        PartBufferPool pool = new PartBufferPool(16, 1, true);
+
+        try (PartBufferPool.PartBuffer buffer = pool.lease(8)) {
+            assertTrue(buffer.buffer().isDirect());
+        }
+    }
+
+    @Test
+    void lease_oversizedPartIsNotPooled() {
+        PartBufferPool pool = new PartBufferPool(16, 1, false);
+
+        try (PartBufferPool.PartBuffer buffer = pool.lease(32)) {
+            assertEquals(32, buffer.buffer().capacity());
+            assertEquals(0, pool.leasedCount());
+        }
+        assertEquals(0, pool.idleCount());
+    }
+
+    @Test
+    void lease_partLargerThanChunkSizeUsesSizeClass() {
+        // Chunk size 16, planner maximum 100: classes of 16, 32, 64 and 100 bytes
+        PartBufferPool pool = new PartBufferPool(16, 100, 2, false);
+
+        ByteBuffer first;
+        try (PartBufferPool.PartBuffer buffer = pool.lease(40)) {
+            first = buffer.buffer();
+            assertEquals(64, first.capacity());
+            assertEquals(1, pool.leasedCount());
+        }
+        try (PartBufferPool.PartBuffer buffer = pool.lease(90)) {
+            assertEquals(100, buffer.buffer().capacity());
+            assertEquals(1, pool.leasedCount());
+        }
+        try (PartBufferPool.PartBuffer buffer = pool.lease(64)) {
+            assertSame(first, buffer.buffer());
+        }
+        assertEquals(2, pool.idleCount());
+    }
+
+    @Test
+    void lease_plannedPartLargerThanChunkSizeIsPooled() {
+        int chunkSize = 8 * 1024 * 1024;
+        int maxPartSize = 512 * 1024 * 1024;
+        PartSizePlanner planner = new PartSizePlanner(chunkSize, PartSizePlanner.S3_MIN_PART_SIZE, maxPartSize, 4, 1000, false, 10_000);
+        // 20 GB in at most 1000 parts needs 21 MB parts
+        long partSize = planner.partSize(20L * 1024 * 1024 * 1024);
+        assertTrue(partSize > chunkSize);
+        PartBufferPool pool = new PartBufferPool(chunkSize, maxPartSize, 2, false);
+
+        ByteBuffer first;
+        try (PartBufferPool.PartBuffer buffer = pool.lease(partSize)) {
+            first = buffer.buffer();
+            assertTrue(first.capacity() >= partSize);
+            assertEquals(1, pool.leasedCount());
+        }
+        try (PartBufferPool.PartBuffer buffer = pool.lease(partSize)) {
+            assertSame(first, buffer.buffer());
+        }
+    }
+
+    @Test
+    void lease_newSizeClassReplacesIdleBufferAtTheBound() {
+        PartBufferPool pool = new PartBufferPool(16, 64, 1, false);
+
+        pool.lease(16).close();
+        assertEquals(1, pool.idleCount());
+        try (PartBufferPool.PartBuffer buffer = pool.lease(64)) {
+            assertEquals(64, buffer.buffer().capacity());
+            assertEquals(0, pool.idleCount());
+        }
+        assertEquals(1, pool.idleCount());
+    }
+
+    @Test
+    void lease_blocksWhileAllBuffersAreLeased() throws Exception {
+        PartBufferPool pool = new PartBufferPool(16, 1, false);
+        PartBufferPool.PartBuffer held = pool.lease(8);
+
+        CompletableFuture<PartBufferPool.PartBuffer> waiting = CompletableFuture.supplyAsync(() -> pool.lease(8));
+        assertThrows(TimeoutException.class, () -> waiting.get(100, TimeUnit.MILLISECONDS));
+
+        held.close();
+        try (PartBufferPool.PartBuffer buffer = waiting.get(5, TimeUnit.SECONDS)) {
+            assertNotNull(buffer.buffer());
+        }
+    }
+
+    @Test
+    void close_twiceReleasesOnce() {
+        PartBufferPool pool = new PartBufferPool(16, 2, false);
+        PartBufferPool.PartBuffer buffer = pool.lease(8);
+
+        buffer.close();
+        buffer.close();
+
+        assertEquals(0, pool.leasedCount());
+        assertEquals(1, pool.idleCount());
+    }
+
+    @Test
+    void readFully_fillsAndFlips() throws IOException {
+        ByteBuffer target = ByteBuffer.allocate(16);
+
+        PartBufferPool.readFully(new ByteArrayInputStream("chunk".getBytes()), target);
+
+        assertEquals(0, target.position());
+        assertEquals(5, target.remaining());
+    }
+
+    @Test
+    void readFully_failsWhenStreamDoesNotFit() {
+        ByteBuffer target = ByteBuffer.allocate(4);
+
+        assertThrows(IOException.class, () -> PartBufferPool.readFully(new ByteArrayInputStream("chunk".getBytes()), target));
+    }
+
+    @Test
+    void writeFully_keepsSourcePosition() throws IOException {
+        ByteBuffer source = ByteBuffer.wrap("chunk".getBytes());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        PartBufferPool.writeFully(source, out);
+        PartBufferPool.writeFully(source, out);
+
+        assertEquals("chunkchunk", out.toString());
+        assertEquals(0, source.position());
+    }
+
+    @Test
+    void constructor_rejectsTooFewBuffersForPartConcurrency() {
+        assertThrows(IllegalArgumentException.class, () -> new PartBufferPool(16, 64, 4, false, true, 4));
+        assertDoesNotThrow(() -> new PartBufferPool(16, 64, 5, false, true, 4));
+        // Not checked while part buffers are not pooled
+        assertDoesNotThrow(() -> new PartBufferPool(16, 64, 4, false, false, 4));
+    }
+}
@@ -0,0 +1,81 @@
+package com.mastercard.ids.fts.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartPrefetcherTest {
+
+    private final List<Integer> readOrder = new ArrayList<>();
+    private final Map<Integer, CompletableFuture<String>> reads = new HashMap<>();
+
+    private CompletableFuture<String> read(Integer partNumber) {
+        readOrder.add(partNumber);
+        CompletableFuture<String> read = new CompletableFuture<>();
+        reads.put(partNumber, read);
+        return read;
+    }
+
+    @Test
+    void constructor_startsReadsUpToDepth() {
+        PartPrefetcher<String> prefetcher = new PartPrefetcher<>(List.of(1, 2, 3, 4, 5), 2, this::read);
+
+        assertEquals(List.of(1, 2), readOrder);
+        assertEquals(2, prefetcher.outstanding());
+    }
+
+    @Test
+    void take_returnsPartAndSlidesWindow() {
+        PartPrefetcher<String> prefetcher = new PartPrefetcher<>(List.of(1, 2, 3), 2, this::read);
+        reads.get(1).complete("part-1");
+
+        assertEquals("part-1", prefetcher.take(1));
+        assertEquals(List.of(1, 2, 3), readOrder);
+
+        reads.get(2).complete("part-2");
+        reads.get(3).complete("part-3");
+        assertEquals("part-2", prefetcher.take(2));
+        assertEquals("part-3", prefetcher.take(3));
+        assertEquals(List.of(1, 2, 3), readOrder);
+        assertEquals(0, prefetcher.outstanding());
+    }
+
+    @Test
+    void take_partOutsideWindowIsReadOnceOnDemand() {
+        PartPrefetcher<String> prefetcher = new PartPrefetcher<>(List.of(1, 2, 3), 1, partNumber -> {
+            readOrder.add(partNumber);
+            return CompletableFuture.completedFuture("part-" + partNumber);
+        });
+
+        assertEquals("part-3", prefetcher.take(3));
+        assertEquals("part-1", prefetcher.take(1));
+        assertEquals("part-2", prefetcher.take(2));
+        assertEquals(List.of(1, 3, 2), readOrder);
+    }
+
+    @Test
+    void take_failedReadRethrowsCause() {
+        PartPrefetcher<String> prefetcher = new PartPrefetcher<>(List.of(1), 1, this::read);
+        reads.get(1).completeExceptionally(new RuntimeException("read failed"));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> prefetcher.take(1));
+        assertEquals("read failed", e.getMessage());
+    }
+
+    @Test
+    void cancel_cancelsOutstandingReads() {
+        PartPrefetcher<String> prefetcher = new PartPrefetcher<>(List.of(1, 2, 3), 2, this::read);
+
+        prefetcher.cancel();
+
+        assertTrue(reads.get(1).isCancelled());
+        assertTrue(reads.get(2).isCancelled());
+        assertEquals(0, prefetcher.outstanding());
+    }
+}
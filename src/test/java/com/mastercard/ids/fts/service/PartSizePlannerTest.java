@@ -0,0 +1,90 @@
+package com.mastercard.ids.fts.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartSizePlannerTest {
+
+    private static final long MB = 1024 * 1024;
+
+    private PartSizePlanner planner(boolean adaptive) {
+        return new PartSizePlanner(25 * MB, 5 * MB, 512 * MB, 4, 1000, adaptive, 10_000);
+    }
+
+    @Test
+    void testPartSize_largeFileUsesDefault() {
+        assertEquals(25 * MB, planner(false).partSize(1000 * MB));
+    }
+
+    @Test
+    void testPartSize_midSizeFileSplitForParallelism() {
+        // 60 MB would be three parts of 25 MB; four parts of 15 MB use the whole per-file concurrency
+        assertEquals(15 * MB, planner(false).partSize(60 * MB));
+    }
+
+    @Test
+    void testPartSize_neverBelowMinimum() {
+        assertEquals(5 * MB, planner(false).partSize(8 * MB));
+    }
+
+    @Test
+    void testPartSize_veryLargeFileStaysWithinPartLimit() {
+        long fileSize = 100L * 1024 * MB; // 100 GB
+        long partSize = planner(false).partSize(fileSize);
+
+        assertTrue(partSize > 25 * MB);
+        assertTrue((fileSize + partSize - 1) / partSize <= 1000);
+        assertEquals(0, partSize % MB);
+    }
+
+    @Test
+    void testPartSize_partLimitWinsOverMaxSize() {
+        PartSizePlanner planner = new PartSizePlanner(25 * MB, 5 * MB, 64 * MB, 4, 1000, false, 10_000);
+        long fileSize = 200L * 1024 * MB;
+
+        long partSize = planner.partSize(fileSize);
+
+        assertTrue(partSize > 64 * MB);
+        assertTrue((fileSize + partSize - 1) / partSize <= 1000);
+    }
+
+    @Test
+    void testPartSize_adaptiveFollowsObservedThroughput() {
+        PartSizePlanner planner = planner(true);
+        // 40 MB in one second, so a 10 second part is 400 MB
+        planner.recordPart(40 * MB, Duration.ofSeconds(1).toNanos());
+
+        assertEquals(40 * MB, planner.observedBytesPerSecond());
+        assertEquals(400 * MB, planner.partSize(10L * 1024 * MB));
+    }
+
+    @Test
+    void testPartSize_adaptiveClampedToMaxSize() {
+        PartSizePlanner planner = planner(true);
+        planner.recordPart(200 * MB, Duration.ofSeconds(1).toNanos());
+
+        assertEquals(512 * MB, planner.partSize(100L * 1024 * MB));
+    }
+
+    @Test
+    void testRecordPart_ignoredWhenNotAdaptive() {
+        PartSizePlanner planner = planner(false);
+        planner.recordPart(40 * MB, Duration.ofSeconds(1).toNanos());
+
+        assertEquals(0, planner.observedBytesPerSecond());
+        assertEquals(25 * MB, planner.partSize(1000 * MB));
+    }
+
+    @Test
+    void testPublicConstructor_enforcesS3Limits() {
+        PartSizePlanner planner = new PartSizePlanner(MB, MB, 512 * MB, 1, 50_000, false, Duration.ofSeconds(10));
+
+        assertEquals(PartSizePlanner.S3_MIN_PART_SIZE, planner.partSize(100 * MB));
+        long fileSize = 5L * 1024 * 1024 * MB; // 5 TB
+        long partSize = planner.partSize(fileSize);
+        assertTrue((fileSize + partSize - 1) / partSize <= PartSizePlanner.S3_MAX_PARTS);
+    }
+}
@@ -0,0 +1,111 @@
+package com.mastercard.ids.fts.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartTransferSchedulerTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void transferParts_returnsResultsInPartOrder() {
+        PartTransferScheduler scheduler = new PartTransferScheduler(executor, 4, 2);
+
+        List<String> results = scheduler.transferParts("file1", List.of(1, 2, 3, 4, 5), partNumber -> "etag-" + partNumber);
+
+        assertEquals(List.of("etag-1", "etag-2", "etag-3", "etag-4", "etag-5"), results);
+        assertEquals(4, scheduler.availablePermits());
+    }
+
+    @Test
+    void transferParts_respectsPerFileLimit() {
+        PartTransferScheduler scheduler = new PartTransferScheduler(executor, 8, 2);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        scheduler.transferParts("file1", List.of(1, 2, 3, 4, 5, 6), partNumber -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            return partNumber;
+        });
+
+        assertTrue(maxInFlight.get() <= 2, "Expected at most 2 parts in flight but saw " + maxInFlight.get());
+    }
+
+    @Test
+    void transferParts_failurePropagatesAndReleasesPermits() {
+        PartTransferScheduler scheduler = new PartTransferScheduler(executor, 2, 2);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> scheduler.transferParts("file1", List.of(1, 2, 3), partNumber -> {
+            if (partNumber == 2) {
+                throw new RuntimeException("part failed");
+            }
+            return partNumber;
+        }));
+
+        assertEquals("part failed", e.getMessage());
+        assertEquals(2, scheduler.availablePermits());
+    }
+
+    @Test
+    void transferPartsAsync_holdsPermitsUntilFutureCompletes() {
+        PartTransferScheduler scheduler = new PartTransferScheduler(executor, 4, 2);
+        List<CompletableFuture<String>> pending = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<List<String>> results = CompletableFuture.supplyAsync(() -> scheduler.transferPartsAsync("file1", List.of(1, 2, 3), partNumber -> {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            pending.add(future);
+            return future;
+        }));
+
+        // Only the per-file limit of parts is started while their futures are outstanding
+        await(() -> pending.size() == 2);
+        assertEquals(2, scheduler.availablePermits());
+        pending.get(0).complete("etag-a");
+        await(() -> pending.size() == 3);
+        pending.get(1).complete("etag-b");
+        pending.get(2).complete("etag-c");
+
+        assertEquals(3, results.join().size());
+        assertEquals(4, scheduler.availablePermits());
+    }
+
+    @Test
+    void transferPartsAsync_failedFuturePropagates() {
+        PartTransferScheduler scheduler = new PartTransferScheduler(executor, 2, 2);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> scheduler.transferPartsAsync("file1", List.of(1), partNumber ->
+                CompletableFuture.failedFuture(new RuntimeException("upload failed"))));
+
+        assertEquals("upload failed", e.getMessage());
+        assertEquals(2, scheduler.availablePermits());
+    }
+
+    private void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for condition");
+            Thread.onSpinWait();
+        }
+    }
+}
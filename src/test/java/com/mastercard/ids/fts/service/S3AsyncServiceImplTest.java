@@ -0,0 +1,115 @@
+package com.mastercard.ids.fts.service;
+
+import com.mastercard.ids.fts.model.S3FileData;
+import com.mastercard.ids.fts.utils.ChecksumEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class S3AsyncServiceImplTest {
+    private final ChecksumEngine checksumEngine = new ChecksumEngine("none");
+    @Mock S3AsyncClient s3AsyncClient;
+    @Mock MeterRegistryService meterRegistryService;
+    @InjectMocks S3AsyncServiceImpl s3AsyncService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Set bucketName via reflection
+        try {
+            var field = S3AsyncServiceImpl.class.getDeclaredField("bucketName");
+            field.setAccessible(true);
+            field.set(s3AsyncService, "test-bucket");
+        } catch (Exception ignored) {}
+    }
+
+    @Test
+    void uploadPart_success() {
+        when(s3AsyncClient.uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.completedFuture(UploadPartResponse.builder().eTag("etag").build()));
+
+        assertEquals("etag", s3AsyncService.uploadPart(1, new byte[]{1, 2, 3}, checksumEngine.digest(new byte[]{1, 2, 3}), "key", "uploadId").join());
+
+        ArgumentCaptor<UploadPartRequest> captor = ArgumentCaptor.forClass(UploadPartRequest.class);
+        verify(s3AsyncClient).uploadPart(captor.capture(), any(AsyncRequestBody.class));
+        assertEquals("test-bucket", captor.getValue().bucket());
+        assertEquals(1, captor.getValue().partNumber());
+        assertEquals(checksumEngine.digest(new byte[]{1, 2, 3}).md5Base64(), captor.getValue().contentMD5());
+        verify(meterRegistryService).recordS3Transfer("upload", 3);
+    }
+
+    @Test
+    void uploadPart_failureCompletesExceptionally() {
+        when(s3AsyncClient.uploadPart(any(UploadPartRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("fail")));
+
+        CompletableFuture<String> result = s3AsyncService.uploadPart(1, new byte[]{1}, checksumEngine.digest(new byte[]{1}), "key", "uploadId");
+
+        assertThrows(CompletionException.class, result::join);
+        verifyNoInteractions(meterRegistryService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void multiPartDownload_success() {
+        GetObjectResponse response = GetObjectResponse.builder().metadata(Map.of("k", "v")).contentRange("bytes 0-2/10").build();
+        when(s3AsyncClient.getObject(any(GetObjectRequest.class), any(AsyncResponseTransformer.class)))
+                .thenReturn(CompletableFuture.completedFuture(ResponseBytes.fromByteArray(response, new byte[]{1, 2, 3})));
+
+        S3FileData data = s3AsyncService.multiPartDownload("key", 0, 2).join();
+
+        assertArrayEquals(new byte[]{1, 2, 3}, data.getFileContent().get());
+        assertEquals("v", data.getMetadata().get("k"));
+        assertEquals("bytes 0-2/10", data.getFileContentRange().get());
+        ArgumentCaptor<GetObjectRequest> captor = ArgumentCaptor.forClass(GetObjectRequest.class);
+        verify(s3AsyncClient).getObject(captor.capture(), any(AsyncResponseTransformer.class));
+        assertEquals("bytes=0-2", captor.getValue().range());
+        verify(meterRegistryService).recordS3Transfer("download", 3);
+    }
+
+    @Test
+    void getObjectMetadata_success() {
+        when(s3AsyncClient.headObject(any(HeadObjectRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(HeadObjectResponse.builder().metadata(Map.of("k", "v")).build()));
+
+        S3FileData data = s3AsyncService.getObjectMetadata("folder%2Fkey").join();
+
+        assertTrue(data.getFileContent().isEmpty());
+        assertEquals("v", data.getMetadata().get("k"));
+        ArgumentCaptor<HeadObjectRequest> captor = ArgumentCaptor.forClass(HeadObjectRequest.class);
+        verify(s3AsyncClient).headObject(captor.capture());
+        assertEquals("folder/key", captor.getValue().key());
+    }
+
+    @Test
+    void completeMultipartUpload_success() {
+        when(s3AsyncClient.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(CompleteMultipartUploadResponse.builder().eTag("final").build()));
+
+        String eTag = s3AsyncService.completeMultipartUpload("key", "uploadId",
+                List.of(CompletedPart.builder().partNumber(1).eTag("etag").build())).join();
+
+        assertEquals("final", eTag);
+    }
+
+    @Test
+    void completeMultipartUpload_failureCompletesExceptionally() {
+        when(s3AsyncClient.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("fail")));
+
+        assertThrows(CompletionException.class, () -> s3AsyncService.completeMultipartUpload("key", "uploadId", List.of()).join());
+    }
+}
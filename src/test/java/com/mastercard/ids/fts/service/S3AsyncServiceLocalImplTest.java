@@ -0,0 +1,33 @@
+package com.mastercard.ids.fts.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class S3AsyncServiceLocalImplTest {
+    private S3AsyncServiceLocalImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new S3AsyncServiceLocalImpl();
+    }
+
+    @Test
+    void uploadPart_returnsNotSupported() {
+        assertEquals("Not supported in local", service.uploadPart(1, new byte[]{1, 2, 3}, null, "key", "uploadId").join());
+    }
+
+    @Test
+    void completeMultipartUpload_returnsNotSupported() {
+        assertEquals("Not supported in local", service.completeMultipartUpload("key", "uploadId", List.of()).join());
+    }
+
+    @Test
+    void downloads_returnNull() {
+        assertNull(service.multiPartDownload("key", 0, 1).join());
+        assertNull(service.getObjectMetadata("key").join());
+    }
+}
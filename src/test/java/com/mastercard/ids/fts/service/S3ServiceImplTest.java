@@ -1,7 +1,7 @@
 package com.mastercard.ids.fts.service;
 
 import com.mastercard.ids.fts.model.S3FileData;
-import com.mastercard.ids.fts.utils.Utils;
+import com.mastercard.ids.fts.utils.ChecksumEngine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -12,6 +12,7 @@ import software.amazon.awssdk.services.s3.model.*;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -20,7 +21,8 @@ import static org.mockito.Mockito.*;
 
 class S3ServiceImplTest {
     @Mock S3Client s3Client;
-    @Mock Utils utils;
+    @Mock MeterRegistryService meterRegistryService;
+    @Spy ChecksumEngine checksumEngine = new ChecksumEngine("none");
     @InjectMocks S3ServiceImpl s3Service;
 
     @BeforeEach
@@ -40,26 +42,63 @@ class S3ServiceImplTest {
         when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenReturn(response);
         String result = s3Service.uploadS3(1, new byte[]{1,2,3}, "key", "uploadId");
         assertEquals("etag", result);
+        verify(meterRegistryService).recordS3Transfer("upload", 3);
     }
 
     @Test
     void uploadS3_exception() {
         when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenThrow(new RuntimeException("fail"));
         assertThrows(RuntimeException.class, () -> s3Service.uploadS3(1, new byte[]{1}, "key", "uploadId"));
+        verifyNoInteractions(meterRegistryService);
+    }
+
+    @Test
+    void uploadS3Stream_success() {
+        byte[] body = new byte[]{1,2,3};
+        String md5Hex = org.springframework.util.DigestUtils.md5DigestAsHex(body);
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+            RequestBody requestBody = invocation.getArgument(1);
+            requestBody.contentStreamProvider().newStream().readAllBytes();
+            return UploadPartResponse.builder().eTag("\"" + md5Hex + "\"").build();
+        });
+        String result = s3Service.uploadS3(1, new ByteArrayInputStream(body), body.length, "key", "uploadId");
+        assertEquals("\"" + md5Hex + "\"", result);
+    }
+
+    @Test
+    void uploadS3Stream_checksumMismatch() {
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+            RequestBody requestBody = invocation.getArgument(1);
+            requestBody.contentStreamProvider().newStream().readAllBytes();
+            return UploadPartResponse.builder().eTag("\"00000000000000000000000000000000\"").build();
+        });
+        assertThrows(RuntimeException.class, () -> s3Service.uploadS3(1, new ByteArrayInputStream(new byte[]{1,2,3}), 3, "key", "uploadId"));
     }
 
     @Test
     void singleFileUploadS3_success() {
         PutObjectResponse response = PutObjectResponse.builder().eTag("etag").build();
         when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class))).thenReturn(response);
-        String result = s3Service.singleFileUploadS3(new byte[]{1,2,3}, "key", Map.of());
+        String result = s3Service.singleFileUploadS3(new byte[]{1,2,3}, checksumEngine.digest(new byte[]{1,2,3}), "key", Map.of());
         assertEquals("etag", result);
     }
 
+    @Test
+    void singleFileUploadS3_sendsAdditionalChecksum() {
+        PutObjectResponse response = PutObjectResponse.builder().eTag("etag").build();
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class))).thenReturn(response);
+        s3Service.singleFileUploadS3(new byte[]{1,2,3}, new ChecksumEngine("crc32c").digest(new byte[]{1,2,3}), "key", Map.of());
+        ArgumentCaptor<PutObjectRequest> captor = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client).putObject(captor.capture(), any(RequestBody.class));
+        assertNotNull(captor.getValue().contentMD5());
+        assertNotNull(captor.getValue().checksumCRC32C());
+        assertNull(captor.getValue().checksumSHA256());
+    }
+
     @Test
     void singleFileUploadS3_exception() {
         when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class))).thenThrow(new RuntimeException("fail"));
-        assertThrows(RuntimeException.class, () -> s3Service.singleFileUploadS3(new byte[]{1}, "key", Map.of()));
+        assertThrows(RuntimeException.class, () -> s3Service.singleFileUploadS3(new byte[]{1}, checksumEngine.digest(new byte[]{1}), "key", Map.of()));
     }
 
     @Test
@@ -104,23 +143,32 @@ class S3ServiceImplTest {
 
     @Test
     void singleFileDownloadS3_success() {
-        GetObjectResponse getObjectResponse = GetObjectResponse.builder().eTag("etag").metadata(Map.of("foo", "bar")).build();
+        String md5Hex = org.springframework.util.DigestUtils.md5DigestAsHex(new byte[]{1,2,3});
+        GetObjectResponse getObjectResponse = GetObjectResponse.builder().eTag("\"" + md5Hex + "\"").metadata(Map.of("foo", "bar")).build();
         ByteArrayInputStream inputStream = new ByteArrayInputStream(new byte[]{1,2,3});
         ResponseInputStream<GetObjectResponse> responseInputStream = new ResponseInputStream<>(getObjectResponse, inputStream);
         when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(responseInputStream);
-        when(utils.verifyChecksum(any(), any())).thenReturn(false); // checksum ok
         S3FileData data = s3Service.singleFileDownloadS3("key");
         assertTrue(data.getFileContent().isPresent());
         assertEquals("bar", data.getMetadata().get("foo"));
+        assertEquals(md5Hex, data.getDigest().md5Hex());
+    }
+
+    @Test
+    void singleFileDownloadS3_multipartETagNotCompared() {
+        GetObjectResponse getObjectResponse = GetObjectResponse.builder().eTag("\"etag-2\"").metadata(Map.of()).build();
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(new byte[]{1,2,3});
+        ResponseInputStream<GetObjectResponse> responseInputStream = new ResponseInputStream<>(getObjectResponse, inputStream);
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(responseInputStream);
+        assertNotNull(s3Service.singleFileDownloadS3("key").getDigest());
     }
 
     @Test
     void singleFileDownloadS3_checksumFail() {
-        GetObjectResponse getObjectResponse = GetObjectResponse.builder().eTag("etag").metadata(Map.of()).build();
+        GetObjectResponse getObjectResponse = GetObjectResponse.builder().eTag("\"00000000000000000000000000000000\"").metadata(Map.of()).build();
         ByteArrayInputStream inputStream = new ByteArrayInputStream(new byte[]{1,2,3});
         ResponseInputStream<GetObjectResponse> responseInputStream = new ResponseInputStream<>(getObjectResponse, inputStream);
         when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(responseInputStream);
-        when(utils.verifyChecksum(any(), any())).thenReturn(true); // checksum fail
         assertThrows(RuntimeException.class, () -> s3Service.singleFileDownloadS3("key"));
     }
 
@@ -160,4 +208,40 @@ class S3ServiceImplTest {
         when(s3Client.getObject(any(GetObjectRequest.class))).thenThrow(new RuntimeException("fail"));
         assertThrows(RuntimeException.class, () -> s3Service.multiPartDownloadS3("key", 0, 2));
     }
+
+    @Test
+    void multiPartDownloadS3_intoBuffer_success() {
+        GetObjectResponse getObjectResponse = GetObjectResponse.builder().metadata(Map.of("foo", "bar")).build();
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(new byte[]{1,2,3});
+        ResponseInputStream<GetObjectResponse> responseInputStream = new ResponseInputStream<>(getObjectResponse, inputStream);
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(responseInputStream);
+        ByteBuffer target = ByteBuffer.allocate(8);
+        S3FileData data = s3Service.multiPartDownloadS3("key", 0, 2, target);
+        assertEquals(3, target.remaining());
+        assertEquals("bar", data.getMetadata().get("foo"));
+        assertEquals(org.springframework.util.DigestUtils.md5DigestAsHex(new byte[]{1,2,3}), data.getDigest().md5Hex());
+    }
+
+    @Test
+    void uploadS3_fromBuffer_success() {
+        UploadPartResponse uploadPartResponse = UploadPartResponse.builder().eTag("etag").build();
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenReturn(uploadPartResponse);
+        ByteBuffer body = ByteBuffer.wrap(new byte[]{1,2,3});
+        assertEquals("etag", s3Service.uploadS3(1, body, checksumEngine.digest(body), "key", "uploadId"));
+        assertEquals(0, body.position());
+    }
+
+    @Test
+    void copyObjectS3_copiesWithinBucket() {
+        when(s3Client.copyObject(any(CopyObjectRequest.class))).thenReturn(CopyObjectResponse.builder()
+                .copyObjectResult(CopyObjectResult.builder().eTag("etag").build()).build());
+
+        assertEquals("etag", s3Service.copyObjectS3("source", "destination"));
+
+        ArgumentCaptor<CopyObjectRequest> captor = ArgumentCaptor.forClass(CopyObjectRequest.class);
+        verify(s3Client).copyObject(captor.capture());
+        assertEquals("test-bucket", captor.getValue().sourceBucket());
+        assertEquals("source", captor.getValue().sourceKey());
+        assertEquals("destination", captor.getValue().destinationKey());
+    }
 }
@@ -26,7 +26,7 @@ class S3ServiceLocalImplTest {
 
     @Test
     void singleFileUploadS3_returnsNotSupported() {
-        String result = service.singleFileUploadS3(new byte[]{1,2,3}, "key", Map.of());
+        String result = service.singleFileUploadS3(new byte[]{1,2,3}, null, "key", Map.of());
         assertEquals("Not supported in local", result);
     }
 
@@ -0,0 +1,187 @@
+package com.mastercard.ids.fts.service;
+
+import com.mastercard.ids.fts.model.S3FileData;
+import com.mastercard.ids.fts.utils.ChecksumEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.util.DigestUtils;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.model.CopyObjectResponse;
+import software.amazon.awssdk.services.s3.model.CopyObjectResult;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
+import software.amazon.awssdk.transfer.s3.model.CompletedCopy;
+import software.amazon.awssdk.transfer.s3.model.CompletedDownload;
+import software.amazon.awssdk.transfer.s3.model.CompletedUpload;
+import software.amazon.awssdk.transfer.s3.model.Copy;
+import software.amazon.awssdk.transfer.s3.model.CopyRequest;
+import software.amazon.awssdk.transfer.s3.model.Download;
+import software.amazon.awssdk.transfer.s3.model.DownloadRequest;
+import software.amazon.awssdk.transfer.s3.model.Upload;
+import software.amazon.awssdk.transfer.s3.model.UploadRequest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class S3TransferManagerServiceImplTest {
+
+    @Mock
+    private S3TransferManager s3TransferManager;
+
+    @Mock
+    private S3ServiceImpl s3ServiceImpl;
+
+    @Mock
+    private MeterRegistryService meterRegistryService;
+
+    private final ChecksumEngine checksumEngine = new ChecksumEngine("none");
+    private S3TransferManagerServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        service = new S3TransferManagerServiceImpl(s3TransferManager, s3ServiceImpl, checksumEngine, meterRegistryService);
+        var field = S3TransferManagerServiceImpl.class.getDeclaredField("bucketName");
+        field.setAccessible(true);
+        field.set(service, "test-bucket");
+    }
+
+    @Test
+    void singleFileUploadS3_uploadsThroughTransferManagerWithProgressListener() {
+        Upload upload = mock(Upload.class);
+        when(upload.completionFuture()).thenReturn(CompletableFuture.completedFuture(
+                CompletedUpload.builder().response(PutObjectResponse.builder().eTag("etag").build()).build()));
+        when(s3TransferManager.upload(any(UploadRequest.class))).thenReturn(upload);
+
+        assertEquals("etag", service.singleFileUploadS3(new byte[]{1, 2, 3}, checksumEngine.digest(new byte[]{1, 2, 3}), "key", Map.of("a", "b")));
+
+        ArgumentCaptor<UploadRequest> captor = ArgumentCaptor.forClass(UploadRequest.class);
+        verify(s3TransferManager).upload(captor.capture());
+        assertEquals("test-bucket", captor.getValue().putObjectRequest().bucket());
+        assertEquals("key", captor.getValue().putObjectRequest().key());
+        assertEquals(Map.of("a", "b"), captor.getValue().putObjectRequest().metadata());
+        assertTrue(captor.getValue().transferListeners().get(0) instanceof S3TransferMetricsListener);
+    }
+
+    @Test
+    void singleFileUploadS3_failureIsRethrown() {
+        Upload upload = mock(Upload.class);
+        when(upload.completionFuture()).thenReturn(CompletableFuture.failedFuture(new RuntimeException("s3 down")));
+        when(s3TransferManager.upload(any(UploadRequest.class))).thenReturn(upload);
+
+        assertThrows(RuntimeException.class, () -> service.singleFileUploadS3(new byte[]{1}, checksumEngine.digest(new byte[]{1}), "key", Map.of()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void singleFileDownloadS3_downloadsAndVerifiesMd5ETag() {
+        byte[] content = {1, 2, 3};
+        GetObjectResponse response = GetObjectResponse.builder()
+                .eTag("\"" + DigestUtils.md5DigestAsHex(content) + "\"")
+                .metadata(Map.of("foo", "bar"))
+                .build();
+        Download<ResponseBytes<GetObjectResponse>> download = mock(Download.class);
+        when(download.completionFuture()).thenReturn(CompletableFuture.completedFuture(
+                CompletedDownload.builder().result(ResponseBytes.fromByteArray(response, content)).build()));
+        when(s3TransferManager.download(any(DownloadRequest.class))).thenReturn((Download) download);
+
+        S3FileData data = service.singleFileDownloadS3("object%2Ekey");
+
+        assertArrayEquals(content, data.getFileContent().get());
+        assertEquals("bar", data.getMetadata().get("foo"));
+        ArgumentCaptor<DownloadRequest> captor = ArgumentCaptor.forClass(DownloadRequest.class);
+        verify(s3TransferManager).download(captor.capture());
+        assertEquals("object.key", captor.getValue().getObjectRequest().key());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void singleFileDownloadS3_checksumMismatchFails() {
+        GetObjectResponse response = GetObjectResponse.builder().eTag("\"0123456789abcdef0123456789abcdef\"").build();
+        Download<ResponseBytes<GetObjectResponse>> download = mock(Download.class);
+        when(download.completionFuture()).thenReturn(CompletableFuture.completedFuture(
+                CompletedDownload.builder().result(ResponseBytes.fromByteArray(response, new byte[]{1, 2, 3})).build()));
+        when(s3TransferManager.download(any(DownloadRequest.class))).thenReturn((Download) download);
+
+        assertThrows(RuntimeException.class, () -> service.singleFileDownloadS3("key"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void multiPartDownloadS3_readsRangeIntoBufferThroughTransferManager() {
+        GetObjectResponse response = GetObjectResponse.builder()
+                .contentRange("bytes 5-9/15")
+                .metadata(Map.of("foo", "bar"))
+                .build();
+        Download<ResponseInputStream<GetObjectResponse>> download = mock(Download.class);
+        when(download.completionFuture()).thenReturn(CompletableFuture.completedFuture(CompletedDownload.builder()
+                .result(new ResponseInputStream<>(response, new ByteArrayInputStream("fghij".getBytes())))
+                .build()));
+        when(s3TransferManager.download(any(DownloadRequest.class))).thenReturn((Download) download);
+        ByteBuffer target = ByteBuffer.allocate(8);
+
+        S3FileData data = service.multiPartDownloadS3("key", 5, 9, target);
+
+        assertEquals("fghij", StandardCharsets.UTF_8.decode(target).toString());
+        assertTrue(data.getFileContent().isEmpty());
+        assertEquals("bytes 5-9/15", data.getFileContentRange().get());
+        assertEquals("bar", data.getMetadata().get("foo"));
+        ArgumentCaptor<DownloadRequest> captor = ArgumentCaptor.forClass(DownloadRequest.class);
+        verify(s3TransferManager).download(captor.capture());
+        assertEquals("bytes=5-9", captor.getValue().getObjectRequest().range());
+        assertTrue(captor.getValue().transferListeners().get(0) instanceof S3TransferMetricsListener);
+        verifyNoInteractions(s3ServiceImpl);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void multiPartDownloadS3_intoBuffer_failureIsRethrown() {
+        Download<ResponseInputStream<GetObjectResponse>> download = mock(Download.class);
+        when(download.completionFuture()).thenReturn(CompletableFuture.failedFuture(new RuntimeException("s3 down")));
+        when(s3TransferManager.download(any(DownloadRequest.class))).thenReturn((Download) download);
+
+        assertThrows(RuntimeException.class, () -> service.multiPartDownloadS3("key", 0, 9, ByteBuffer.allocate(10)));
+    }
+
+    @Test
+    void copyObjectS3_copiesThroughTransferManager() {
+        Copy copy = mock(Copy.class);
+        when(copy.completionFuture()).thenReturn(CompletableFuture.completedFuture(CompletedCopy.builder()
+                .response(CopyObjectResponse.builder().copyObjectResult(CopyObjectResult.builder().eTag("etag").build()).build())
+                .build()));
+        when(s3TransferManager.copy(any(CopyRequest.class))).thenReturn(copy);
+
+        assertEquals("etag", service.copyObjectS3("source", "destination"));
+
+        ArgumentCaptor<CopyRequest> captor = ArgumentCaptor.forClass(CopyRequest.class);
+        verify(s3TransferManager).copy(captor.capture());
+        assertEquals("test-bucket", captor.getValue().copyObjectRequest().sourceBucket());
+        assertEquals("destination", captor.getValue().copyObjectRequest().destinationKey());
+    }
+
+    @Test
+    void partLevelCallsAreLeftToTheS3Client() {
+        when(s3ServiceImpl.initiateMultipartUploadRequest("key", Map.of())).thenReturn("upload-id");
+        when(s3ServiceImpl.completeMultipartUpload("key", "upload-id", List.of())).thenReturn("etag");
+
+        assertEquals("upload-id", service.initiateMultipartUploadRequest("key", Map.of()));
+        assertEquals("etag", service.completeMultipartUpload("key", "upload-id", List.of()));
+        service.multiPartDownloadS3("key", 0, 9);
+
+        verify(s3ServiceImpl).multiPartDownloadS3("key", 0, 9);
+        verifyNoInteractions(s3TransferManager);
+    }
+}
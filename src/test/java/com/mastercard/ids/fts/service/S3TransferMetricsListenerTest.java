@@ -0,0 +1,64 @@
+package com.mastercard.ids.fts.service;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.transfer.s3.progress.TransferListener;
+import software.amazon.awssdk.transfer.s3.progress.TransferProgressSnapshot;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.Mockito.*;
+
+class S3TransferMetricsListenerTest {
+
+    private final MeterRegistryService meterRegistryService = mock(MeterRegistryService.class);
+    private final S3TransferMetricsListener listener = new S3TransferMetricsListener(meterRegistryService, "download", "key");
+
+    @Test
+    void recordsOnlyTheBytesNotCountedYet() {
+        listener.bytesTransferred(bytesTransferred(100));
+        listener.bytesTransferred(bytesTransferred(250));
+        listener.transferComplete(transferComplete(400));
+
+        verify(meterRegistryService).recordS3Transfer("download", 100);
+        verify(meterRegistryService, times(2)).recordS3Transfer("download", 150);
+        verifyNoMoreInteractions(meterRegistryService);
+    }
+
+    @Test
+    void ignoresSnapshotsArrivingOutOfOrder() {
+        listener.bytesTransferred(bytesTransferred(300));
+        listener.bytesTransferred(bytesTransferred(200));
+
+        verify(meterRegistryService).recordS3Transfer("download", 300);
+        verifyNoMoreInteractions(meterRegistryService);
+    }
+
+    @Test
+    void failedTransferRecordsNothing() {
+        TransferListener.Context.TransferFailed failed = mock(TransferListener.Context.TransferFailed.class);
+        when(failed.exception()).thenReturn(new RuntimeException("s3 down"));
+
+        assertDoesNotThrow(() -> listener.transferFailed(failed));
+
+        verifyNoInteractions(meterRegistryService);
+    }
+
+    private static TransferListener.Context.BytesTransferred bytesTransferred(long transferredBytes) {
+        TransferProgressSnapshot snapshot = snapshot(transferredBytes);
+        TransferListener.Context.BytesTransferred context = mock(TransferListener.Context.BytesTransferred.class);
+        when(context.progressSnapshot()).thenReturn(snapshot);
+        return context;
+    }
+
+    private static TransferListener.Context.TransferComplete transferComplete(long transferredBytes) {
+        TransferProgressSnapshot snapshot = snapshot(transferredBytes);
+        TransferListener.Context.TransferComplete context = mock(TransferListener.Context.TransferComplete.class);
+        when(context.progressSnapshot()).thenReturn(snapshot);
+        return context;
+    }
+
+    private static TransferProgressSnapshot snapshot(long transferredBytes) {
+        TransferProgressSnapshot snapshot = mock(TransferProgressSnapshot.class);
+        when(snapshot.transferredBytes()).thenReturn(transferredBytes);
+        return snapshot;
+    }
+}
@@ -1,9 +1,20 @@
 package com.mastercard.ids.fts.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.awspring.cloud.sqs.listener.SqsHeaders;
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
 
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class SQSMessageListnerServiceTest {
@@ -11,12 +22,65 @@ class SQSMessageListnerServiceTest {
     @Mock
     private OutboundFileListProcessor outboundFileListProcessor;
 
-    @InjectMocks
     private SQSMessageListnerService listenerService;
 
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        listenerService = new SQSMessageListnerService(outboundFileListProcessor, new ObjectMapper(), executor, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testReceiveMessages_acknowledgesOnlyHandledMessages() {
+        Message<String> ok = MessageBuilder.withPayload(s3Event("a.txt", "b.txt")).build();
+        Message<String> failing = MessageBuilder.withPayload(s3Event("bad.txt")).build();
+        Message<String> malformed = MessageBuilder.withPayload("{ not-a-json }").build();
+        doThrow(new RuntimeException("simulated failure"))
+                .when(outboundFileListProcessor).processOutboundFiles("bad.txt", 10L);
+        @SuppressWarnings("unchecked")
+        BatchAcknowledgement<String> acknowledgement = mock(BatchAcknowledgement.class);
+
+        listenerService.receiveMessages(List.of(ok, failing, malformed), acknowledgement);
+
+        verify(outboundFileListProcessor).processOutboundFiles("a.txt", 10L);
+        verify(outboundFileListProcessor).processOutboundFiles("b.txt", 10L);
+        verify(acknowledgement).acknowledge(List.of(ok, malformed));
+    }
+
+    @Test
+    void testReceiveMessages_acknowledgesFailingMessageAtMaxReceiveCount() {
+        Message<String> retried = MessageBuilder.withPayload(s3Event("bad.txt"))
+                .setHeader(SqsHeaders.MessageSystemAttributes.SQS_APPROXIMATE_RECEIVE_COUNT, "2")
+                .build();
+        Message<String> poison = MessageBuilder.withPayload(s3Event("bad.txt"))
+                .setHeader(SqsHeaders.MessageSystemAttributes.SQS_APPROXIMATE_RECEIVE_COUNT, "3")
+                .build();
+        doThrow(new RuntimeException("simulated failure"))
+                .when(outboundFileListProcessor).processOutboundFiles("bad.txt", 10L);
+        @SuppressWarnings("unchecked")
+        BatchAcknowledgement<String> acknowledgement = mock(BatchAcknowledgement.class);
+
+        listenerService.receiveMessages(List.of(retried, poison), acknowledgement);
+
+        verify(acknowledgement).acknowledge(List.of(poison));
+    }
+
+    private static String s3Event(String... keys) {
+        StringBuilder records = new StringBuilder();
+        for (String key : keys) {
+            if (!records.isEmpty()) {
+                records.append(',');
+            }
+            records.append("{\"s3\":{\"object\":{\"key\":\"").append(key).append("\",\"size\":10}}}");
+        }
+        return "{\"Records\":[" + records + "]}";
     }
 
     @Test
@@ -112,9 +176,10 @@ class SQSMessageListnerServiceTest {
                 .processOutboundFiles("bad-key.txt", 9999L);
 
         // Act
-        listenerService.receiveMessage(message);
+        boolean handled = listenerService.receiveMessage(message);
 
         // Assert
         verify(outboundFileListProcessor).processOutboundFiles("bad-key.txt", 9999L);
+        assertFalse(handled);
     }
 }
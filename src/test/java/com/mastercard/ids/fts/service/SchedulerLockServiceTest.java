@@ -0,0 +1,82 @@
+package com.mastercard.ids.fts.service;
+
+import com.mastercard.ids.fts.model.SchedulerLock;
+import com.mastercard.ids.fts.repository.SchedulerLockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SchedulerLockServiceTest {
+
+    @Mock
+    private SchedulerLockRepository schedulerLockRepository;
+
+    private SchedulerLockService lockService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        TransferLeaseService leaseService = new TransferLeaseService(null, null, null, false, Duration.ofMinutes(15), "pod-a");
+        lockService = new SchedulerLockService(schedulerLockRepository, leaseService, true, 120);
+    }
+
+    @Test
+    void tryLock_acquiresFreeOrExpiredLock() {
+        when(schedulerLockRepository.acquire(eq("poll"), eq("pod-a"), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
+
+        assertTrue(lockService.tryLock("poll"));
+        verify(schedulerLockRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void tryLock_failsWhileHeldElsewhere() {
+        when(schedulerLockRepository.acquire(any(), any(), any(), any())).thenReturn(0);
+        when(schedulerLockRepository.existsById("poll")).thenReturn(true);
+
+        assertFalse(lockService.tryLock("poll"));
+    }
+
+    @Test
+    void tryLock_createsMissingLockRow() {
+        when(schedulerLockRepository.acquire(any(), any(), any(), any())).thenReturn(0);
+        when(schedulerLockRepository.existsById("poll")).thenReturn(false);
+
+        assertTrue(lockService.tryLock("poll"));
+        verify(schedulerLockRepository).saveAndFlush(argThat((SchedulerLock lock) -> lock.getName().equals("poll") && lock.getLockedBy().equals("pod-a") && lock.isNew()));
+    }
+
+    @Test
+    void tryLock_losesRaceToCreateLockRow() {
+        when(schedulerLockRepository.acquire(any(), any(), any(), any())).thenReturn(0);
+        when(schedulerLockRepository.existsById("poll")).thenReturn(false);
+        when(schedulerLockRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertFalse(lockService.tryLock("poll"));
+    }
+
+    @Test
+    void unlock_releasesOwnLock() {
+        lockService.unlock("poll");
+
+        verify(schedulerLockRepository).release(eq("poll"), eq("pod-a"), any(LocalDateTime.class));
+    }
+
+    @Test
+    void disabled_alwaysLocksWithoutDatabase() {
+        TransferLeaseService leaseService = new TransferLeaseService(null, null, null, false, Duration.ofMinutes(15), "pod-a");
+        SchedulerLockService disabled = new SchedulerLockService(schedulerLockRepository, leaseService, false, 120);
+
+        assertTrue(disabled.tryLock("poll"));
+        disabled.unlock("poll");
+        verifyNoInteractions(schedulerLockRepository);
+    }
+}
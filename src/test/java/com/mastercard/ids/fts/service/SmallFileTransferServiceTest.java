@@ -3,6 +3,7 @@ package com.mastercard.ids.fts.service;
 import com.mastercard.ids.fts.model.*;
 import com.mastercard.ids.fts.repository.FileRepository;
 import com.mastercard.ids.fts.repository.OutboundRepository;
+import com.mastercard.ids.fts.utils.ChecksumEngine;
 import com.mastercard.ids.fts.utils.Constants;
 import com.mastercard.ids.fts.utils.NGFTConstants;
 import com.mastercard.ids.fts.utils.Utils;
@@ -11,12 +12,15 @@ import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class SmallFileTransferServiceTest {
@@ -39,6 +43,12 @@ class SmallFileTransferServiceTest {
     @Mock
     private Utils utils;
 
+    @Mock
+    private CompletedFileIdCache completedFileIdCache;
+
+    @Spy
+    private ChecksumEngine checksumEngine = new ChecksumEngine("none");
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -56,17 +66,16 @@ class SmallFileTransferServiceTest {
         request.setFileInfo(fileInfo);
 
         byte[] fileContent = "test data".getBytes();
-        String checksum = "mockChecksum";
+        String checksum = DigestUtils.md5DigestAsHex(fileContent);
 
         HttpHeaders headers = new HttpHeaders();
         headers.add(NGFTConstants.HEADER_FILE_CHECKSUM, checksum); // Corrected line
         ResponseEntity<byte[]> response = ResponseEntity.ok().headers(headers).body(fileContent);
 
         when(ngftService.download(request)).thenReturn(response);
-        when(utils.verifyChecksum(fileContent, checksum)).thenReturn(true);
         when(utils.getS3FileNamekey(request)).thenReturn("s3/key/path/file.txt");
         when(utils.getFileMetadata(request)).thenReturn(Map.of("meta", "value"));
-        when(s3Service.singleFileUploadS3(fileContent, "s3/key/path/file.txt", Map.of("meta", "value")))
+        when(s3Service.singleFileUploadS3(eq(fileContent), any(), eq("s3/key/path/file.txt"), eq(Map.of("meta", "value"))))
                 .thenReturn("etag123");
 
         // Act
@@ -74,6 +83,7 @@ class SmallFileTransferServiceTest {
 
         // Assert
         assertEquals("etag123", result.join());
+        verify(checksumEngine, times(1)).digest(fileContent);
 
         verify(fileRepository).updateFileStatusesByFileId(
                 "file123", Constants.FILE_PROCESSING_STATUS_IN_PROGRESS, Constants.FILE_PROCESSING_STATUS_IN_PROGRESS
@@ -81,6 +91,7 @@ class SmallFileTransferServiceTest {
         verify(fileRepository).updateFileStatusesByFileId(
                 "file123", Constants.FILE_PROCESSING_STATUS_COMPLETED, Constants.FILE_PROCESSING_STATUS_COMPLETED
         );
+        verify(completedFileIdCache).markCompleted("file123");
     }
 
 
@@ -102,7 +113,6 @@ class SmallFileTransferServiceTest {
         ResponseEntity<byte[]> response = ResponseEntity.ok().headers(headers).body(fileContent);
 
         when(ngftService.download(request)).thenReturn(response);
-        when(utils.verifyChecksum(fileContent, checksum)).thenReturn(false);
 
         CompletableFuture<String> result = service.transferInbound(request);
         assertEquals("FAILED: file123", result.join());
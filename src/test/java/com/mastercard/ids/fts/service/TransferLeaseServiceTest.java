@@ -0,0 +1,135 @@
+package com.mastercard.ids.fts.service;
+
+import com.mastercard.ids.fts.model.InboundFile;
+import com.mastercard.ids.fts.repository.FileRepository;
+import com.mastercard.ids.fts.repository.OutboundRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TransferLeaseServiceTest {
+
+    @Mock
+    private FileRepository fileRepository;
+
+    @Mock
+    private OutboundRepository outboundRepository;
+
+    private TransferLeaseService leaseService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        leaseService = new TransferLeaseService(fileRepository, outboundRepository, null, true, Duration.ofMinutes(15), "pod-a");
+    }
+
+    @Test
+    void claimInbound_returnsOnlyRowsLeasedToThisInstance() {
+        when(fileRepository.findLeasedFileIds(List.of("1", "2", "3"), "pod-a")).thenReturn(List.of("3", "1"));
+
+        Set<String> claimed = leaseService.claimInbound(List.of("1", "2", "3"));
+
+        assertEquals(List.of("1", "3"), List.copyOf(claimed));
+        verify(fileRepository).claimLeases(eq(List.of("1", "2", "3")), eq("pod-a"), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void claimInbound_skipsFilesAlreadyHeldUntilReleased() {
+        when(fileRepository.findLeasedFileIds(anyCollection(), eq("pod-a"))).thenReturn(List.of("1"));
+        leaseService.claimInbound(List.of("1"));
+
+        assertTrue(leaseService.claimInbound(List.of("1")).isEmpty());
+        verify(fileRepository, times(1)).claimLeases(anyCollection(), any(), any(), any());
+
+        leaseService.releaseInbound("1");
+        verify(fileRepository).releaseLease("1", "pod-a");
+        assertEquals(Set.of("1"), leaseService.claimInbound(List.of("1")));
+    }
+
+    @Test
+    void claimNextInbound_readsOneBoundedPageAndSkipsExcludedFiles() {
+        InboundFile attempted = InboundFile.builder().fileId("1").fileSize(10L).build();
+        InboundFile next = InboundFile.builder().fileId("2").fileSize(10L).build();
+        when(fileRepository.findClaimableFiles(any(LocalDateTime.class), eq(-1L), eq(100L), eq(PageRequest.of(0, 2)))).thenReturn(List.of(attempted, next));
+        when(fileRepository.findLeasedFileIds(List.of("2"), "pod-a")).thenReturn(List.of("2"));
+
+        List<InboundFile> claimed = leaseService.claimNextInbound(new InboundDispatchQueue.ClaimWindow(-1, 100, 1, Long.MAX_VALUE, false), Set.of("1"));
+
+        assertEquals(List.of(next), claimed);
+        verify(fileRepository).claimLeases(eq(List.of("2")), eq("pod-a"), any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void claimNextInbound_claimsNothingWithoutFreeSlots() {
+        assertTrue(leaseService.claimNextInbound(new InboundDispatchQueue.ClaimWindow(-1, 100, 0, Long.MAX_VALUE, false), Set.of()).isEmpty());
+
+        verifyNoInteractions(fileRepository);
+    }
+
+    @Test
+    void claimNextInbound_stopsAtTheByteBudget() {
+        InboundFile first = InboundFile.builder().fileId("1").fileSize(600L).build();
+        InboundFile second = InboundFile.builder().fileId("2").fileSize(600L).build();
+        InboundFile third = InboundFile.builder().fileId("3").fileSize(100L).build();
+        when(fileRepository.findClaimableFiles(any(LocalDateTime.class), eq(100L), eq(Long.MAX_VALUE), any())).thenReturn(List.of(first, second, third));
+        when(fileRepository.findLeasedFileIds(List.of("1"), "pod-a")).thenReturn(List.of("1"));
+
+        List<InboundFile> claimed = leaseService.claimNextInbound(new InboundDispatchQueue.ClaimWindow(100, Long.MAX_VALUE, 3, 1000, false), Set.of());
+
+        // The third file fits but is not claimed ahead of the older second one
+        assertEquals(List.of(first), claimed);
+    }
+
+    @Test
+    void claimNextInbound_claimsOneFileOverTheBudgetWhenTheLaneIsIdle() {
+        InboundFile huge = InboundFile.builder().fileId("1").fileSize(5000L).build();
+        InboundFile next = InboundFile.builder().fileId("2").fileSize(100L).build();
+        when(fileRepository.findClaimableFiles(any(LocalDateTime.class), anyLong(), anyLong(), any())).thenReturn(List.of(huge, next));
+        when(fileRepository.findLeasedFileIds(List.of("1"), "pod-a")).thenReturn(List.of("1"));
+
+        assertEquals(List.of(huge), leaseService.claimNextInbound(new InboundDispatchQueue.ClaimWindow(100, Long.MAX_VALUE, 2, 1000, true), Set.of()));
+        assertTrue(leaseService.claimNextInbound(new InboundDispatchQueue.ClaimWindow(100, Long.MAX_VALUE, 2, 1000, false), Set.of("1")).isEmpty());
+    }
+
+    @Test
+    void renewLeases_extendsHeldLeases() {
+        when(fileRepository.findLeasedFileIds(anyCollection(), eq("pod-a"))).thenReturn(List.of("1"));
+        when(outboundRepository.findLeasedRequestIds(anyCollection(), eq("pod-a"))).thenReturn(List.of("r1"));
+        leaseService.claimInbound(List.of("1"));
+        leaseService.claimOutbound(List.of("r1"));
+
+        leaseService.renewLeases();
+
+        verify(fileRepository).renewLeases(eq(List.of("1")), eq("pod-a"), any(LocalDateTime.class));
+        verify(outboundRepository).renewLeases(eq(List.of("r1")), eq("pod-a"), any(LocalDateTime.class));
+    }
+
+    @Test
+    void releaseOutbound_ignoresRowsNotHeld() {
+        leaseService.releaseOutbound("r1");
+
+        verify(outboundRepository, never()).releaseLease(any(), any());
+    }
+
+    @Test
+    void disabled_claimsEverythingWithoutTouchingTheDatabase() {
+        TransferLeaseService disabled = new TransferLeaseService(fileRepository, outboundRepository, null, false, Duration.ofMinutes(15), "pod-a");
+
+        assertEquals(Set.of("1", "2"), disabled.claimInbound(List.of("1", "2")));
+        assertEquals(Set.of("r1"), disabled.claimOutbound(List.of("r1")));
+        disabled.releaseInbound("1");
+
+        verifyNoInteractions(fileRepository, outboundRepository);
+    }
+}
@@ -0,0 +1,63 @@
+package com.mastercard.ids.fts.service;
+
+import com.mastercard.ids.fts.model.TransferPart;
+import com.mastercard.ids.fts.repository.TransferPartRepository;
+import com.mastercard.ids.fts.utils.Constants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TransferProgressServiceTest {
+
+    @Mock
+    private TransferPartRepository transferPartRepository;
+
+    @InjectMocks
+    private TransferProgressService transferProgressService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testCompletedParts_keyedByPartNumber() {
+        TransferPart first = TransferPart.builder().transferId("file123").partNumber(1).eTag("etag-1").build();
+        TransferPart third = TransferPart.builder().transferId("file123").partNumber(3).eTag("etag-3").build();
+        when(transferPartRepository.findByTransferIdOrderByPartNumber("file123")).thenReturn(List.of(first, third));
+
+        Map<Integer, TransferPart> parts = transferProgressService.completedParts("file123");
+
+        assertEquals(List.of(1, 3), List.copyOf(parts.keySet()));
+        assertEquals("etag-3", parts.get(3).getETag());
+    }
+
+    @Test
+    void testRecordPart_savesPartWithStableId() {
+        transferProgressService.recordPart("file123", Constants.TRANSFER_DIRECTION_INBOUND, 2, 5L, 9L, "etag-2", null);
+
+        ArgumentCaptor<TransferPart> captor = ArgumentCaptor.forClass(TransferPart.class);
+        verify(transferPartRepository).save(captor.capture());
+        TransferPart saved = captor.getValue();
+        assertEquals("file123:2", saved.getPartId());
+        assertEquals("file123", saved.getTransferId());
+        assertEquals(Constants.TRANSFER_DIRECTION_INBOUND, saved.getDirection());
+        assertEquals(5L, saved.getStartByte());
+        assertEquals(9L, saved.getEndByte());
+        assertEquals("etag-2", saved.getETag());
+        assertNotNull(saved.getCompletedTs());
+    }
+
+    @Test
+    void testClear_deletesAllPartsOfTransfer() {
+        transferProgressService.clear("file123");
+
+        verify(transferPartRepository).deleteByTransferId("file123");
+    }
+}
@@ -0,0 +1,98 @@
+package com.mastercard.ids.fts.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChecksumEngineTest {
+
+    // Spans several digest blocks
+    private final byte[] content = new byte[200_000];
+
+    ChecksumEngineTest() {
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+    }
+
+    @Test
+    void digest_md5Only() {
+        PayloadDigest digest = new ChecksumEngine("none").digest(content);
+
+        assertEquals(DigestUtils.md5DigestAsHex(content), digest.md5Hex());
+        assertEquals(Base64.getEncoder().encodeToString(DigestUtils.md5Digest(content)), digest.md5Base64());
+        assertNull(digest.crc32cBase64());
+        assertNull(digest.sha256Base64());
+    }
+
+    @Test
+    void digest_crc32c() {
+        CRC32C crc32c = new CRC32C();
+        crc32c.update(content);
+        String expected = Base64.getEncoder().encodeToString(ByteBuffer.allocate(4).putInt((int) crc32c.getValue()).array());
+
+        PayloadDigest digest = new ChecksumEngine("CRC32C").digest(content);
+
+        assertEquals(expected, digest.crc32cBase64());
+        assertEquals(DigestUtils.md5DigestAsHex(content), digest.md5Hex());
+        assertNull(digest.sha256Base64());
+    }
+
+    @Test
+    void digest_sha256() throws Exception {
+        String expected = Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(content));
+
+        PayloadDigest digest = new ChecksumEngine("sha256").digest(content);
+
+        assertEquals(expected, digest.sha256Base64());
+        assertNull(digest.crc32cBase64());
+    }
+
+    @Test
+    void digest_bufferKeepsPosition() {
+        ChecksumEngine engine = new ChecksumEngine("sha256");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(content.length);
+        buffer.put(content).flip();
+
+        PayloadDigest digest = engine.digest(buffer);
+
+        assertEquals(0, buffer.position());
+        assertEquals(engine.digest(content).md5Hex(), digest.md5Hex());
+        assertEquals(engine.digest(content).sha256Base64(), digest.sha256Base64());
+    }
+
+    @Test
+    void digesting_matchesWholePayloadDigest() throws IOException {
+        ChecksumEngine engine = new ChecksumEngine("crc32c");
+        ChecksumEngine.DigestingInputStream in = engine.digesting(new ByteArrayInputStream(content));
+
+        assertEquals(content[0] & 0xff, in.read());
+        assertArrayEquals(java.util.Arrays.copyOfRange(content, 1, content.length), in.readAllBytes());
+
+        PayloadDigest expected = engine.digest(content);
+        assertEquals(expected.md5Hex(), in.digest().md5Hex());
+        assertEquals(expected.crc32cBase64(), in.digest().crc32cBase64());
+    }
+
+    @Test
+    void matchesMd5Hex() {
+        PayloadDigest digest = new ChecksumEngine("none").digest(content);
+
+        assertTrue(digest.matchesMd5Hex(DigestUtils.md5DigestAsHex(content).toUpperCase()));
+        assertFalse(digest.matchesMd5Hex("invalidChecksum"));
+        assertFalse(digest.matchesMd5Hex(null));
+    }
+
+    @Test
+    void constructor_rejectsUnknownAlgorithm() {
+        assertThrows(IllegalArgumentException.class, () -> new ChecksumEngine("md4"));
+    }
+}
@@ -0,0 +1,28 @@
+package com.mastercard.ids.fts.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferExecutorsTest {
+
+    @Test
+    void newTransferExecutor_virtualThreads() throws Exception {
+        ExecutorService executor = TransferExecutors.newTransferExecutor("test-", 2, true);
+        Thread thread = executor.submit(Thread::currentThread).get();
+        assertTrue(thread.isVirtual());
+        assertTrue(thread.getName().startsWith("test-"));
+        executor.shutdownNow();
+    }
+
+    @Test
+    void newTransferExecutor_platformThreads() throws Exception {
+        ExecutorService executor = TransferExecutors.newTransferExecutor("test-", 2, false);
+        Thread thread = executor.submit(Thread::currentThread).get();
+        assertFalse(thread.isVirtual());
+        assertTrue(thread.getName().startsWith("test-"));
+        executor.shutdownNow();
+    }
+}